@@ -0,0 +1,97 @@
+package org.gserve.reflectdb.benchmarks;
+/*
+ *  Copyright (C) 2026 Dustin K. Redmond
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 59
+ * Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+import org.gserve.reflectdb.ReflectDB;
+import org.gserve.reflectdb.ReflectDBConfig;
+import org.gserve.reflectdb.query.InsertMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Creates the SQLite database a benchmark runs against, either a temporary file or
+ * a shared-cache in-memory database, and initializes {@code ReflectDB} with it.
+ * <p>{@code ReflectDB} keeps its configuration in a static field, so each trial
+ * (one JMH fork per parameter combination) owns the whole JVM.
+ *
+ * @since 10/18/2026 21:05
+ * @author Dustin K. Redmond
+ */
+@State(Scope.Benchmark)
+public abstract class DatabaseState {
+
+    @Param({"file", "memory"})
+    public String storage;
+
+    protected ReflectDB db;
+    private Path file;
+    // An in-memory database lives only as long as one of its connections is open.
+    private Connection keepAlive;
+
+    @Setup(Level.Trial)
+    public void openDatabase() throws Exception {
+        final String url;
+        if ("file".equals(this.storage)) {
+            this.file = Files.createTempFile("reflectdb-bench", ".db");
+            url = "jdbc:sqlite:" + this.file;
+        } else {
+            url = "jdbc:sqlite:file:reflectdb-bench-" + System.nanoTime() + "?mode=memory&cache=shared";
+            this.keepAlive = DriverManager.getConnection(url);
+        }
+        ReflectDBConfig config = new ReflectDBConfig(url, "BENCH_DB", "", "", 3306);
+        config.setInsertMode(InsertMode.MULTI_ROW);
+        this.db = ReflectDB.initialize(config);
+        this.db.addModelClasses(NarrowRow.class, WideRow.class);
+        this.db.createTablesIfNotExists();
+    }
+
+    @TearDown(Level.Trial)
+    public void closeDatabase() throws Exception {
+        if (this.keepAlive != null) {
+            this.keepAlive.close();
+        }
+        if (this.file != null) {
+            Files.deleteIfExists(this.file);
+        }
+    }
+
+    /**
+     * Inserts {@code rows} rows created by {@code factory}, ids are generated from 1.
+     */
+    protected void seed(int rows, IntFunction<?> factory) throws SQLException {
+        List<Object> objects = new ArrayList<>(rows);
+        for (int i = 1; i <= rows; i++) {
+            objects.add(factory.apply(i));
+        }
+        this.db.insertAll(objects);
+    }
+}
@@ -0,0 +1,74 @@
+package org.gserve.reflectdb.benchmarks;
+/*
+ *  Copyright (C) 2026 Dustin K. Redmond
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 59
+ * Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+import org.gserve.reflectdb.ReflectDB;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code createTablesIfNotExists} for the two benchmark tables (with their indexes,
+ * if any), both when the tables already exist, as on every application start after
+ * the first, and when they have just been dropped.
+ *
+ * @since 10/18/2026 21:30
+ * @author Dustin K. Redmond
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DdlBenchmark extends DatabaseState {
+
+    @Benchmark
+    public void createTablesExisting() throws SQLException {
+        this.db.createTablesIfNotExists();
+    }
+
+    @Benchmark
+    public void createTablesDropped(Dropped dropped) throws SQLException {
+        this.db.createTablesIfNotExists();
+    }
+
+    /**
+     * Drops the benchmark tables before each call of {@link #createTablesDropped(Dropped)}.
+     */
+    @State(Scope.Thread)
+    public static class Dropped {
+        @Setup(Level.Invocation)
+        public void dropTables() {
+            ReflectDB db = ReflectDB.getInstance();
+            db.dropTable(NarrowRow.class);
+            db.dropTable(WideRow.class);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package org.gserve.reflectdb.benchmarks;
+/*
+ *  Copyright (C) 2026 Dustin K. Redmond
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 59
+ * Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * {@code delete} of a single row. Each call deletes a row inserted just before it,
+ * outside of the measurement.
+ *
+ * @since 10/18/2026 21:20
+ * @author Dustin K. Redmond
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeleteBenchmark extends DatabaseState {
+
+    @Param({"narrow", "wide"})
+    public String width;
+
+    private IntFunction<?> factory;
+    private Object deleted;
+    private int counter = 0;
+
+    @Setup(Level.Trial)
+    public void seedRows() throws SQLException {
+        this.factory = "narrow".equals(this.width) ? NarrowRow::of : WideRow::of;
+        seed(100, this.factory);
+    }
+
+    @Setup(Level.Invocation)
+    public void insertRowToDelete() throws SQLException {
+        this.deleted = this.factory.apply(++this.counter);
+        this.db.insert(this.deleted);
+    }
+
+    @Benchmark
+    public boolean delete() {
+        return this.db.delete(this.deleted);
+    }
+}
@@ -0,0 +1,79 @@
+package org.gserve.reflectdb.benchmarks;
+/*
+ *  Copyright (C) 2026 Dustin K. Redmond
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 59
+ * Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read paths: {@code fetchAll} over tables of different sizes and widths, and
+ * {@code findById} of a random row.
+ *
+ * @since 10/18/2026 21:10
+ * @author Dustin K. Redmond
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FetchBenchmark extends DatabaseState {
+
+    @Param({"1", "100", "10000"})
+    public int rows;
+
+    @Param({"narrow", "wide"})
+    public String width;
+
+    private Class<?> modelClass;
+
+    @Setup(Level.Trial)
+    public void seedRows() throws SQLException {
+        if ("narrow".equals(this.width)) {
+            this.modelClass = NarrowRow.class;
+            seed(this.rows, NarrowRow::of);
+        } else {
+            this.modelClass = WideRow.class;
+            seed(this.rows, WideRow::of);
+        }
+    }
+
+    @Benchmark
+    public List<?> fetchAll() throws SQLException {
+        return this.db.fetchAll(this.modelClass);
+    }
+
+    @Benchmark
+    public Object findById() throws SQLException {
+        return this.db.findById(ThreadLocalRandom.current().nextInt(this.rows) + 1, this.modelClass);
+    }
+}
@@ -0,0 +1,56 @@
+package org.gserve.reflectdb.benchmarks;
+/*
+ *  Copyright (C) 2026 Dustin K. Redmond
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 59
+ * Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+import org.gserve.reflectdb.annotations.ReflectDBField;
+import org.gserve.reflectdb.annotations.ReflectDBTable;
+
+/**
+ * Three column model, the shape of a typical lookup table.
+ *
+ * @since 10/18/2026 21:00
+ * @author Dustin K. Redmond
+ */
+@ReflectDBTable(tableName = "BENCH_NARROW")
+public class NarrowRow {
+    @ReflectDBField(fieldName = "id", fieldType = "INTEGER", notNull = true, primaryKey = true)
+    private long id;
+    @ReflectDBField(fieldName = "name")
+    private String name;
+    @ReflectDBField(fieldName = "age", fieldType = "INTEGER")
+    private int age;
+
+    public NarrowRow() { super(); }
+
+    static NarrowRow of(int i) {
+        NarrowRow row = new NarrowRow();
+        row.name = "Name" + i;
+        row.age = i % 100;
+        return row;
+    }
+
+    public long getId() { return this.id; }
+    public void setId(long id) { this.id = id; }
+
+    public String getName() { return this.name; }
+    public void setName(String name) { this.name = name; }
+
+    public int getAge() { return this.age; }
+    public void setAge(int age) { this.age = age; }
+}
@@ -0,0 +1,93 @@
+package org.gserve.reflectdb.benchmarks;
+/*
+ *  Copyright (C) 2026 Dustin K. Redmond
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 59
+ * Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+import org.gserve.reflectdb.annotations.ReflectDBField;
+import org.gserve.reflectdb.annotations.ReflectDBTable;
+
+/**
+ * Sixteen column model mixing primitive, boxed and string columns, to show how
+ * mapping cost grows with the number of columns.
+ *
+ * @since 10/18/2026 21:00
+ * @author Dustin K. Redmond
+ */
+@ReflectDBTable(tableName = "BENCH_WIDE")
+public class WideRow {
+    @ReflectDBField(fieldName = "id", fieldType = "INTEGER", notNull = true, primaryKey = true)
+    private long id;
+    @ReflectDBField(fieldName = "first_name")
+    private String firstName;
+    @ReflectDBField(fieldName = "last_name")
+    private String lastName;
+    @ReflectDBField(fieldName = "email")
+    private String email;
+    @ReflectDBField(fieldName = "city")
+    private String city;
+    @ReflectDBField(fieldName = "country")
+    private String country;
+    @ReflectDBField(fieldName = "age", fieldType = "INTEGER")
+    private int age;
+    @ReflectDBField(fieldName = "visits", fieldType = "INTEGER")
+    private long visits;
+    @ReflectDBField(fieldName = "score", fieldType = "DOUBLE")
+    private double score;
+    @ReflectDBField(fieldName = "balance", fieldType = "DOUBLE")
+    private Double balance;
+    @ReflectDBField(fieldName = "rank", fieldType = "INTEGER")
+    private Integer rank;
+    @ReflectDBField(fieldName = "created", fieldType = "INTEGER")
+    private long created;
+    @ReflectDBField(fieldName = "updated", fieldType = "INTEGER")
+    private Long updated;
+    @ReflectDBField(fieldName = "active", fieldType = "BOOLEAN")
+    private boolean active;
+    @ReflectDBField(fieldName = "verified", fieldType = "BOOLEAN")
+    private Boolean verified;
+    @ReflectDBField(fieldName = "notes", fieldType = "VARCHAR(1000)")
+    private String notes;
+
+    public WideRow() { super(); }
+
+    static WideRow of(int i) {
+        WideRow row = new WideRow();
+        row.firstName = "First" + i;
+        row.lastName = "Last" + i;
+        row.email = "user" + i + "@example.org";
+        row.city = "City" + (i % 50);
+        row.country = "Country" + (i % 20);
+        row.age = i % 100;
+        row.visits = i * 3L;
+        row.score = i / 7.0;
+        row.balance = i % 3 == 0 ? null : i * 1.5;
+        row.rank = i % 5 == 0 ? null : i;
+        row.created = 1_700_000_000_000L + i;
+        row.updated = i % 2 == 0 ? null : 1_700_000_000_000L + 2L * i;
+        row.active = i % 2 == 0;
+        row.verified = i % 7 == 0 ? null : i % 3 == 0;
+        row.notes = "Notes for row " + i;
+        return row;
+    }
+
+    public long getId() { return this.id; }
+    public void setId(long id) { this.id = id; }
+
+    public int getAge() { return this.age; }
+    public void setAge(int age) { this.age = age; }
+}
@@ -0,0 +1,381 @@
+package org.gserve.reflectdb.processor;
+/*
+ *  Copyright (C) 2026 Dustin K. Redmond
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 59
+ * Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+import org.gserve.reflectdb.annotations.ReflectDBField;
+import org.gserve.reflectdb.annotations.ReflectDBTable;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Generates a {@code ReflectDBGeneratedMapper} for every {@code ReflectDBTable} class
+ * being compiled, named after the class plus {@code _ReflectDBMapper} and placed in
+ * the same package. ReflectDB finds the generated class at runtime and uses it instead
+ * of reflection to read the column metadata, create objects, get and set properties
+ * and map rows.
+ * <p>Fields are accessed directly when they are not private, otherwise through their
+ * getter and setter. A class is skipped, with a warning, if a field has neither, or if
+ * the class has no accessible no-argument constructor. ReflectDB then keeps using
+ * reflection for it.
+ *
+ * @since 10/18/2026 20:05
+ * @author Dustin K. Redmond
+ */
+@SupportedAnnotationTypes("org.gserve.reflectdb.annotations.ReflectDBTable")
+public class ReflectDBMapperProcessor extends AbstractProcessor {
+    private static final String SUFFIX = "_ReflectDBMapper";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(ReflectDBTable.class)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                continue;
+            }
+            TypeElement type = (TypeElement) element;
+            try {
+                Model model = describe(type);
+                if (model != null) {
+                    write(model);
+                }
+            } catch (IOException e) {
+                this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "Unable to write ReflectDB mapper: " + e.getMessage(), type);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Collects what the mapper needs to know about a model class.
+     * @return The model, or null if no mapper can be generated for the class.
+     */
+    private Model describe(TypeElement type) {
+        if (type.getModifiers().contains(Modifier.ABSTRACT) || type.getModifiers().contains(Modifier.PRIVATE)
+                || (type.getNestingKind() == NestingKind.MEMBER && !type.getModifiers().contains(Modifier.STATIC))
+                || type.getNestingKind() == NestingKind.LOCAL || type.getNestingKind() == NestingKind.ANONYMOUS) {
+            return skip(type, "it cannot be instantiated from its package");
+        }
+        boolean constructor = false;
+        for (ExecutableElement ctor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (ctor.getParameters().isEmpty() && !ctor.getModifiers().contains(Modifier.PRIVATE)) {
+                constructor = true;
+            }
+        }
+        if (!constructor) {
+            return skip(type, "it has no accessible no-argument constructor");
+        }
+
+        List<ExecutableElement> methods = ElementFilter.methodsIn(
+                this.processingEnv.getElementUtils().getAllMembers(type));
+        List<Property> properties = new ArrayList<>();
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            ReflectDBField dbField = field.getAnnotation(ReflectDBField.class);
+            if (dbField == null || field.getModifiers().contains(Modifier.STATIC)) {
+                continue;
+            }
+            String name = field.getSimpleName().toString();
+            boolean direct = !field.getModifiers().contains(Modifier.PRIVATE);
+            String getter = direct ? name : accessor(methods, field, "get", "is");
+            String setter = direct && !field.getModifiers().contains(Modifier.FINAL) ? name : accessor(methods, field, "set");
+            if (getter == null || setter == null) {
+                return skip(type, "field " + name + " has no accessible " + (getter == null ? "getter" : "setter"));
+            }
+            properties.add(new Property(name, field.asType(), getter, direct, setter, setter.equals(name), dbField));
+        }
+        PackageElement pkg = this.processingEnv.getElementUtils().getPackageOf(type);
+        String binaryName = this.processingEnv.getElementUtils().getBinaryName(type).toString();
+        String packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+        String simpleName = packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1);
+        return new Model(type, packageName, simpleName + SUFFIX, type.getQualifiedName().toString(),
+                type.getAnnotation(ReflectDBTable.class).tableName(), properties);
+    }
+
+    /**
+     * Finds a non-private getter ({@code getX()}/{@code isX()}) or setter ({@code setX(T)})
+     * for a field, matching its type exactly.
+     */
+    private String accessor(List<ExecutableElement> methods, VariableElement field, String... prefixes) {
+        String name = field.getSimpleName().toString();
+        String suffix = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        for (String prefix : prefixes) {
+            for (ExecutableElement method : methods) {
+                if (!method.getSimpleName().contentEquals(prefix + suffix)
+                        || method.getModifiers().contains(Modifier.PRIVATE)
+                        || method.getModifiers().contains(Modifier.STATIC)) {
+                    continue;
+                }
+                boolean setter = "set".equals(prefix);
+                if (setter && method.getParameters().size() == 1
+                        && this.processingEnv.getTypeUtils().isSameType(method.getParameters().get(0).asType(), field.asType())) {
+                    return method.getSimpleName().toString();
+                } else if (!setter && method.getParameters().isEmpty()
+                        && this.processingEnv.getTypeUtils().isSameType(method.getReturnType(), field.asType())) {
+                    return method.getSimpleName().toString();
+                }
+            }
+        }
+        return null;
+    }
+
+    private Model skip(TypeElement type, String reason) {
+        this.processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, String.format(
+                "No ReflectDB mapper generated for %s, %s. Reflection will be used.", type.getQualifiedName(), reason),
+                type);
+        return null;
+    }
+
+    private void write(Model model) throws IOException {
+        String qualified = model.packageName.isEmpty() ? model.mapperName : model.packageName + "." + model.mapperName;
+        StringBuilder sb = new StringBuilder();
+        if (!model.packageName.isEmpty()) {
+            sb.append("package ").append(model.packageName).append(";\n\n");
+        }
+        String t = model.typeName;
+        sb.append("/**\n * ReflectDB mapper for {@code ").append(t).append("}, generated by ")
+                .append(getClass().getName()).append(". Do not edit.\n */\n");
+        sb.append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n");
+        sb.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+        sb.append("public final class ").append(model.mapperName)
+                .append(" implements org.gserve.reflectdb.model.ReflectDBGeneratedMapper<").append(t).append("> {\n");
+
+        List<String> fieldNames = new ArrayList<>();
+        List<String> javaTypes = new ArrayList<>();
+        List<String> columnNames = new ArrayList<>();
+        List<String> columnTypes = new ArrayList<>();
+        List<String> notNull = new ArrayList<>();
+        List<String> primaryKeys = new ArrayList<>();
+        for (Property p : model.properties) {
+            fieldNames.add(literal(p.name));
+            javaTypes.add(p.erasure() + ".class");
+            columnNames.add(literal(p.dbField.fieldName()));
+            columnTypes.add(literal(p.dbField.fieldType()));
+            notNull.add(String.valueOf(p.dbField.notNull()));
+            primaryKeys.add(String.valueOf(p.dbField.primaryKey()));
+        }
+        sb.append("    private static final String[] FIELD_NAMES = {").append(String.join(", ", fieldNames)).append("};\n");
+        sb.append("    private static final Class<?>[] JAVA_TYPES = {").append(String.join(", ", javaTypes)).append("};\n");
+        sb.append("    private static final String[] COLUMN_NAMES = {").append(String.join(", ", columnNames)).append("};\n");
+        sb.append("    private static final String[] COLUMN_TYPES = {").append(String.join(", ", columnTypes)).append("};\n");
+        sb.append("    private static final boolean[] NOT_NULL = {").append(String.join(", ", notNull)).append("};\n");
+        sb.append("    private static final boolean[] PRIMARY_KEYS = {").append(String.join(", ", primaryKeys)).append("};\n\n");
+
+        sb.append("    @Override public Class<").append(t).append("> getModelClass() { return ").append(t).append(".class; }\n");
+        sb.append("    @Override public String getTableName() { return ").append(literal(model.tableName)).append("; }\n");
+        sb.append("    @Override public String[] getFieldNames() { return FIELD_NAMES.clone(); }\n");
+        sb.append("    @Override public Class<?>[] getJavaTypes() { return JAVA_TYPES.clone(); }\n");
+        sb.append("    @Override public String[] getColumnNames() { return COLUMN_NAMES.clone(); }\n");
+        sb.append("    @Override public String[] getColumnTypes() { return COLUMN_TYPES.clone(); }\n");
+        sb.append("    @Override public boolean[] getNotNull() { return NOT_NULL.clone(); }\n");
+        sb.append("    @Override public boolean[] getPrimaryKeys() { return PRIMARY_KEYS.clone(); }\n\n");
+        sb.append("    @Override public ").append(t).append(" newInstance() { return new ").append(t).append("(); }\n\n");
+
+        sb.append("    @Override\n    public Object get(Object obj, int property) {\n");
+        sb.append("        ").append(t).append(" o = (").append(t).append(") obj;\n");
+        sb.append("        switch (property) {\n");
+        for (int i = 0; i < model.properties.size(); i++) {
+            sb.append("            case ").append(i).append(": return ").append(model.properties.get(i).read("o")).append(";\n");
+        }
+        sb.append("            default: throw new IndexOutOfBoundsException(\"Property: \" + property);\n");
+        sb.append("        }\n    }\n\n");
+
+        sb.append("    @Override\n    public void set(Object obj, int property, Object value) {\n");
+        sb.append("        ").append(t).append(" o = (").append(t).append(") obj;\n");
+        sb.append("        switch (property) {\n");
+        for (int i = 0; i < model.properties.size(); i++) {
+            Property p = model.properties.get(i);
+            sb.append("            case ").append(i).append(": ")
+                    .append(p.write("o", p.unbox("value"))).append("; break;\n");
+        }
+        sb.append("            default: throw new IndexOutOfBoundsException(\"Property: \" + property);\n");
+        sb.append("        }\n    }\n\n");
+
+        sb.append("    @Override\n    public ").append(t)
+                .append(" map(java.sql.ResultSet rs, int[] columns) throws java.sql.SQLException {\n");
+        sb.append("        ").append(t).append(" o = new ").append(t).append("();\n");
+        sb.append("        int c;\n");
+        for (int i = 0; i < model.properties.size(); i++) {
+            sb.append("        if ((c = columns[").append(i).append("]) > 0) { ")
+                    .append(model.properties.get(i).map("o")).append(" }\n");
+        }
+        sb.append("        return o;\n    }\n}\n");
+
+        try (Writer writer = this.processingEnv.getFiler().createSourceFile(qualified, model.type).openWriter()) {
+            writer.write(sb.toString());
+        }
+    }
+
+    private static String literal(String value) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20 || c > 0x7e) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private static final class Model {
+        private final TypeElement type;
+        private final String packageName;
+        private final String mapperName;
+        private final String typeName;
+        private final String tableName;
+        private final List<Property> properties;
+
+        private Model(TypeElement type, String packageName, String mapperName, String typeName, String tableName,
+                      List<Property> properties) {
+            this.type = type;
+            this.packageName = packageName;
+            this.mapperName = mapperName;
+            this.typeName = typeName;
+            this.tableName = tableName;
+            this.properties = properties;
+        }
+    }
+
+    private final class Property {
+        private final String name;
+        private final TypeMirror type;
+        private final boolean directGet;
+        private final String getter;
+        private final String setter;
+        private final boolean directSet;
+        private final ReflectDBField dbField;
+
+        private Property(String name, TypeMirror type, String getter, boolean directGet, String setter,
+                         boolean directSet, ReflectDBField dbField) {
+            this.name = name;
+            this.type = type;
+            this.directGet = directGet;
+            this.getter = getter;
+            this.setter = setter;
+            this.directSet = directSet;
+            this.dbField = dbField;
+        }
+
+        private String erasure() {
+            return ReflectDBMapperProcessor.this.processingEnv.getTypeUtils().erasure(this.type).toString();
+        }
+
+        /** Reference type used to cast an {@code Object} to this property's type. */
+        private String boxed() {
+            if (this.type.getKind().isPrimitive()) {
+                return ReflectDBMapperProcessor.this.processingEnv.getTypeUtils()
+                        .boxedClass((javax.lang.model.type.PrimitiveType) this.type).getQualifiedName().toString();
+            }
+            return erasure();
+        }
+
+        /**
+         * Converts an {@code Object} to this property's type. Like the reflective setter,
+         * any {@code Number} is accepted for a numeric primitive, e.g. an {@code Integer}
+         * generated key for a {@code long} field.
+         */
+        private String unbox(String value) {
+            switch (this.type.getKind()) {
+                case INT: case LONG: case DOUBLE: case FLOAT: case SHORT: case BYTE:
+                    return "((java.lang.Number) " + value + ")." + this.type + "Value()";
+                default:
+                    return "(" + boxed() + ") " + value;
+            }
+        }
+
+        private String read(String obj) {
+            return this.directGet ? obj + "." + this.name : obj + "." + this.getter + "()";
+        }
+
+        private String write(String obj, String value) {
+            return this.directSet ? obj + "." + this.name + " = " + value : obj + "." + this.setter + "(" + value + ")";
+        }
+
+        /** Statement reading column {@code c} into the property, mirroring {@code RowMapper}. */
+        private String map(String obj) {
+            String getter = typedGetter();
+            if (getter != null && this.type.getKind().isPrimitive()) {
+                return this.type + " v = rs." + getter + "(c); if (!rs.wasNull()) " + write(obj, "v") + ";";
+            } else if (getter != null && isBoxed()) {
+                String primitive = ReflectDBMapperProcessor.this.processingEnv.getTypeUtils().unboxedType(this.type).toString();
+                return primitive + " v = rs." + getter + "(c); " + write(obj, "rs.wasNull() ? null : (" + boxed() + ") v") + ";";
+            } else if (getter != null) {
+                return write(obj, "rs." + getter + "(c)") + ";";
+            }
+            return write(obj, "(" + boxed() + ") rs.getObject(c)") + ";";
+        }
+
+        private boolean isBoxed() {
+            String t = erasure();
+            return t.equals("java.lang.Integer") || t.equals("java.lang.Long") || t.equals("java.lang.Double")
+                    || t.equals("java.lang.Boolean");
+        }
+
+        private String typedGetter() {
+            switch (this.type.getKind()) {
+                case INT: return "getInt";
+                case LONG: return "getLong";
+                case DOUBLE: return "getDouble";
+                case FLOAT: return "getFloat";
+                case SHORT: return "getShort";
+                case BYTE: return "getByte";
+                case BOOLEAN: return "getBoolean";
+                default: break;
+            }
+            switch (erasure()) {
+                case "java.lang.Integer": return "getInt";
+                case "java.lang.Long": return "getLong";
+                case "java.lang.Double": return "getDouble";
+                case "java.lang.Boolean": return "getBoolean";
+                case "java.lang.String": return "getString";
+                case "java.math.BigDecimal": return "getBigDecimal";
+                case "java.sql.Date": return "getDate";
+                case "java.sql.Time": return "getTime";
+                case "java.sql.Timestamp": return "getTimestamp";
+                case "byte[]": return "getBytes";
+                default: return null;
+            }
+        }
+    }
+}
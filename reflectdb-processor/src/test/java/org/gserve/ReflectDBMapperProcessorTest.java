@@ -0,0 +1,189 @@
+package org.gserve;
+/*
+ *  Copyright (C) 2026 Dustin K. Redmond
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 59
+ * Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+import org.gserve.reflectdb.ReflectDB;
+import org.gserve.reflectdb.ReflectDBConfig;
+import org.gserve.reflectdb.model.ReflectDBEntity;
+import org.gserve.reflectdb.model.ReflectDBGeneratedMapper;
+import org.gserve.reflectdb.processor.ReflectDBMapperProcessor;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compiles sample model classes with {@code ReflectDBMapperProcessor} and checks that
+ * ReflectDB maps them through the generated mappers.
+ * @since 10/18/2026 20:40
+ * @author Dustin K. Redmond
+ */
+public class ReflectDBMapperProcessorTest {
+
+    private static final String BEAN = String.join("\n",
+            "package sample;",
+            "import org.gserve.reflectdb.annotations.*;",
+            "@ReflectDBTable(tableName = \"PROCESSOR_BEAN\")",
+            "public class Bean {",
+            "    @ReflectDBField(fieldName = \"id\", fieldType = \"INTEGER\", notNull = true, primaryKey = true)",
+            "    private long id;",
+            "    @ReflectDBField(fieldName = \"name\")",
+            "    String name;",
+            "    @ReflectDBField(fieldName = \"score\", fieldType = \"INTEGER\")",
+            "    private Integer score;",
+            "    @ReflectDBField(fieldName = \"active\", fieldType = \"BOOLEAN\")",
+            "    private boolean active;",
+            "    @ReflectDBField(fieldName = \"data\", fieldType = \"BLOB\")",
+            "    public byte[] data;",
+            "    public long getId() { return id; }",
+            "    public void setId(long id) { this.id = id; }",
+            "    public String getName() { return name; }",
+            "    public Integer getScore() { return score; }",
+            "    public void setScore(Integer score) { this.score = score; }",
+            "    public boolean isActive() { return active; }",
+            "    public void setActive(boolean active) { this.active = active; }",
+            "    @ReflectDBTable(tableName = \"PROCESSOR_NESTED\")",
+            "    public static class Nested {",
+            "        @ReflectDBField(fieldName = \"id\", fieldType = \"INTEGER\", primaryKey = true)",
+            "        int id;",
+            "    }",
+            "}");
+
+    private static final String HIDDEN = String.join("\n",
+            "package sample;",
+            "import org.gserve.reflectdb.annotations.*;",
+            "@ReflectDBTable(tableName = \"PROCESSOR_HIDDEN\")",
+            "public class Hidden {",
+            "    @ReflectDBField(fieldName = \"id\", fieldType = \"INTEGER\", primaryKey = true)",
+            "    private int id;",
+            "}");
+
+    private static Path dir;
+    private static URLClassLoader loader;
+    private static List<Diagnostic<? extends JavaFileObject>> diagnostics;
+
+    @BeforeAll
+    public static void compile() throws Exception {
+        dir = Files.createTempDirectory("reflectdb-processor");
+        Path src = Files.createDirectories(dir.resolve("src/sample"));
+        Path out = Files.createDirectories(dir.resolve("classes"));
+        Files.write(src.resolve("Bean.java"), BEAN.getBytes());
+        Files.write(src.resolve("Hidden.java"), HIDDEN.getBytes());
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> collector = new DiagnosticCollector<>();
+        String classPath = Stream.of(ReflectDB.class, ReflectDBMapperProcessor.class)
+                .map(c -> c.getProtectionDomain().getCodeSource().getLocation().getPath())
+                .collect(Collectors.joining(File.pathSeparator));
+        try (StandardJavaFileManager files = compiler.getStandardFileManager(collector, null, null)) {
+            boolean ok = compiler.getTask(null, files, collector,
+                    Arrays.asList("-classpath", classPath, "-d", out.toString(),
+                            "-s", out.toString(), "-processor", ReflectDBMapperProcessor.class.getName()),
+                    null, files.getJavaFileObjects(src.resolve("Bean.java").toFile(),
+                            src.resolve("Hidden.java").toFile())).call();
+            assertTrue(ok, collector.getDiagnostics().toString());
+        }
+        diagnostics = collector.getDiagnostics();
+        loader = new URLClassLoader(new URL[]{out.toUri().toURL()}, ReflectDBMapperProcessorTest.class.getClassLoader());
+
+        ReflectDB.initialize(new ReflectDBConfig("jdbc:sqlite:" + dir.resolve("test.db"), "TEST_DB", "", "", 3306));
+    }
+
+    @AfterAll
+    public static void cleanup() throws IOException {
+        loader.close();
+        try (Stream<Path> paths = Files.walk(dir)) {
+        paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Test
+    public void testGeneratedMapper() throws Exception {
+        Class<?> bean = loader.loadClass("sample.Bean");
+        ReflectDBGeneratedMapper<?> mapper = ReflectDBEntity.of(bean).getGeneratedMapper();
+        assertNotNull(mapper);
+        assertEquals("PROCESSOR_BEAN", mapper.getTableName());
+        assertArrayEquals(new String[]{"id", "name", "score", "active", "data"}, mapper.getColumnNames());
+        assertArrayEquals(new Class<?>[]{long.class, String.class, Integer.class, boolean.class, byte[].class},
+                mapper.getJavaTypes());
+        assertArrayEquals(new boolean[]{true, false, false, false, false}, mapper.getPrimaryKeys());
+        assertEquals("PROCESSOR_BEAN", ReflectDBEntity.of(bean).getTableName());
+
+        Class<?> nested = loader.loadClass("sample.Bean$Nested");
+        assertNotNull(ReflectDBEntity.of(nested).getGeneratedMapper());
+        assertEquals("PROCESSOR_NESTED", ReflectDBEntity.of(nested).getTableName());
+    }
+
+    @Test
+    public void testFallsBackToReflection() throws Exception {
+        assertTrue(diagnostics.stream().anyMatch(d -> d.getKind() == Diagnostic.Kind.WARNING
+                && d.getMessage(null).contains("sample.Hidden")));
+        Class<?> hidden = loader.loadClass("sample.Hidden");
+        assertNull(ReflectDBEntity.of(hidden).getGeneratedMapper());
+        assertEquals(1, ReflectDBEntity.of(hidden).getProperties().size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRoundTrip() throws Exception {
+        Class<Object> bean = (Class<Object>) loader.loadClass("sample.Bean");
+        ReflectDB db = ReflectDB.getInstance();
+        db.addModelClass(bean);
+        db.createTablesIfNotExists();
+
+        Object obj = ReflectDBEntity.of(bean).newInstance();
+        bean.getMethod("setId", long.class).invoke(obj, 7L);
+        bean.getField("data").set(obj, new byte[]{1, 2, 3});
+        bean.getMethod("setActive", boolean.class).invoke(obj, true);
+        assertTrue(db.insert(obj));
+
+        Object found = db.findById(7, bean);
+        assertNotNull(found);
+        assertNull(bean.getMethod("getScore").invoke(found));
+        assertNull(bean.getMethod("getName").invoke(found));
+        assertEquals(true, bean.getMethod("isActive").invoke(found));
+        assertArrayEquals(new byte[]{1, 2, 3}, (byte[]) bean.getField("data").get(found));
+
+        bean.getMethod("setScore", Integer.class).invoke(found, 42);
+        assertTrue(db.save(found));
+        List<Object> all = db.fetchAll(bean);
+        assertEquals(1, all.size());
+        assertEquals(42, bean.getMethod("getScore").invoke(all.get(0)));
+        db.dropTable(bean);
+    }
+}
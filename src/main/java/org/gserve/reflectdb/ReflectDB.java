@@ -18,17 +18,28 @@ package org.gserve.reflectdb;
  *
  */
 
+import org.gserve.reflectdb.dialect.ReflectDBDialect;
 import org.gserve.reflectdb.exception.ReflectDBException;
+import org.gserve.reflectdb.jfr.ReflectDBFlightRecorder;
 import org.gserve.reflectdb.model.ReflectDBColumn;
 import org.gserve.reflectdb.model.ReflectDBTable;
+import org.gserve.reflectdb.model.ReflectDBTableIndex;
+import org.gserve.reflectdb.query.CloseableIterator;
+import org.gserve.reflectdb.query.ReflectDBBatchResult;
 import org.gserve.reflectdb.query.ReflectDBQuery;
+import org.gserve.reflectdb.query.ReflectDBSelect;
 
 import javax.sql.DataSource;
 import java.sql.Connection;
-import java.sql.PreparedStatement;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
 
 /**
  * @since  12/24/2019 08:11
@@ -48,6 +59,13 @@ public class ReflectDB {
      */
     public static ReflectDB initialize(ReflectDBConfig config) {
         ReflectDB.config = config;
+        if (!config.isDialectResolved()) {
+            try (Connection conn = openJdbcConnection()) {
+                config.resolveDialect(conn);
+            } catch (SQLException e) {
+                // Database not reachable yet, the dialect is resolved on the first connection
+            }
+        }
         return ReflectDB.getInstance();
     }
 
@@ -81,49 +99,55 @@ public class ReflectDB {
      * @return SQL DDL used in creating database tables.
      */
     public String getTableCreateDDL() {
+        final ReflectDBDialect dialect = config.getDialect();
         StringBuilder sb = new StringBuilder();
         ReflectDBTable.findAll().forEach(table -> {
-            sb.append("CREATE TABLE IF NOT EXISTS ").append(table.getTableName()).append("(\n");
+            sb.append("CREATE TABLE IF NOT EXISTS ").append(dialect.identifier(table.getTableName())).append("(\n");
             List<ReflectDBColumn> columns = table.getColumns();
             for (int i = 0; i < columns.size(); i++) {
                 ReflectDBColumn col = columns.get(i);
                 String nullable = col.getNotNull() ? "NOT NULL" : "NULL";
-                String primaryKey;
-                // Yet another SQLite peculiarity AUTO_INCREMENT not needed
-                if (!config.isSqlite()) {
-                    primaryKey = col.isPrimaryKey() ? " AUTO_INCREMENT PRIMARY KEY " : "";
-                } else {
-                    primaryKey = col.isPrimaryKey() ? " PRIMARY KEY " : "";
-                }
-                sb.append("\t").append(col.getColumnName()).append(" ").append(col.getColumnType()).append(" ").append(nullable).append(primaryKey);
+                String primaryKey = col.isPrimaryKey() ? dialect.autoIncrementPrimaryKey() : "";
+                sb.append("\t").append(dialect.identifier(col.getColumnName())).append(" ").append(col.getColumnType()).append(" ").append(nullable).append(primaryKey);
                 if (i < columns.size() -1) {
                     sb.append(",\n");
                 }
             }
             sb.append("\n);\n");
+            for (ReflectDBTableIndex index : table.getIndexes()) {
+                List<String> indexColumns = new ArrayList<>();
+                for (String column : index.getColumnNames()) {
+                    indexColumns.add(dialect.identifier(column));
+                }
+                sb.append(dialect.createIndex(index.getIndexName(), dialect.identifier(table.getTableName()),
+                        indexColumns, index.isUnique())).append(";\n");
+            }
         });
         return sb.toString();
     }
 
     /**
-     * Attempts to create tables in database annotated with ReflectDB annotations.
-     * This method uses the DDL from the {@code ReflectDB.getTableCreateDDL()} method,
+     * Attempts to create tables in database annotated with ReflectDB annotations,
+     * along with the indexes declared with {@code ReflectDBIndex}. This method uses the DDL from the {@code ReflectDB.getTableCreateDDL()} method,
      * which may be used to preview the table structure.
      * @throws SQLException If a SQLException occurs during table creation.
      */
     public void createTablesIfNotExists() throws SQLException {
+        final boolean sqlite = config.isSqlite();
+        final ReflectDBDialect dialect = config.getDialect();
         for (String sql : getTableCreateDDL().split(";")) {
             if (sql.isEmpty() || (sql.trim().isEmpty())) {
                 // SQLException occurs if attempting to execute empty query
                 // throws error code 1065
                 continue;
             }
-            try (Connection conn = getNativeConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
-                ps.executeUpdate();
+            try {
+                QUERY.executeDdl(sql, null);
             } catch (SQLException e) {
                 // Workaround for bug in SQLite where SQLException is thrown
                 // even after successful table creation. -dustin 2019-12-24
-                if (!(config.isSqlite() && e.getMessage().startsWith("The prepared statement has been finalized"))) {
+                if (!(sqlite && e.getMessage().startsWith("The prepared statement has been finalized"))
+                        && !dialect.isAlreadyExists(e)) {
                     throw new SQLException(e);
                 }
             }
@@ -142,6 +166,18 @@ public class ReflectDB {
         return QUERY.findById(id, modelClass);
     }
 
+    /**
+     * Fetches an object by its primary key with only the given columns selected and mapped.
+     * @param id Unique ID of the object (primary key)
+     * @param modelClass Type to fetch.
+     * @param columns Column names to select.
+     * @param <T> Type of the class being returned.
+     * @return A partially populated object, or null if not exists.
+     */
+    public <T> T findById(long id, Class<T> modelClass, String... columns) throws SQLException {
+        return QUERY.findById(id, modelClass, columns);
+    }
+
     /**
      * Uses full database connection string and credentials if necessary to retrieve a {@code Connection}
      * , otherwise just uses the URL.
@@ -153,19 +189,134 @@ public class ReflectDB {
             throw new UnsupportedOperationException(
                     "ReflectDB has not yet been initialized with a ReflectDBConfig.");
         }
+        Connection session = ReflectDBSession.current();
+        if (session != null) {
+            // Work inside a session shares its connection and transaction
+            return session;
+        }
+        return openJdbcConnection();
+    }
+
+    private static Connection openJdbcConnection() throws SQLException {
+        if (!config.isFlightRecorderEnabled()) {
+            return connect();
+        }
+        Object event = ReflectDBFlightRecorder.beginConnection();
+        boolean failed = true;
+        try {
+            Connection conn = connect();
+            failed = false;
+            return conn;
+        } finally {
+            ReflectDBFlightRecorder.commitConnection(event, config.getDataSource() != null ? "dataSource"
+                    : config.isPoolEnabled() ? "pool" : "driverManager", failed);
+        }
+    }
+
+    private static Connection connect() throws SQLException {
+        Connection conn;
         if (config.getDataSource() != null) {
-           return config.getDataSource().getConnection();
+           conn = config.getDataSource().getConnection();
+        } else if (config.isPoolEnabled()) {
+            conn = config.getConnectionPool().getConnection();
         } else if (config.getDatabaseUsername().isEmpty() || config.getDatabasePassword().isEmpty()) {
             // SQLite doesn't require these, so only need URL
-            return DriverManager.getConnection(config.getUrl());
+            conn = DriverManager.getConnection(config.getUrl());
         } else {
             // All other RDBMS, authenticate with url, user, and password
-            return DriverManager.getConnection(config.getUrl(), config.getDatabaseUsername(), config.getDatabasePassword());
+            conn = DriverManager.getConnection(config.getUrl(), config.getDatabaseUsername(), config.getDatabasePassword());
         }
+        if (!config.isDialectResolved()) {
+            try {
+                config.resolveDialect(conn);
+            } catch (SQLException | RuntimeException e) {
+                conn.close();
+                throw e;
+            }
+        }
+        return conn;
+    }
+
+    /**
+     * Opens a session that runs every operation on one connection in one transaction.
+     * Nothing is committed until {@code ReflectDBSession.commit()} is called, and closing
+     * the session rolls back uncommitted work.
+     * @return A new {@code ReflectDBSession}, close it when done.
+     * @throws SQLException If a {@code Connection} cannot be established.
+     */
+    public ReflectDBSession openSession() throws SQLException {
+        return openSession(Connection.TRANSACTION_NONE);
     }
 
     /**
-     * Convenience method to get a {@code java.sql.Connection} using the {@code DriverManager.getConnection()} method.
+     * Opens a session with a specific transaction isolation level.
+     * @param isolationLevel One of the {@code Connection.TRANSACTION_*} levels,
+     *                       {@code TRANSACTION_NONE} keeps the connection's default.
+     * @return A new {@code ReflectDBSession}, close it when done.
+     * @throws SQLException If a {@code Connection} cannot be established or the level is not supported.
+     * @see #openSession()
+     */
+    public ReflectDBSession openSession(int isolationLevel) throws SQLException {
+        return new ReflectDBSession(this, openJdbcConnection(), isolationLevel);
+    }
+
+    /**
+     * @return The session whose work is running on the current thread, i.e. inside
+     * {@link #inTransaction(ReflectDBSession.Work)} or a {@code ReflectDBSession} method, or null.
+     */
+    public ReflectDBSession getCurrentSession() {
+        return ReflectDBSession.currentSession();
+    }
+
+    /**
+     * Runs work in a single transaction, committing if it returns normally and
+     * rolling back if it throws. {@code ReflectDB} methods called inside the work
+     * also join the transaction, e.g.
+     * <pre>{@code
+     * reflectDB.inTransaction(tx -> {
+     *     tx.insert(order);
+     *     tx.save(customer);
+     *     return null;
+     * });}</pre>
+     * @param work Work to run with the session.
+     * @param <R> Type of the result.
+     * @return The result of the work.
+     * @throws SQLException If the work or the commit raises one.
+     */
+    public <R> R inTransaction(ReflectDBSession.Work<R> work) throws SQLException {
+        return inTransaction(Connection.TRANSACTION_NONE, work);
+    }
+
+    /**
+     * Runs work in a single transaction with a specific isolation level.
+     * @param isolationLevel One of the {@code Connection.TRANSACTION_*} levels.
+     * @param work Work to run with the session.
+     * @param <R> Type of the result.
+     * @return The result of the work.
+     * @throws SQLException If the work or the commit raises one.
+     * @see #inTransaction(ReflectDBSession.Work)
+     */
+    public <R> R inTransaction(int isolationLevel, ReflectDBSession.Work<R> work) throws SQLException {
+        try (ReflectDBSession session = openSession(isolationLevel)) {
+            R result;
+            try {
+                result = session.run(work);
+            } catch (SQLException | RuntimeException e) {
+                session.rollback();
+                throw e;
+            } catch (Exception e) {
+                session.rollback();
+                throw new ReflectDBException(e);
+            }
+            session.commit();
+            return result;
+        }
+    }
+
+    /**
+     * Convenience method to get a {@code java.sql.Connection} using the {@code DriverManager.getConnection()} method,
+     * or from the configured {@code DataSource} or connection pool. Closing the connection returns it to the pool.
+     * Inside {@link #inTransaction(ReflectDBSession.Work)} the transaction's connection is returned.
      * @return A {@code java.sql.Connection} for the configured database.
      */
     public Connection getNativeConnection() throws SQLException {
@@ -202,7 +353,49 @@ public class ReflectDB {
     }
 
     /**
-     * Inserts a new object into the ReflectDB table.
+     * Returns a lazily mapped {@code Stream} of objects for a SQL query. Unlike
+     * {@code fetch}, rows are mapped as they are consumed, so large results don't
+     * need to fit in memory. The stream holds a connection until it is closed, e.g.
+     * <pre>{@code
+     * try (Stream<Person> people = reflectDB.stream("SELECT * FROM PEOPLE", Person.class)) {
+     *     people.forEach(...);
+     * }}</pre>
+     * <p>The driver fetch size is taken from {@code ReflectDBConfig.getFetchSize()}.
+     * @param sql SQL query
+     * @param modelClass The class of the modeled object.
+     * @param <T> The type of the object returned.
+     * @return Stream of objects representing a SQL query.
+     */
+    public <T> Stream<T> stream(String sql, Class<T> modelClass) throws SQLException {
+        return QUERY.stream(sql, modelClass, config.getStreamingFetchSize());
+    }
+
+    /**
+     * Returns a lazily mapped {@code Stream} of every entity in a ReflectDB table.
+     * @param modelClass The ReflectDB table to query.
+     * @param <T> The ReflectDB type.
+     * @return Stream of all objects in a table, close it when done.
+     * @see #stream(String, Class)
+     */
+    public <T> Stream<T> streamAll(Class<T> modelClass) throws SQLException {
+        return QUERY.streamAll(modelClass, config.getStreamingFetchSize());
+    }
+
+    /**
+     * Returns an iterator over the objects for a SQL query, mapped one row at a time.
+     * @param sql SQL query
+     * @param modelClass The class of the modeled object.
+     * @param <T> The type of the object returned.
+     * @return An iterator holding a connection until it is closed or exhausted.
+     * @see #stream(String, Class)
+     */
+    public <T> CloseableIterator<T> iterate(String sql, Class<T> modelClass) throws SQLException {
+        return QUERY.iterate(sql, modelClass, config.getStreamingFetchSize());
+    }
+
+    /**
+     * Inserts a new object into the ReflectDB table. If the object's primary key is
+     * not set (e.g. 0), the database generates it and it is written back into the object.
      * @param obj A newly created object to be inserted.
      * @return True if the INSERT appears to succeed.
      */
@@ -210,6 +403,58 @@ public class ReflectDB {
         return QUERY.insert(obj);
     }
 
+    /**
+     * Inserts many objects in a single transaction, using the batch size and
+     * insert mode from {@code ReflectDBConfig}. Objects may be of different model
+     * classes, they are grouped by table.
+     * <p>MySQL/MariaDB users should consider adding {@code rewriteBatchedStatements=true}
+     * to the connection string, so the driver sends each batch as one statement.
+     * SQLite users will usually see faster inserts with {@code InsertMode.MULTI_ROW}.
+     * <p>Generated keys are written back into objects inserted without a primary key. On
+     * SQLite only integer keys can be derived for a whole batch, objects with other
+     * generated keys are inserted one statement at a time.
+     * @param objects Newly created objects to be inserted.
+     * @return The result of each batch sent to the database.
+     */
+    public ReflectDBBatchResult insertAll(Collection<?> objects) throws SQLException {
+        return QUERY.insertAll(objects, config.getBatchSize(), config.getInsertMode());
+    }
+
+    /**
+     * Inserts many objects in a single transaction, using the insert mode from
+     * {@code ReflectDBConfig}.
+     * @param objects Newly created objects to be inserted.
+     * @param batchSize Maximum number of rows sent per batch.
+     * @return The result of each batch sent to the database.
+     */
+    public ReflectDBBatchResult insertAll(Collection<?> objects, int batchSize) throws SQLException {
+        return QUERY.insertAll(objects, batchSize, config.getInsertMode());
+    }
+
+    /**
+     * Inserts an object, or updates the existing row with the same primary key, in a
+     * single statement. This replaces a {@code findById} followed by {@code insert} or
+     * {@code save}, which costs two round trips and races with concurrent writers.
+     * Uses {@code ON CONFLICT DO UPDATE} on SQLite and {@code ON DUPLICATE KEY UPDATE}
+     * on MySQL/MariaDB.
+     * @param obj Object to insert or update, objects without a primary key value are inserted.
+     * @return True if a row was inserted or changed.
+     */
+    public boolean upsert(Object obj) throws SQLException {
+        return QUERY.upsert(obj);
+    }
+
+    /**
+     * Upserts many objects in a single transaction, in batches of
+     * {@code ReflectDBConfig.getBatchSize()} rows.
+     * @param objects Objects to insert or update.
+     * @return Results of every batch sent to the database.
+     * @see #upsert(Object)
+     */
+    public ReflectDBBatchResult upsertAll(Collection<?> objects) throws SQLException {
+        return QUERY.upsertAll(objects, config.getBatchSize());
+    }
+
     /**
      * Attempts to save the current object (UPDATE) it in the database.
      * <p>Internally, ReflectDB uses the primary key to look up objects,
@@ -217,6 +462,8 @@ public class ReflectDB {
      * deviates from the original.
      * <p>If you would like to update an object's primary key, it is recommended
      * that you do so using a native SQL query.
+     * <p>With {@code ReflectDBConfig.setDirtyTrackingEnabled(true)}, only the columns changed
+     * since the object was loaded are updated, and unchanged objects are not sent at all.
      * @param obj Object whose properties should be updated.
      * @return Returns true if the update appears successful.
      */
@@ -250,9 +497,15 @@ public class ReflectDB {
                     "does not contain ReflectDBTable annotation or that does not specify " +
                     "table name.");
         } else {
-            final String sql = String.format("DROP TABLE IF EXISTS %s;", table.tableName());
-            try (Connection conn = this.getNativeConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
-                ps.executeUpdate();
+            final String sql = String.format("DROP TABLE IF EXISTS %s;", config.getDialect().identifier(table.tableName()));
+            try {
+                QUERY.executeDdl(sql, table.tableName());
+                if (config.getEntityCache(modelClass) != null) {
+                    config.getEntityCache(modelClass).clear();
+                }
+                if (config.getQueryCache() != null) {
+                    config.getQueryCache().invalidateTable(table.tableName());
+                }
             } catch (SQLException e) {
                 throw new ReflectDBException(String.format("SQL Exception occurred when attempting" +
                         " to drop table: %s\t|%s", table.tableName(), e.getMessage()));
@@ -286,6 +539,42 @@ public class ReflectDB {
         return ReflectDB.config;
     }
 
+    /**
+     * Starts a fluent, parameterized query on a model class, e.g.
+     * {@code select(Person.class).where("LAST_NAME").eq(name).orderBy("ID").limit(50).fetch()}.
+     * @param modelClass The ReflectDB table to query.
+     * @param <T> The ReflectDB type.
+     * @return A new {@code ReflectDBSelect} of every row.
+     */
+    public <T> ReflectDBSelect<T> select(Class<T> modelClass) {
+        return QUERY.select(modelClass);
+    }
+
+    /**
+     * Fetches the objects whose column equals a value with a parameterized lookup,
+     * which can use an index declared with {@code ReflectDBIndex}.
+     * @param modelClass The ReflectDB table to query.
+     * @param column Column name.
+     * @param value Value to look up, null finds rows where the column is NULL.
+     * @param <T> The ReflectDB type.
+     * @return Matching objects.
+     */
+    public <T> List<T> findBy(Class<T> modelClass, String column, Object value) throws SQLException {
+        return QUERY.findBy(modelClass, column, value);
+    }
+
+    /**
+     * Executes a query with {@code ?} placeholders, binding the given values in order.
+     * @param sql SQL query
+     * @param modelClass Class of the objects to return.
+     * @param params Values of the placeholders.
+     * @param <T> Type of the objects being returned.
+     * @return List of objects from the query.
+     */
+    public <T> List<T> fetch(String sql, Class<T> modelClass, Object... params) throws SQLException {
+        return QUERY.fetch(sql, modelClass, params);
+    }
+
     /**
      * Returns a list of all entities in a ReflectDB table.
      * @param modelClass The ReflectDB table to query.
@@ -296,6 +585,19 @@ public class ReflectDB {
         return QUERY.fetchAll(modelClass);
     }
 
+    /**
+     * Returns every row of a ReflectDB table with only the given columns selected and
+     * mapped, e.g. {@code fetchAll(Person.class, "ID", "FIRST_NAME")}. Other fields keep
+     * their default values, see {@code ReflectDBQuery.fetchAll(Class, String...)}.
+     * @param modelClass The ReflectDB table to query.
+     * @param columns Column names to select.
+     * @param <T> The ReflectDB type.
+     * @return List of partially populated objects.
+     */
+    public <T> List<T> fetchAll(Class<T> modelClass, String... columns) throws SQLException {
+        return QUERY.fetchAll(modelClass, columns);
+    }
+
     /**
      * Returns a list of entities in a ReflectDB table with a specified limit.
      * @param modelClass The ReflectDB table to query.
@@ -306,4 +608,115 @@ public class ReflectDB {
     public <T> List<T> fetch(Class<T> modelClass, int limit) throws SQLException {
         return QUERY.fetchAll(modelClass, limit);
     }
+
+    /**
+     * Fetches the page of a table that follows {@code afterKey}, ordered by primary key.
+     * Pass null for the first page, then the primary key of the last object returned.
+     * Unlike {@code LIMIT}/{@code OFFSET} paging, every page costs about the same
+     * regardless of how deep into the table it is.
+     * @param modelClass The ReflectDB table to query, must declare one primary key.
+     * @param afterKey Primary key of the last object of the previous page, or null.
+     * @param pageSize The maximum number of records to fetch.
+     * @param <T> The ReflectDB type.
+     * @return List of objects in primary key order, empty after the last page.
+     */
+    public <T> List<T> fetchPage(Class<T> modelClass, Object afterKey, int pageSize) throws SQLException {
+        return QUERY.fetchPage(modelClass, afterKey, pageSize);
+    }
+
+    /**
+     * Iterates over a whole ReflectDB table one page at a time, in primary key order, e.g.
+     * <pre>{@code
+     * for (List<Person> page : reflectDB.pages(Person.class, 500)) {
+     *     ...
+     * }}</pre>
+     * @param modelClass The ReflectDB table to query, must declare one primary key.
+     * @param pageSize The maximum number of records per page.
+     * @param <T> The ReflectDB type.
+     * @return Iterable of pages, each fetched when it is reached.
+     * @see #fetchPage(Class, Object, int)
+     */
+    public <T> Iterable<List<T>> pages(Class<T> modelClass, int pageSize) {
+        return QUERY.pages(modelClass, pageSize);
+    }
+
+    /**
+     * Returns every entity in a ReflectDB table, fetched over several connections at once.
+     * The primary key range is split into {@code parallelism} ranges, and each is queried
+     * and mapped on its own thread. Useful for exporting large tables, where a single
+     * {@code fetchAll} is bound by one connection and one mapping thread. Inside a session
+     * the table is fetched on the session's connection, one range at a time.
+     * @param modelClass The ReflectDB table to query, must declare one numeric primary key.
+     * @param parallelism Maximum number of connections used at once. With the built-in pool
+     *                    it is capped at the pool's maximum size.
+     * @param <T> The ReflectDB type.
+     * @return List of all objects in the table, in primary key order.
+     */
+    public <T> List<T> parallelFetchAll(Class<T> modelClass, int parallelism) throws SQLException {
+        return QUERY.parallelFetchAll(modelClass, parallelism);
+    }
+
+    /**
+     * Asynchronous {@link #fetch(String, Class)}, run on {@code ReflectDBConfig.getAsyncExecutor()}.
+     * At most {@code ReflectDBConfig.getAsyncMaxConcurrency()} async operations run at once,
+     * further ones wait for a permit. Async operations never take part in a session's transaction.
+     * @param sql SQL query
+     * @param modelClass The class of the modeled object.
+     * @param <T> The type of the objects returned.
+     * @return Future completing with the objects, or exceptionally with the {@code SQLException}.
+     */
+    public <T> CompletableFuture<List<T>> fetchAsync(String sql, Class<T> modelClass) {
+        return async(() -> fetch(sql, modelClass));
+    }
+
+    /**
+     * Asynchronous {@link #findById(long, Class)}.
+     * @see #fetchAsync(String, Class)
+     */
+    public <T> CompletableFuture<T> findByIdAsync(long id, Class<T> modelClass) {
+        return async(() -> findById(id, modelClass));
+    }
+
+    /**
+     * Asynchronous {@link #insert(Object)}.
+     * @see #fetchAsync(String, Class)
+     */
+    public CompletableFuture<Boolean> insertAsync(Object obj) {
+        return async(() -> insert(obj));
+    }
+
+    /**
+     * Asynchronous {@link #save(Object)}.
+     * @see #fetchAsync(String, Class)
+     */
+    public CompletableFuture<Boolean> saveAsync(Object obj) {
+        return async(() -> save(obj));
+    }
+
+    /**
+     * Asynchronous {@link #insertAll(Collection)}.
+     * @see #fetchAsync(String, Class)
+     */
+    public CompletableFuture<ReflectDBBatchResult> insertAllAsync(Collection<?> objects) {
+        return async(() -> insertAll(objects));
+    }
+
+    @FunctionalInterface
+    private interface SqlCall<R> {
+        R call() throws SQLException;
+    }
+
+    private static <R> CompletableFuture<R> async(SqlCall<R> call) {
+        final Semaphore permits = config.getAsyncPermits();
+        return CompletableFuture.supplyAsync(() -> {
+            permits.acquireUninterruptibly();
+            try {
+                return call.call();
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            } finally {
+                permits.release();
+            }
+        }, config.getAsyncExecutor());
+    }
 }
@@ -18,12 +18,33 @@ package org.gserve.reflectdb;
  *
  */
 
-import org.gserve.reflectdb.annotations.ReflectDBField;
+import org.gserve.reflectdb.dialect.MySqlDialect;
+import org.gserve.reflectdb.dialect.ReflectDBDialect;
+import org.gserve.reflectdb.dialect.SQLiteDialect;
+import org.gserve.reflectdb.metrics.ReflectDBListener;
+import org.gserve.reflectdb.metrics.ReflectDBMetrics;
+import org.gserve.reflectdb.model.ReflectDBEntity;
+import org.gserve.reflectdb.model.ReflectDBProperty;
+import org.gserve.reflectdb.pool.ReflectDBConnectionPool;
+import org.gserve.reflectdb.query.InsertMode;
+import org.gserve.reflectdb.query.ReflectDBEntityCache;
+import org.gserve.reflectdb.query.ReflectDBQueryCache;
 
 import javax.sql.DataSource;
-import java.lang.reflect.Field;
+import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Configuration object for the {@code ReflectDB} class. This class provides fields
@@ -43,7 +64,10 @@ public class ReflectDBConfig {
 
     public ReflectDBConfig(DataSource ds) throws SQLException {
         this.dataSource = ds;
-        this.url = ds.getConnection().getMetaData().getURL();
+        try (Connection conn = ds.getConnection()) {
+            this.url = conn.getMetaData().getURL();
+            this.dialect = ReflectDBDialect.resolve(conn);
+        }
     }
 
     DataSource getDataSource() {
@@ -58,17 +82,158 @@ public class ReflectDBConfig {
     private int port;
     private String modelPackage;
     private HashSet<Class<?>> modelClasses = new HashSet<>();
+    private int batchSize = 500;
+    private InsertMode insertMode = InsertMode.BATCH;
+    private int fetchSize = 0;
+    private boolean dirtyTrackingEnabled = false;
+    private final Map<Class<?>, ReflectDBEntityCache> entityCaches = new ConcurrentHashMap<>();
+    private volatile ReflectDBQueryCache queryCache = null;
+    private Executor asyncExecutor = null;
+    private ExecutorService defaultAsyncExecutor = null;
+    private int asyncMaxConcurrency = 0;
+    private volatile ReflectDBDialect dialect = null;
+    private volatile ReflectDBDialect urlDialect = null;
+    private Semaphore asyncPermits = null;
+    private final List<ReflectDBListener> listeners = new CopyOnWriteArrayList<>();
+    private final List<ReflectDBListener> listenersView = Collections.unmodifiableList(this.listeners);
+    private volatile ReflectDBMetrics metrics = null;
+    private volatile boolean flightRecorderEnabled = false;
+    // Runtime images built without the jdk.jfr module can't emit events
+    private static final boolean FLIGHT_RECORDER_AVAILABLE = ModuleLayer.boot().findModule("jdk.jfr").isPresent();
+
+    private boolean poolEnabled = false;
+    private int poolMinSize = 1;
+    private int poolMaxSize = 10;
+    private long poolAcquireTimeoutMillis = 30_000;
+    private long poolIdleTimeoutMillis = 600_000;
+    private long poolLeakDetectionThresholdMillis = 0;
+    private int poolValidationTimeoutSeconds = 5;
+    private int poolStatementCacheSize = 64;
+    private ReflectDBConnectionPool connectionPool = null;
+
+    /**
+     * @return Whether connections come from the built-in pool, i.e. the pool is enabled
+     * and no {@code DataSource} is configured.
+     */
+    public synchronized boolean isPoolActive() {
+        return this.poolEnabled && this.dataSource == null;
+    }
+
+    /**
+     * Returns the built-in connection pool, creating it on first use. The pool is
+     * only used for URL based configurations with {@code setPoolEnabled(true)}.
+     * @return The connection pool, or null if pooling is not enabled.
+     * @throws SQLException If the pool's initial connections cannot be opened.
+     */
+    public synchronized ReflectDBConnectionPool getConnectionPool() throws SQLException {
+        if (!isPoolActive()) {
+            return null;
+        }
+        if (this.connectionPool == null || this.connectionPool.isClosed()) {
+            this.connectionPool = new ReflectDBConnectionPool(this.url, this.databaseUsername,
+                    this.databasePassword, this.poolMinSize, this.poolMaxSize,
+                    this.poolAcquireTimeoutMillis, this.poolIdleTimeoutMillis,
+                    this.poolLeakDetectionThresholdMillis, this.poolValidationTimeoutSeconds,
+                    this.poolStatementCacheSize);
+        }
+        return this.connectionPool;
+    }
+
+    /**
+     * Closes the built-in connection pool, if one has been created.
+     */
+    public synchronized void closeConnectionPool() {
+        if (this.connectionPool != null) {
+            this.connectionPool.close();
+            this.connectionPool = null;
+        }
+    }
+
+    /**
+     * Returns the executor used by the {@code ReflectDB.*Async} methods. Unless one has been set,
+     * a virtual thread per task executor is created when the runtime supports virtual threads
+     * (Java 21+), otherwise a fixed pool of daemon threads sized to the async concurrency.
+     * @return The async {@code Executor}.
+     */
+    public synchronized Executor getAsyncExecutor() {
+        if (this.asyncExecutor != null) {
+            return this.asyncExecutor;
+        }
+        if (this.defaultAsyncExecutor == null) {
+            this.defaultAsyncExecutor = newDefaultAsyncExecutor(getAsyncMaxConcurrency());
+        }
+        return this.defaultAsyncExecutor;
+    }
+
+    /**
+     * @param asyncExecutor Executor to run {@code ReflectDB.*Async} operations on, null for the default.
+     */
+    public synchronized void setAsyncExecutor(Executor asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
+    }
+
+    /**
+     * @return Maximum number of async operations running at once. With the built-in pool
+     * it defaults to the pool's maximum size, so async work never waits on the pool.
+     * Otherwise every operation opens its own connection (or borrows one from the
+     * {@code DataSource}), and it defaults to the number of available processors.
+     */
+    public synchronized int getAsyncMaxConcurrency() {
+        if (this.asyncMaxConcurrency > 0) {
+            return this.asyncMaxConcurrency;
+        }
+        return isPoolActive() ? this.poolMaxSize : Runtime.getRuntime().availableProcessors();
+    }
+
+    public synchronized void setAsyncMaxConcurrency(int asyncMaxConcurrency) {
+        this.asyncMaxConcurrency = asyncMaxConcurrency;
+        this.asyncPermits = null;
+    }
+
+    /**
+     * Permits bounding how many async operations run at once, see {@link #getAsyncMaxConcurrency()}.
+     */
+    synchronized Semaphore getAsyncPermits() {
+        if (this.asyncPermits == null) {
+            this.asyncPermits = new Semaphore(getAsyncMaxConcurrency());
+        }
+        return this.asyncPermits;
+    }
+
+    /**
+     * Shuts down the default async executor, if one has been created. Executors set with
+     * {@link #setAsyncExecutor(Executor)} are left to their owner.
+     */
+    public synchronized void closeAsyncExecutor() {
+        if (this.defaultAsyncExecutor != null) {
+            this.defaultAsyncExecutor.shutdown();
+            this.defaultAsyncExecutor = null;
+        }
+    }
+
+    private static ExecutorService newDefaultAsyncExecutor(int threads) {
+        try {
+            // Java 21+, looked up reflectively as ReflectDB targets Java 11
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger count = new AtomicInteger();
+            return Executors.newFixedThreadPool(threads, r -> {
+                Thread t = new Thread(r, "ReflectDB-async-" + count.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
 
     public void addModelClass(Class<?> modelClass) {
         if (this.isSqlite()) {
-            for (Field field : modelClass.getDeclaredFields()) {
-                ReflectDBField dbField = field.getAnnotation(ReflectDBField.class);
-                if (dbField != null && dbField.fieldType().contains("DATE")) {
+            for (ReflectDBProperty prop : ReflectDBEntity.of(modelClass).getProperties()) {
+                if (prop.getColumnType().contains("DATE")) {
                     throw new UnsupportedOperationException(
                             String.format("Tried to add model class with DATE field %s.%s while using " +
                             "SQLite. SQLite does not currently support this.",
-                                    field.getDeclaringClass(),
-                                    field.getName()));
+                                    modelClass,
+                                    prop.getFieldName()));
                 }
             }
         }
@@ -85,6 +250,8 @@ public class ReflectDBConfig {
 
     public void setUrl(String url) {
         this.url = url;
+        this.dialect = null;
+        this.urlDialect = null;
     }
 
     public String getDatabaseName() {
@@ -119,10 +286,309 @@ public class ReflectDBConfig {
         this.port = port;
     }
 
-    public boolean isSqlite() {
-        return this.url.toUpperCase().contains("SQLITE");
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * @param batchSize Default number of rows sent per batch by bulk operations
+     *                  such as {@code ReflectDB.insertAll}.
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public InsertMode getInsertMode() {
+        return insertMode;
+    }
+
+    /**
+     * @param insertMode How bulk operations such as {@code ReflectDB.insertAll}
+     *                   send rows, JDBC batches (default) or multi-row INSERTs.
+     */
+    public void setInsertMode(InsertMode insertMode) {
+        this.insertMode = insertMode;
+    }
+
+    /**
+     * Caches the rows {@code ReflectDB.findById} reads for a model class, so repeated lookups
+     * of the same ids don't go to the database. Writes through ReflectDB invalidate the entries
+     * they touch, changes made with native SQL are seen once entries expire.
+     * @param modelClass Model class whose lookups are cached.
+     * @param maxSize Maximum number of cached ids, least recently used are evicted first.
+     * @param ttlMillis Time a cached row stays valid, 0 to keep it until evicted or invalidated.
+     * @param cacheMisses Whether lookups of ids that don't exist are cached as well.
+     * @return The new cache, for its statistics.
+     */
+    public ReflectDBEntityCache enableEntityCache(Class<?> modelClass, int maxSize, long ttlMillis, boolean cacheMisses) {
+        ReflectDBEntityCache cache = new ReflectDBEntityCache(maxSize, ttlMillis, cacheMisses);
+        this.entityCaches.put(modelClass, cache);
+        return cache;
+    }
+
+    public void disableEntityCache(Class<?> modelClass) {
+        this.entityCaches.remove(modelClass);
+    }
+
+    /**
+     * @param modelClass Model class.
+     * @return The {@code findById} cache of the class, or null if it isn't cached.
+     */
+    public ReflectDBEntityCache getEntityCache(Class<?> modelClass) {
+        return this.entityCaches.isEmpty() ? null : this.entityCaches.get(modelClass);
+    }
+
+    /**
+     * Caches the results of {@code ReflectDB.fetch} and {@code fetchAll}, so repeating the same
+     * query costs a lookup instead of a round trip. Results are dropped whenever ReflectDB writes
+     * to a table their SQL mentions, changes made with native SQL are seen once results expire.
+     * @param maxBytes Estimated heap size, in bytes, of all cached results. Results are evicted
+     *                 least recently used first, and one that would take more than a quarter of
+     *                 this is not cached.
+     * @param ttlMillis Time a cached result stays valid, 0 to keep it until evicted or invalidated.
+     * @return The new cache, for its statistics.
+     */
+    public ReflectDBQueryCache enableQueryCache(long maxBytes, long ttlMillis) {
+        this.queryCache = new ReflectDBQueryCache(maxBytes, ttlMillis);
+        return this.queryCache;
+    }
+
+    public void disableQueryCache() {
+        this.queryCache = null;
+    }
+
+    /**
+     * @return The query result cache, or null if results aren't cached.
+     */
+    public ReflectDBQueryCache getQueryCache() {
+        return this.queryCache;
+    }
+
+    /**
+     * Registers a listener that receives an event, with timings, after every operation
+     * that reaches the database. Listeners run on the calling thread, in the order they
+     * were added.
+     * @param listener Listener to add.
+     */
+    public void addListener(ReflectDBListener listener) {
+        this.listeners.add(Objects.requireNonNull(listener, "listener"));
+    }
+
+    public void removeListener(ReflectDBListener listener) {
+        this.listeners.remove(listener);
+        if (listener == this.metrics) {
+            this.metrics = null;
+        }
+    }
+
+    /**
+     * @return The registered listeners, in order. The list is safe to read while operations run.
+     */
+    public List<ReflectDBListener> getListeners() {
+        return this.listenersView;
+    }
+
+    /**
+     * Registers the built-in in-memory metrics listener, unless it is already registered.
+     * @return The metrics, for their counters and latency histograms.
+     */
+    public synchronized ReflectDBMetrics enableMetrics() {
+        if (this.metrics == null) {
+            this.metrics = new ReflectDBMetrics();
+            this.listeners.add(this.metrics);
+        }
+        return this.metrics;
+    }
+
+    public synchronized void disableMetrics() {
+        if (this.metrics != null) {
+            removeListener(this.metrics);
+        }
+    }
+
+    /**
+     * @return The metrics registered with {@link #enableMetrics()}, or null.
+     */
+    public ReflectDBMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    public boolean isFlightRecorderEnabled() {
+        return flightRecorderEnabled;
+    }
+
+    /**
+     * @param flightRecorderEnabled When true, operations, row mapping, batch flushes and connection
+     *                              acquisition emit Java Flight Recorder events (category "ReflectDB"),
+     *                              which are recorded while a recording with them enabled is running.
+     *                              When false, the default, no events are created and the
+     *                              {@code jdk.jfr} module is not used. Stays false on a runtime
+     *                              without that module.
+     */
+    public void setFlightRecorderEnabled(boolean flightRecorderEnabled) {
+        this.flightRecorderEnabled = flightRecorderEnabled && FLIGHT_RECORDER_AVAILABLE;
+    }
+
+    public boolean isDirtyTrackingEnabled() {
+        return dirtyTrackingEnabled;
+    }
+
+    /**
+     * @param dirtyTrackingEnabled When true, objects loaded by ReflectDB (or last inserted or saved)
+     *                             remember their column values, and {@code save} updates only the
+     *                             columns that changed since, skipping the database entirely when
+     *                             nothing changed. Objects without a snapshot are updated in full.
+     *                             When a {@code ReflectDBSession} rolls back, the snapshots of
+     *                             objects written in it are dropped, so their next {@code save}
+     *                             updates every column.
+     */
+    public void setDirtyTrackingEnabled(boolean dirtyTrackingEnabled) {
+        this.dirtyTrackingEnabled = dirtyTrackingEnabled;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    /**
+     * @param fetchSize Rows the driver fetches per round trip when streaming results,
+     *                  0 uses the driver default. MySQL and MariaDB only stream rows
+     *                  with {@code Integer.MIN_VALUE}, which their dialect uses by default.
+     */
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * @return The fetch size used by {@code ReflectDB.stream}. Unless set explicitly,
+     * MySQL and MariaDB use {@code Integer.MIN_VALUE} so their drivers stream rows
+     * instead of reading the whole result into memory.
+     */
+    public int getStreamingFetchSize() {
+        return getDialect().getStreamingFetchSize(this.fetchSize);
+    }
+
+    public boolean isPoolEnabled() {
+        return poolEnabled;
+    }
+
+    /**
+     * Enables the built-in connection pool for URL based configurations. Has no
+     * effect when a {@code DataSource} has been supplied.
+     * @param poolEnabled True to borrow connections from a pool rather than
+     *                    opening a new connection for each operation.
+     */
+    public synchronized void setPoolEnabled(boolean poolEnabled) {
+        this.poolEnabled = poolEnabled;
+        // The default async concurrency follows the pool
+        this.asyncPermits = null;
+    }
+
+    public int getPoolMinSize() {
+        return poolMinSize;
+    }
+
+    public void setPoolMinSize(int poolMinSize) {
+        this.poolMinSize = poolMinSize;
+    }
+
+    public int getPoolMaxSize() {
+        return poolMaxSize;
+    }
+
+    public synchronized void setPoolMaxSize(int poolMaxSize) {
+        this.poolMaxSize = poolMaxSize;
+        this.asyncPermits = null;
+    }
+
+    public long getPoolAcquireTimeoutMillis() {
+        return poolAcquireTimeoutMillis;
     }
-    public boolean isMySql() { return this.url.toUpperCase().contains("MYSQL"); }
-    public boolean isMariaDB() { return this.url.toUpperCase().contains("MARIADB"); }
+
+    public void setPoolAcquireTimeoutMillis(long poolAcquireTimeoutMillis) {
+        this.poolAcquireTimeoutMillis = poolAcquireTimeoutMillis;
+    }
+
+    public long getPoolIdleTimeoutMillis() {
+        return poolIdleTimeoutMillis;
+    }
+
+    public void setPoolIdleTimeoutMillis(long poolIdleTimeoutMillis) {
+        this.poolIdleTimeoutMillis = poolIdleTimeoutMillis;
+    }
+
+    public long getPoolLeakDetectionThresholdMillis() {
+        return poolLeakDetectionThresholdMillis;
+    }
+
+    /**
+     * @param poolLeakDetectionThresholdMillis Time a connection may be borrowed before
+     *                                         a possible leak is logged, 0 disables.
+     */
+    public void setPoolLeakDetectionThresholdMillis(long poolLeakDetectionThresholdMillis) {
+        this.poolLeakDetectionThresholdMillis = poolLeakDetectionThresholdMillis;
+    }
+
+    public int getPoolValidationTimeoutSeconds() {
+        return poolValidationTimeoutSeconds;
+    }
+
+    public void setPoolValidationTimeoutSeconds(int poolValidationTimeoutSeconds) {
+        this.poolValidationTimeoutSeconds = poolValidationTimeoutSeconds;
+    }
+
+    public int getPoolStatementCacheSize() {
+        return poolStatementCacheSize;
+    }
+
+    /**
+     * @param poolStatementCacheSize Number of {@code PreparedStatement}s each pooled
+     *                               connection keeps cached (LRU), 0 disables caching.
+     */
+    public void setPoolStatementCacheSize(int poolStatementCacheSize) {
+        this.poolStatementCacheSize = poolStatementCacheSize;
+    }
+
+    /**
+     * @return The dialect of the configured database. Until ReflectDB has connected
+     * to it, this is a guess based on the URL.
+     */
+    public ReflectDBDialect getDialect() {
+        ReflectDBDialect dialect = this.dialect;
+        if (dialect == null) {
+            dialect = this.urlDialect;
+            if (dialect == null) {
+                dialect = ReflectDBDialect.fromUrl(this.url);
+                this.urlDialect = dialect;
+            }
+        }
+        return dialect;
+    }
+
+    /**
+     * Overrides the dialect ReflectDB resolves from the database metadata, e.g. with a
+     * {@code ReflectDBDialect} subclass for a database without built-in support.
+     * @param dialect Dialect to use, null to resolve it again on the next connection.
+     */
+    public void setDialect(ReflectDBDialect dialect) {
+        this.dialect = dialect;
+    }
+
+    boolean isDialectResolved() {
+        return this.dialect != null;
+    }
+
+    /**
+     * Resolves the dialect from a connection's metadata unless it is already known.
+     */
+    void resolveDialect(Connection conn) throws SQLException {
+        if (this.dialect == null) {
+            this.dialect = ReflectDBDialect.resolve(conn);
+        }
+    }
+
+    public boolean isSqlite() { return getDialect() instanceof SQLiteDialect; }
+    public boolean isMySql() { return getDialect() instanceof MySqlDialect && !((MySqlDialect) getDialect()).isMariaDB(); }
+    public boolean isMariaDB() { return getDialect() instanceof MySqlDialect && ((MySqlDialect) getDialect()).isMariaDB(); }
     public boolean isUnknownDB() { return !(isSqlite() || isMariaDB() || isMySql()) ; }
 }
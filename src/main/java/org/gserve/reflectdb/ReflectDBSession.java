@@ -0,0 +1,332 @@
+package org.gserve.reflectdb;
+/*
+ *  Copyright (C) 2026 Dustin K. Redmond
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 59
+ * Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+import org.gserve.reflectdb.exception.ReflectDBException;
+import org.gserve.reflectdb.query.ReflectDBBatchResult;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A unit of work that runs every operation on one connection inside one transaction.
+ * Operations called through a session (or through {@code ReflectDB} inside
+ * {@link ReflectDB#inTransaction(Work)}) share that connection, so a workflow of many
+ * inserts and saves costs one connection and one commit instead of one per call.
+ * <p>Nothing is committed until {@link #commit()} is called, and closing a session
+ * rolls back any uncommitted work. A session is not thread-safe, use it from the
+ * thread that opened it.
+ *
+ * @since 10/18/2026 15:10
+ * @author Dustin K. Redmond
+ */
+public class ReflectDBSession implements AutoCloseable {
+    private static final ThreadLocal<ReflectDBSession> CURRENT = new ThreadLocal<>();
+
+    private final ReflectDB db;
+    private final Connection connection;
+    private final Connection shared;
+    private final boolean defaultAutoCommit;
+    private final int defaultIsolation;
+    private boolean closed = false;
+    private final List<Completion> completions = new ArrayList<>();
+
+    ReflectDBSession(ReflectDB db, Connection connection, int isolationLevel) throws SQLException {
+        this.db = db;
+        this.connection = connection;
+        try {
+            this.defaultAutoCommit = connection.getAutoCommit();
+            this.defaultIsolation = connection.getTransactionIsolation();
+            if (isolationLevel != Connection.TRANSACTION_NONE && isolationLevel != this.defaultIsolation) {
+                connection.setTransactionIsolation(isolationLevel);
+            }
+            connection.setAutoCommit(false);
+        } catch (SQLException | RuntimeException e) {
+            connection.close();
+            throw e;
+        }
+        this.shared = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close":
+                            // Owned by the session, closed in ReflectDBSession.close()
+                            return null;
+                        case "isClosed":
+                            return this.closed || this.connection.isClosed();
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "commit":
+                            // Through the session, so completion callbacks run
+                            commit();
+                            return null;
+                        case "rollback":
+                            if (args == null) {
+                                rollback();
+                            } else {
+                                rollback((Savepoint) args[0]);
+                            }
+                            return null;
+                        default:
+                            break;
+                    }
+                    if (this.closed) {
+                        throw new SQLException("ReflectDBSession has been closed.");
+                    }
+                    try {
+                        return method.invoke(this.connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    /**
+     * @return The connection of the session bound to the current thread, or null.
+     */
+    static Connection current() {
+        ReflectDBSession session = CURRENT.get();
+        return session == null ? null : session.shared;
+    }
+
+    /**
+     * @return The session bound to the current thread, or null.
+     */
+    static ReflectDBSession currentSession() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Work run by {@link ReflectDB#inTransaction(Work)}.
+     * @param <R> Type of the result.
+     */
+    @FunctionalInterface
+    public interface Work<R> {
+        R execute(ReflectDBSession session) throws Exception;
+    }
+
+    /**
+     * Called when a session's changes are committed or rolled back, see
+     * {@link ReflectDBSession#onCompletion(Completion)}.
+     */
+    @FunctionalInterface
+    public interface Completion {
+        /**
+         * @param committed True after a commit, false after a rollback, to a savepoint or in full.
+         */
+        void completed(boolean committed);
+    }
+
+    /**
+     * Registers a callback for the end of the current transaction, e.g. to act on changes
+     * once other connections can see them. Callbacks run in order after {@link #commit()},
+     * {@link #rollback()} or closing with uncommitted work, and are then dropped. A rollback
+     * to a savepoint runs them too, but keeps them for the rest of the transaction.
+     * ReflectDB uses this to refresh its caches and dirty-tracking snapshots.
+     * @param completion Callback to register.
+     */
+    public void onCompletion(Completion completion) {
+        this.completions.add(completion);
+    }
+
+    private void complete(boolean committed, boolean ended) {
+        if (this.completions.isEmpty()) {
+            return;
+        }
+        List<Completion> pending = new ArrayList<>(this.completions);
+        if (ended) {
+            this.completions.clear();
+        }
+        for (Completion completion : pending) {
+            completion.completed(committed);
+        }
+    }
+
+    <R> R run(Work<R> work) throws Exception {
+        ReflectDBSession previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return work.execute(this);
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    private <R> R call(Work<R> work) throws SQLException {
+        checkOpen();
+        try {
+            return run(work);
+        } catch (SQLException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ReflectDBException(e);
+        }
+    }
+
+    public <T> T findById(long id, Class<T> modelClass) throws SQLException {
+        return call(s -> this.db.findById(id, modelClass));
+    }
+
+    public <T> T findById(long id, Class<T> modelClass, String... columns) throws SQLException {
+        return call(s -> this.db.findById(id, modelClass, columns));
+    }
+
+    public <T> List<T> findBy(Class<T> modelClass, String column, Object value) throws SQLException {
+        return call(s -> this.db.findBy(modelClass, column, value));
+    }
+
+    public <T> T fetchSingle(String sql, Class<T> modelClass) throws SQLException {
+        return call(s -> this.db.fetchSingle(sql, modelClass));
+    }
+
+    public <T> List<T> fetch(String sql, Class<T> modelClass) throws SQLException {
+        return call(s -> this.db.fetch(sql, modelClass));
+    }
+
+    public <T> List<T> fetchAll(Class<T> modelClass) throws SQLException {
+        return call(s -> this.db.fetchAll(modelClass));
+    }
+
+    public <T> List<T> fetchAll(Class<T> modelClass, String... columns) throws SQLException {
+        return call(s -> this.db.fetchAll(modelClass, columns));
+    }
+
+    public <T> List<T> fetchPage(Class<T> modelClass, Object afterKey, int pageSize) throws SQLException {
+        return call(s -> this.db.fetchPage(modelClass, afterKey, pageSize));
+    }
+
+    public boolean insert(Object obj) throws SQLException {
+        return call(s -> this.db.insert(obj));
+    }
+
+    /**
+     * Inserts many objects as part of this session's transaction.
+     * @see ReflectDB#insertAll(Collection)
+     */
+    public ReflectDBBatchResult insertAll(Collection<?> objects) throws SQLException {
+        return call(s -> this.db.insertAll(objects));
+    }
+
+    public boolean upsert(Object obj) throws SQLException {
+        return call(s -> this.db.upsert(obj));
+    }
+
+    public boolean save(Object obj) throws SQLException {
+        return call(s -> this.db.save(obj));
+    }
+
+    public boolean delete(Object obj) throws SQLException {
+        return call(s -> this.db.delete(obj));
+    }
+
+    /**
+     * Makes every change since the last commit or rollback permanent.
+     * The session stays open for further work.
+     */
+    public void commit() throws SQLException {
+        checkOpen();
+        this.connection.commit();
+        complete(true, true);
+    }
+
+    /**
+     * Discards every change since the last commit or rollback.
+     */
+    public void rollback() throws SQLException {
+        checkOpen();
+        this.connection.rollback();
+        complete(false, true);
+    }
+
+    public Savepoint setSavepoint() throws SQLException {
+        checkOpen();
+        return this.connection.setSavepoint();
+    }
+
+    public Savepoint setSavepoint(String name) throws SQLException {
+        checkOpen();
+        return this.connection.setSavepoint(name);
+    }
+
+    /**
+     * Discards the changes made after a savepoint, keeping the ones before it.
+     * @param savepoint Savepoint created by this session.
+     */
+    public void rollback(Savepoint savepoint) throws SQLException {
+        checkOpen();
+        this.connection.rollback(savepoint);
+        complete(false, false);
+    }
+
+    public void releaseSavepoint(Savepoint savepoint) throws SQLException {
+        checkOpen();
+        this.connection.releaseSavepoint(savepoint);
+    }
+
+    /**
+     * Returns the session's connection, for native SQL that should be part of the
+     * transaction. Closing it has no effect, the session owns the connection.
+     * @return {@code java.sql.Connection} used by this session.
+     */
+    public Connection getConnection() throws SQLException {
+        checkOpen();
+        return this.shared;
+    }
+
+    public boolean isClosed() { return this.closed; }
+
+    /**
+     * Rolls back uncommitted work, restores the connection's auto-commit and
+     * isolation settings and releases it.
+     */
+    @Override
+    public void close() throws SQLException {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        try {
+            this.connection.rollback();
+            complete(false, true);
+            this.connection.setAutoCommit(this.defaultAutoCommit);
+            if (this.connection.getTransactionIsolation() != this.defaultIsolation) {
+                this.connection.setTransactionIsolation(this.defaultIsolation);
+            }
+        } finally {
+            this.connection.close();
+        }
+    }
+
+    private void checkOpen() throws SQLException {
+        if (this.closed) {
+            throw new SQLException("ReflectDBSession has been closed.");
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package org.gserve.reflectdb.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+@Repeatable(ReflectDBIndexes.class)
+public @interface ReflectDBIndex {
+    /**
+     * The database columns of the index, in order. More than one column
+     * creates a composite index.
+     * <p>
+     *     E.g.
+     * {@code @ReflectDBIndex(columns = {"LAST_NAME", "FIRST_NAME"})}
+     * @return The names of the indexed columns.
+     */
+    String[] columns();
+
+    /**
+     * Set this to true if no two rows may have the same values in the indexed columns.
+     * @return True if the index is unique.
+     */
+    boolean unique() default false;
+
+    /**
+     * The name of the index in the database.
+     * <p>
+     * This field defaults to {@code IDX_<table>_<columns>}, or {@code UX_<table>_<columns>}
+     * for unique indexes.
+     * @return The name of the index.
+     */
+    String name() default "";
+}
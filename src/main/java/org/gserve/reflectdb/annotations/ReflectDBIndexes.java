@@ -0,0 +1,16 @@
+package org.gserve.reflectdb.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface ReflectDBIndexes {
+    /**
+     * Container for repeated {@code ReflectDBIndex} annotations.
+     * @return The indexes of the type.
+     */
+    ReflectDBIndex[] value();
+}
@@ -0,0 +1,39 @@
+package org.gserve.reflectdb.dialect;
+/*
+ *  Copyright (C) 2026 Dustin K. Redmond
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 59
+ * Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+/**
+ * Databases without a dedicated dialect: ANSI quoting, {@code LIMIT},
+ * {@code AUTO_INCREMENT} and upserts as an UPDATE followed by an INSERT.
+ * @since 10/18/2026 18:20
+ * @author Dustin K. Redmond
+ */
+public class GenericDialect extends ReflectDBDialect {
+    private final String name;
+
+    /**
+     * @param name Database product name.
+     */
+    public GenericDialect(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String getName() { return this.name; }
+}
@@ -0,0 +1,107 @@
+package org.gserve.reflectdb.dialect;
+/*
+ *  Copyright (C) 2026 Dustin K. Redmond
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 59
+ * Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * MySQL and MariaDB. Results are only streamed with a fetch size of
+ * {@code Integer.MIN_VALUE}, and statements are limited by {@code max_allowed_packet}.
+ * @since 10/18/2026 18:20
+ * @author Dustin K. Redmond
+ */
+public class MySqlDialect extends ReflectDBDialect {
+    /** Server default for {@code max_allowed_packet} before MySQL 8.0. */
+    static final long DEFAULT_MAX_ALLOWED_PACKET = 4L * 1024 * 1024;
+
+    private final boolean mariaDB;
+    private final long maxStatementBytes;
+
+    /**
+     * @param mariaDB True for MariaDB.
+     * @param maxAllowedPacket The server's {@code max_allowed_packet} in bytes.
+     */
+    public MySqlDialect(boolean mariaDB, long maxAllowedPacket) {
+        this.mariaDB = mariaDB;
+        // Leave headroom for the statement text and protocol overhead
+        this.maxStatementBytes = maxAllowedPacket * 9 / 10;
+    }
+
+    public boolean isMariaDB() { return this.mariaDB; }
+
+    @Override
+    public String getName() { return this.mariaDB ? "MariaDB" : "MySQL"; }
+
+    @Override
+    public String quote(String identifier) {
+        return '`' + identifier.replace("`", "``") + '`';
+    }
+
+    /**
+     * MySQL has no {@code CREATE INDEX IF NOT EXISTS}, so a plain {@code CREATE INDEX} is
+     * used there and a duplicate key name error is ignored, see {@link #isAlreadyExists}.
+     */
+    @Override
+    public String createIndex(String indexName, String table, List<String> columns, boolean unique) {
+        if (this.mariaDB) {
+            return super.createIndex(indexName, table, columns, unique);
+        }
+        return "CREATE " + (unique ? "UNIQUE " : "") + "INDEX " + identifier(indexName)
+                + " ON " + table + " (" + String.join(", ", columns) + ")";
+    }
+
+    @Override
+    public boolean isAlreadyExists(SQLException e) {
+        // ER_DUP_KEYNAME
+        return e.getErrorCode() == 1061;
+    }
+
+    @Override
+    public int getMaxParameters() {
+        return 65535;
+    }
+
+    @Override
+    public long getMaxStatementBytes() {
+        return this.maxStatementBytes;
+    }
+
+    /**
+     * Connector/J and MariaDB Connector/J buffer the whole result unless the fetch
+     * size is {@code Integer.MIN_VALUE}, so that is used when no fetch size is set.
+     */
+    @Override
+    public int getStreamingFetchSize(int fetchSize) {
+        return fetchSize == 0 ? Integer.MIN_VALUE : fetchSize;
+    }
+
+    /**
+     * {@code INSERT ... ON DUPLICATE KEY UPDATE c = VALUES(c)}.
+     */
+    @Override
+    public String upsert(String insert, String primaryKey, List<String> columns) {
+        StringJoiner set = new StringJoiner(", ");
+        for (String column : columns) {
+            set.add(column + " = VALUES(" + column + ")");
+        }
+        return insert + " ON DUPLICATE KEY UPDATE " + (columns.isEmpty() ? primaryKey + " = " + primaryKey : set.toString());
+    }
+}
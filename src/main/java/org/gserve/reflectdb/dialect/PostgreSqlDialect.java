@@ -0,0 +1,55 @@
+package org.gserve.reflectdb.dialect;
+/*
+ *  Copyright (C) 2026 Dustin K. Redmond
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 59
+ * Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * PostgreSQL 10 and later.
+ * @since 10/18/2026 18:20
+ * @author Dustin K. Redmond
+ */
+public class PostgreSqlDialect extends ReflectDBDialect {
+
+    @Override
+    public String getName() { return "PostgreSQL"; }
+
+    @Override
+    public String autoIncrementPrimaryKey() {
+        return " GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY ";
+    }
+
+    @Override
+    public int getMaxParameters() {
+        return 32767;
+    }
+
+    /**
+     * {@code INSERT ... ON CONFLICT(pk) DO UPDATE SET c = EXCLUDED.c}.
+     */
+    @Override
+    public String upsert(String insert, String primaryKey, List<String> columns) {
+        StringJoiner set = new StringJoiner(", ");
+        for (String column : columns) {
+            set.add(column + " = EXCLUDED." + column);
+        }
+        return insert + " ON CONFLICT(" + primaryKey + ") DO " + (columns.isEmpty() ? "NOTHING" : "UPDATE SET " + set);
+    }
+}
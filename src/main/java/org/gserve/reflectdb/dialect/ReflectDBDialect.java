@@ -0,0 +1,230 @@
+package org.gserve.reflectdb.dialect;
+/*
+ *  Copyright (C) 2026 Dustin K. Redmond
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 59
+ * Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Everything ReflectDB generates differently per database: identifier quoting,
+ * row limits, auto-increment DDL, statement size limits, streaming fetch size and
+ * batch/upsert support. A dialect is resolved once from {@code DatabaseMetaData} when
+ * ReflectDB is initialized (or on the first connection if the database could not be
+ * reached then), so hot paths ask the dialect instead of inspecting the URL.
+ * <p>Subclass to support another database and install it with
+ * {@code ReflectDBConfig.setDialect}.
+ *
+ * @since 10/18/2026 18:20
+ * @author Dustin K. Redmond
+ */
+public abstract class ReflectDBDialect {
+    private static final Set<String> RESERVED = new HashSet<>(Arrays.asList(
+            "ADD", "ALL", "ALTER", "AND", "AS", "ASC", "BETWEEN", "BY", "CASE", "CHECK", "COLUMN",
+            "CONSTRAINT", "CREATE", "DEFAULT", "DELETE", "DESC", "DISTINCT", "DROP", "ELSE", "END",
+            "EXISTS", "FOR", "FOREIGN", "FROM", "GRANT", "GROUP", "HAVING", "IN", "INDEX", "INSERT",
+            "INTO", "IS", "JOIN", "KEY", "LIKE", "LIMIT", "NOT", "NULL", "OFFSET", "ON", "OR", "ORDER",
+            "PRIMARY", "REFERENCES", "SELECT", "SET", "TABLE", "THEN", "TO", "UNION", "UNIQUE",
+            "UPDATE", "USER", "VALUES", "WHEN", "WHERE", "WITH"));
+
+    /**
+     * Picks the dialect for the database a connection is connected to.
+     * @param conn Open connection, left open.
+     * @return The dialect, {@link GenericDialect} for databases without one.
+     * @throws SQLException If the database metadata cannot be read.
+     */
+    public static ReflectDBDialect resolve(Connection conn) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        final String product = meta.getDatabaseProductName().toUpperCase(Locale.ROOT);
+        final String version = String.valueOf(meta.getDatabaseProductVersion()).toUpperCase(Locale.ROOT);
+        if (product.contains("SQLITE")) {
+            return new SQLiteDialect(meta.getDatabaseMajorVersion(), meta.getDatabaseMinorVersion());
+        } else if (product.contains("MYSQL") || product.contains("MARIADB")) {
+            long packet = MySqlDialect.DEFAULT_MAX_ALLOWED_PACKET;
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT @@max_allowed_packet")) {
+                if (rs.next()) {
+                    packet = rs.getLong(1);
+                }
+            }
+            return new MySqlDialect(product.contains("MARIADB") || version.contains("MARIADB"), packet);
+        } else if (product.contains("POSTGRESQL")) {
+            return new PostgreSqlDialect();
+        }
+        return new GenericDialect(meta.getDatabaseProductName());
+    }
+
+    /**
+     * Guesses the dialect from a JDBC URL, used until a connection has been made.
+     * Version dependent features are assumed to be missing.
+     * @param url JDBC URL, may be null.
+     * @return The dialect, {@link GenericDialect} for unknown URLs.
+     */
+    public static ReflectDBDialect fromUrl(String url) {
+        final String upper = url == null ? "" : url.toUpperCase(Locale.ROOT);
+        if (upper.contains("SQLITE")) {
+            return new SQLiteDialect(3, 0);
+        } else if (upper.contains("MARIADB")) {
+            return new MySqlDialect(true, MySqlDialect.DEFAULT_MAX_ALLOWED_PACKET);
+        } else if (upper.contains("MYSQL")) {
+            return new MySqlDialect(false, MySqlDialect.DEFAULT_MAX_ALLOWED_PACKET);
+        } else if (upper.contains("POSTGRESQL")) {
+            return new PostgreSqlDialect();
+        }
+        return new GenericDialect("Unknown");
+    }
+
+    /**
+     * @return Name of the database, e.g. {@code SQLite}.
+     */
+    public abstract String getName();
+
+    /**
+     * Quotes an identifier, doubling any embedded quote characters.
+     */
+    public String quote(String identifier) {
+        return '"' + identifier.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Renders a table or column name for generated SQL. Plain names are left as they
+     * are, so their case handling is unchanged, while names that are reserved words or
+     * contain other characters are quoted.
+     */
+    public String identifier(String name) {
+        if (RESERVED.contains(name.toUpperCase(Locale.ROOT))) {
+            return quote(name);
+        }
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            boolean plain = (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || c == '_'
+                    || (i > 0 && c >= '0' && c <= '9');
+            if (!plain) {
+                return quote(name);
+            }
+        }
+        return name.isEmpty() ? quote(name) : name;
+    }
+
+    /**
+     * Limits a SELECT to a number of rows.
+     * @param select SELECT statement, including any ORDER BY.
+     * @param rows Row count, a number or {@code ?}.
+     * @return The limited SELECT.
+     */
+    public String limit(String select, String rows) {
+        return select + " LIMIT " + rows;
+    }
+
+    /**
+     * @return DDL following a primary key column's type and nullability that makes the
+     * database generate its values.
+     */
+    public String autoIncrementPrimaryKey() {
+        return " AUTO_INCREMENT PRIMARY KEY ";
+    }
+
+    /**
+     * Renders the DDL of a secondary index that is skipped if it already exists.
+     * @param indexName Name of the index.
+     * @param table Table name, as rendered by {@link #identifier(String)}.
+     * @param columns Indexed columns, as rendered by {@link #identifier(String)}.
+     * @param unique Whether the index is unique.
+     * @return The CREATE INDEX statement.
+     */
+    public String createIndex(String indexName, String table, List<String> columns, boolean unique) {
+        return "CREATE " + (unique ? "UNIQUE " : "") + "INDEX IF NOT EXISTS " + identifier(indexName)
+                + " ON " + table + " (" + String.join(", ", columns) + ")";
+    }
+
+    /**
+     * @param e Error raised by DDL from {@code getTableCreateDDL}.
+     * @return Whether the error only means the object already exists, for databases
+     * whose DDL cannot say {@code IF NOT EXISTS}.
+     */
+    public boolean isAlreadyExists(SQLException e) {
+        return false;
+    }
+
+    /**
+     * @return Maximum number of {@code ?} placeholders in one statement.
+     */
+    public int getMaxParameters() {
+        return 999;
+    }
+
+    /**
+     * @return Maximum size of one statement in bytes, {@code Long.MAX_VALUE} if unlimited.
+     */
+    public long getMaxStatementBytes() {
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Fetch size for streamed reads ({@code stream}, {@code iterate}).
+     * @param fetchSize Fetch size configured with {@code ReflectDBConfig.setFetchSize}, 0 if not set.
+     * @return Fetch size to pass to the driver.
+     */
+    public int getStreamingFetchSize(int fetchSize) {
+        return fetchSize;
+    }
+
+    /**
+     * @return Whether the driver reports a generated key for every row of a batch or
+     * multi-row INSERT. See {@link #derivesBatchGeneratedKeys()} for drivers that don't.
+     */
+    public boolean returnsBatchGeneratedKeys() {
+        return true;
+    }
+
+    /**
+     * Used when {@link #returnsBatchGeneratedKeys()} is false.
+     * @return Whether the rows of one batch or multi-row INSERT receive consecutive integer
+     * keys and the driver reports the last one, so every row's key can be derived from it.
+     * Otherwise rows needing keys are inserted one statement at a time.
+     */
+    public boolean derivesBatchGeneratedKeys() {
+        return false;
+    }
+
+    /**
+     * Turns a single-row INSERT of every column into one that updates the existing row
+     * on a primary key conflict, bound exactly like the INSERT.
+     * @param insert INSERT of every column.
+     * @param primaryKey Primary key column, as rendered by {@link #identifier(String)}.
+     * @param columns Non-key columns, as rendered by {@link #identifier(String)}.
+     * @return The upsert, or null if the database has no single statement upsert, in
+     * which case an UPDATE followed by an INSERT is used.
+     */
+    public String upsert(String insert, String primaryKey, List<String> columns) {
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return getName();
+    }
+}
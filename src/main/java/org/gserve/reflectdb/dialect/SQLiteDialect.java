@@ -0,0 +1,88 @@
+package org.gserve.reflectdb.dialect;
+/*
+ *  Copyright (C) 2026 Dustin K. Redmond
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 59
+ * Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * SQLite. {@code INTEGER PRIMARY KEY} columns are always generated, and batches only
+ * report the last generated key.
+ * @since 10/18/2026 18:20
+ * @author Dustin K. Redmond
+ */
+public class SQLiteDialect extends ReflectDBDialect {
+    private final boolean onConflict;
+    private final int maxParameters;
+
+    /**
+     * @param majorVersion SQLite major version.
+     * @param minorVersion SQLite minor version.
+     */
+    public SQLiteDialect(int majorVersion, int minorVersion) {
+        // UPSERT arrived in 3.24.0, SQLITE_MAX_VARIABLE_NUMBER was raised from 999 to 32766 in 3.32.0
+        this.onConflict = majorVersion > 3 || (majorVersion == 3 && minorVersion >= 24);
+        this.maxParameters = majorVersion > 3 || (majorVersion == 3 && minorVersion >= 32) ? 32766 : 999;
+    }
+
+    @Override
+    public String getName() { return "SQLite"; }
+
+    @Override
+    public String autoIncrementPrimaryKey() {
+        return " PRIMARY KEY ";
+    }
+
+    @Override
+    public int getMaxParameters() {
+        return this.maxParameters;
+    }
+
+    @Override
+    public boolean returnsBatchGeneratedKeys() {
+        return false;
+    }
+
+    /**
+     * The driver only reports {@code last_insert_rowid()}. Inside the insert's transaction
+     * SQLite holds the write lock, and each new rowid is the table's largest plus one,
+     * so a batch's rows get consecutive keys. The exception is a table whose largest rowid
+     * has reached {@code Long.MAX_VALUE}, where SQLite picks unused rowids at random.
+     */
+    @Override
+    public boolean derivesBatchGeneratedKeys() {
+        return true;
+    }
+
+    /**
+     * {@code INSERT ... ON CONFLICT(pk) DO UPDATE SET c = excluded.c} on 3.24+, otherwise
+     * {@code INSERT OR REPLACE}, which replaces the whole row.
+     */
+    @Override
+    public String upsert(String insert, String primaryKey, List<String> columns) {
+        if (!this.onConflict) {
+            return "INSERT OR REPLACE" + insert.substring("INSERT".length());
+        }
+        StringJoiner set = new StringJoiner(", ");
+        for (String column : columns) {
+            set.add(column + " = excluded." + column);
+        }
+        return insert + " ON CONFLICT(" + primaryKey + ") DO " + (columns.isEmpty() ? "NOTHING" : "UPDATE SET " + set);
+    }
+}
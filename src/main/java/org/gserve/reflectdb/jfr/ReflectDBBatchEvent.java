@@ -0,0 +1,61 @@
+package org.gserve.reflectdb.jfr;
+/*
+ *  Copyright (C) 2026 Dustin K. Redmond
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 59
+ * Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one flush of {@code insertAll} or {@code upsertAll}, i.e.
+ * one JDBC batch or one multi-row INSERT statement sent to the database.
+ *
+ * @since 10/18/2026 22:40
+ * @author Dustin K. Redmond
+ */
+@Name("org.gserve.reflectdb.BatchFlush")
+@Label("ReflectDB Batch Flush")
+@Category("ReflectDB")
+@Description("A JDBC batch or multi-row INSERT sent by ReflectDB")
+@StackTrace(false)
+public final class ReflectDBBatchEvent extends Event {
+    @Label("Table")
+    String tableName;
+
+    @Label("SQL")
+    String sql;
+
+    @Label("Rows")
+    @Description("Rows sent in the batch or statement")
+    long rows;
+
+    /**
+     * Fills in the event and commits it. Call after {@link #end()} and {@link #shouldCommit()}.
+     */
+    public void commit(String tableName, String sql, long rows) {
+        this.tableName = tableName;
+        this.sql = sql;
+        this.rows = rows;
+        commit();
+    }
+}
@@ -0,0 +1,56 @@
+package org.gserve.reflectdb.jfr;
+/*
+ *  Copyright (C) 2026 Dustin K. Redmond
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 59
+ * Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for acquiring a connection, e.g. through
+ * {@code ReflectDB.getNativeConnection()}, including any wait for a pooled connection.
+ * Operations inside a session reuse the session's connection and acquire none.
+ *
+ * @since 10/18/2026 22:40
+ * @author Dustin K. Redmond
+ */
+@Name("org.gserve.reflectdb.ConnectionAcquisition")
+@Label("ReflectDB Connection Acquisition")
+@Category("ReflectDB")
+@Description("A connection obtained by ReflectDB")
+public final class ReflectDBConnectionEvent extends Event {
+    @Label("Source")
+    @Description("Where the connection came from: dataSource, pool or driverManager")
+    String source;
+
+    @Label("Failed")
+    boolean failed;
+
+    /**
+     * Fills in the event and commits it. Call after {@link #end()} and {@link #shouldCommit()}.
+     */
+    public void commit(String source, boolean failed) {
+        this.source = source;
+        this.failed = failed;
+        commit();
+    }
+}
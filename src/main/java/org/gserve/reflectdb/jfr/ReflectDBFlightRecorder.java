@@ -0,0 +1,116 @@
+package org.gserve.reflectdb.jfr;
+/*
+ *  Copyright (C) 2026 Dustin K. Redmond
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 59
+ * Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+import jdk.jfr.Event;
+import org.gserve.reflectdb.metrics.ReflectDBEvent;
+
+/**
+ * The only way into this package from the rest of ReflectDB. Events are passed around
+ * as {@code Object}s, so classes that trace every operation never refer to the
+ * {@code jdk.jfr} module, and it is only loaded once
+ * {@code ReflectDBConfig.setFlightRecorderEnabled} is turned on. Each {@code begin}
+ * method returns null when no recording wants the event, and the matching
+ * {@code commit} method ignores null.
+ *
+ * @since 10/18/2026 23:30
+ * @author Dustin K. Redmond
+ */
+public final class ReflectDBFlightRecorder {
+    /**
+     * Rows per mapping event for iterators and streams.
+     */
+    public static final int MAPPING_BATCH_ROWS = ReflectDBMappingEvent.BATCH_ROWS;
+
+    private ReflectDBFlightRecorder() {}
+
+    public static Object beginQuery() {
+        return begin(new ReflectDBQueryEvent());
+    }
+
+    /**
+     * Ends a query event.
+     * @return True if the event should be committed with {@link #commitQuery}.
+     */
+    public static boolean endQuery(Object event) {
+        if (event == null) {
+            return false;
+        }
+        ReflectDBQueryEvent queryEvent = (ReflectDBQueryEvent) event;
+        queryEvent.end();
+        return queryEvent.shouldCommit();
+    }
+
+    public static void commitQuery(Object event, ReflectDBEvent values) {
+        ((ReflectDBQueryEvent) event).commit(values);
+    }
+
+    public static Object beginMapping() {
+        return begin(new ReflectDBMappingEvent());
+    }
+
+    public static void commitMapping(Object event, String tableName, String sql, long rows, long mappingNanos) {
+        if (event != null) {
+            ReflectDBMappingEvent mappingEvent = (ReflectDBMappingEvent) event;
+            mappingEvent.end();
+            if (mappingEvent.shouldCommit()) {
+                mappingEvent.commit(tableName, sql, rows, mappingNanos);
+            }
+        }
+    }
+
+    public static Object beginBatch() {
+        return begin(new ReflectDBBatchEvent());
+    }
+
+    public static void commitBatch(Object event, String tableName, String sql, long rows) {
+        if (event != null) {
+            ReflectDBBatchEvent batchEvent = (ReflectDBBatchEvent) event;
+            batchEvent.end();
+            if (batchEvent.shouldCommit()) {
+                batchEvent.commit(tableName, sql, rows);
+            }
+        }
+    }
+
+    public static Object beginConnection() {
+        return begin(new ReflectDBConnectionEvent());
+    }
+
+    public static void commitConnection(Object event, String source, boolean failed) {
+        if (event != null) {
+            ReflectDBConnectionEvent connectionEvent = (ReflectDBConnectionEvent) event;
+            connectionEvent.end();
+            if (connectionEvent.shouldCommit()) {
+                connectionEvent.commit(source, failed);
+            }
+        }
+    }
+
+    /**
+     * @return The event, begun, or null if no recording wants it.
+     */
+    private static <E extends Event> E begin(E event) {
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+}
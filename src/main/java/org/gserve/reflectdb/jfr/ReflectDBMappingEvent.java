@@ -0,0 +1,73 @@
+package org.gserve.reflectdb.jfr;
+/*
+ *  Copyright (C) 2026 Dustin K. Redmond
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 59
+ * Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event for a batch of rows mapped to objects. A query returning a
+ * {@code List} maps all its rows in one batch. Iterators and streams report a batch
+ * every {@value #BATCH_ROWS} rows and one for the rest when closed, their duration
+ * includes the time the caller spends between rows, the mapping time doesn't.
+ *
+ * @since 10/18/2026 22:40
+ * @author Dustin K. Redmond
+ */
+@Name("org.gserve.reflectdb.RowMapping")
+@Label("ReflectDB Row Mapping")
+@Category("ReflectDB")
+@Description("Rows of a ReflectDB query read and mapped to objects")
+@StackTrace(false)
+public final class ReflectDBMappingEvent extends Event {
+    /**
+     * Rows per event for iterators and streams.
+     */
+    public static final int BATCH_ROWS = 1000;
+
+    @Label("Table")
+    String tableName;
+
+    @Label("SQL")
+    String sql;
+
+    @Label("Rows")
+    long rows;
+
+    @Label("Mapping Time")
+    @Timespan
+    long mappingTime;
+
+    /**
+     * Fills in the event and commits it. Call after {@link #end()} and {@link #shouldCommit()}.
+     */
+    public void commit(String tableName, String sql, long rows, long mappingNanos) {
+        this.tableName = tableName;
+        this.sql = sql;
+        this.rows = rows;
+        this.mappingTime = mappingNanos;
+        commit();
+    }
+}
@@ -0,0 +1,106 @@
+package org.gserve.reflectdb.jfr;
+/*
+ *  Copyright (C) 2026 Dustin K. Redmond
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 59
+ * Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+import org.gserve.reflectdb.metrics.ReflectDBEvent;
+
+/**
+ * Flight Recorder event for one ReflectDB operation, from acquiring its connection to
+ * releasing it. Carries the same values as {@link ReflectDBEvent}, the event's duration
+ * is the operation's total time.
+ *
+ * @since 10/18/2026 22:40
+ * @author Dustin K. Redmond
+ */
+@Name("org.gserve.reflectdb.Query")
+@Label("ReflectDB Query")
+@Category("ReflectDB")
+@Description("A ReflectDB operation, including those served from a cache")
+public final class ReflectDBQueryEvent extends Event {
+    @Label("Operation")
+    String operation;
+
+    @Label("Model Class")
+    Class<?> modelClass;
+
+    @Label("Table")
+    String tableName;
+
+    @Label("SQL")
+    String sql;
+
+    @Label("Rows")
+    @Description("Rows read, or rows affected by a write")
+    long rows;
+
+    @Label("Statements")
+    int statements;
+
+    @Label("Connection Time")
+    @Timespan
+    long connectionTime;
+
+    @Label("Prepare Time")
+    @Description("Time spent preparing statements and binding their parameters")
+    @Timespan
+    long prepareTime;
+
+    @Label("Execute Time")
+    @Timespan
+    long executeTime;
+
+    @Label("Mapping Time")
+    @Description("Time spent reading rows and mapping them to objects, or reading generated keys")
+    @Timespan
+    long mappingTime;
+
+    @Label("Failed")
+    boolean failed;
+
+    @Label("Cache Hit")
+    @Description("Served from the entity or query cache, without statements")
+    boolean cacheHit;
+
+    /**
+     * Copies an operation's values into the event and commits it. Call after
+     * {@link #end()} and {@link #shouldCommit()}.
+     */
+    public void commit(ReflectDBEvent event) {
+        this.operation = event.getOperation().name();
+        this.modelClass = event.getModelClass();
+        this.tableName = event.getTableName();
+        this.sql = event.getSql();
+        this.rows = event.getRows();
+        this.statements = event.getStatements();
+        this.connectionTime = event.getConnectionNanos();
+        this.prepareTime = event.getPrepareNanos();
+        this.executeTime = event.getExecuteNanos();
+        this.mappingTime = event.getMappingNanos();
+        this.failed = event.isFailed();
+        this.cacheHit = event.isCacheHit();
+        commit();
+    }
+}
@@ -0,0 +1,128 @@
+package org.gserve.reflectdb.metrics;
+/*
+ *  Copyright (C) 2026 Dustin K. Redmond
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 59
+ * Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+/**
+ * Timings and result of one ReflectDB operation. The phases are measured
+ * one after another, so they add up to slightly less than {@link #getTotalNanos()},
+ * which also covers committing bulk operations and releasing the statement and connection.
+ * <ul>
+ *     <li>connection: acquiring the connection, from the pool, {@code DataSource} or driver</li>
+ *     <li>prepare: preparing statements and binding their parameters</li>
+ *     <li>execute: executing statements</li>
+ *     <li>mapping: reading rows and mapping them to objects, or reading generated keys</li>
+ * </ul>
+ * Operations served from the entity or query cache are reported with no statements and
+ * {@link #isCacheHit()} true, their mapping time being the time spent restoring objects.
+ * A {@code save} that dirty tracking skipped is reported with no statements as well.
+ *
+ * @since 10/18/2026 21:45
+ * @author Dustin K. Redmond
+ */
+public final class ReflectDBEvent {
+    private final ReflectDBOperation operation;
+    private final Class<?> modelClass;
+    private final String tableName;
+    private final String sql;
+    private final long rows;
+    private final int statements;
+    private final long connectionNanos;
+    private final long prepareNanos;
+    private final long executeNanos;
+    private final long mappingNanos;
+    private final long totalNanos;
+    private final boolean failed;
+    private final boolean cacheHit;
+
+    public ReflectDBEvent(ReflectDBOperation operation, Class<?> modelClass, String tableName, String sql,
+                          long rows, int statements, long connectionNanos, long prepareNanos, long executeNanos,
+                          long mappingNanos, long totalNanos, boolean failed) {
+        this(operation, modelClass, tableName, sql, rows, statements, connectionNanos, prepareNanos, executeNanos,
+                mappingNanos, totalNanos, failed, false);
+    }
+
+    public ReflectDBEvent(ReflectDBOperation operation, Class<?> modelClass, String tableName, String sql,
+                          long rows, int statements, long connectionNanos, long prepareNanos, long executeNanos,
+                          long mappingNanos, long totalNanos, boolean failed, boolean cacheHit) {
+        this.operation = operation;
+        this.modelClass = modelClass;
+        this.tableName = tableName;
+        this.sql = sql;
+        this.rows = rows;
+        this.statements = statements;
+        this.connectionNanos = connectionNanos;
+        this.prepareNanos = prepareNanos;
+        this.executeNanos = executeNanos;
+        this.mappingNanos = mappingNanos;
+        this.totalNanos = totalNanos;
+        this.failed = failed;
+        this.cacheHit = cacheHit;
+    }
+
+    public ReflectDBOperation getOperation() { return this.operation; }
+
+    /**
+     * @return The model class, or null for DDL and bulk operations on several classes.
+     */
+    public Class<?> getModelClass() { return this.modelClass; }
+
+    /**
+     * @return The table, or null for DDL and bulk operations on several tables.
+     */
+    public String getTableName() { return this.tableName; }
+
+    /**
+     * @return The SQL template, with {@code ?} placeholders rather than values.
+     */
+    public String getSql() { return this.sql; }
+
+    /**
+     * @return Rows mapped by a query, or rows affected by a write.
+     */
+    public long getRows() { return this.rows; }
+
+    /**
+     * @return Statements (or JDBC batches) executed.
+     */
+    public int getStatements() { return this.statements; }
+
+    public long getConnectionNanos() { return this.connectionNanos; }
+    public long getPrepareNanos() { return this.prepareNanos; }
+    public long getExecuteNanos() { return this.executeNanos; }
+    public long getMappingNanos() { return this.mappingNanos; }
+    public long getTotalNanos() { return this.totalNanos; }
+
+    /**
+     * @return True if the operation threw an exception.
+     */
+    public boolean isFailed() { return this.failed; }
+
+    /**
+     * @return True if the operation was served from the entity or query cache.
+     */
+    public boolean isCacheHit() { return this.cacheHit; }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s rows: %d statements: %d connection: %dns prepare: %dns execute: %dns " +
+                        "mapping: %dns total: %dns%s%s", this.operation, this.tableName, this.rows, this.statements,
+                this.connectionNanos, this.prepareNanos, this.executeNanos, this.mappingNanos, this.totalNanos,
+                this.cacheHit ? " cache hit" : "", this.failed ? " failed" : "");
+    }
+}
@@ -0,0 +1,138 @@
+package org.gserve.reflectdb.metrics;
+/*
+ *  Copyright (C) 2026 Dustin K. Redmond
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 59
+ * Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of durations in nanoseconds. Values are counted in buckets
+ * that split every power of two into four, so a percentile is reported with at most
+ * 25% error, using a fixed 2 KB per histogram whatever the range of values.
+ * <p>{@link #getCounts()} and {@link #getUpperBound(int)} expose the raw buckets,
+ * e.g. to feed them into another monitoring system's histogram.
+ *
+ * @since 10/18/2026 21:50
+ * @author Dustin K. Redmond
+ */
+public final class ReflectDBHistogram {
+    private static final int BUCKETS = 248;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * @param nanos Duration to record, negative values are recorded as 0.
+     */
+    public void record(long nanos) {
+        final long value = Math.max(0, nanos);
+        this.counts.incrementAndGet(bucket(value));
+        this.count.increment();
+        this.sum.add(value);
+        this.max.accumulateAndGet(value, Math::max);
+    }
+
+    public long getCount() { return this.count.sum(); }
+    public long getSum() { return this.sum.sum(); }
+    public long getMax() { return this.max.get(); }
+
+    public double getMean() {
+        final long n = getCount();
+        return n == 0 ? 0 : (double) getSum() / n;
+    }
+
+    /**
+     * @param percentile Percentile between 0 and 100, e.g. 99.9.
+     * @return Upper bound of the bucket holding the percentile, never more than
+     * {@link #getMax()}, or 0 if nothing was recorded.
+     */
+    public long getPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100, was: " + percentile);
+        }
+        long[] snapshot = getCounts();
+        long total = 0;
+        for (long c : snapshot) {
+            total += c;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(getUpperBound(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * @return Count of every bucket, the bounds of bucket {@code i} are given by
+     * {@link #getUpperBound(int)} of {@code i - 1} (exclusive) and {@code i} (inclusive).
+     */
+    public long[] getCounts() {
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = this.counts.get(i);
+        }
+        return snapshot;
+    }
+
+    /**
+     * @param bucket Index into {@link #getCounts()}.
+     * @return Largest value, in nanoseconds, counted in the bucket.
+     */
+    public static long getUpperBound(int bucket) {
+        if (bucket < 4) {
+            return bucket;
+        }
+        final int exponent = bucket / 4 + 1;
+        final long upper = (long) (4 + bucket % 4 + 1) << (exponent - 2);
+        return bucket == BUCKETS - 1 ? Long.MAX_VALUE : upper - 1;
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            this.counts.set(i, 0);
+        }
+        this.count.reset();
+        this.sum.reset();
+        this.max.set(0);
+    }
+
+    static int bucket(long value) {
+        if (value < 4) {
+            return (int) value;
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        return (exponent - 1) * 4 + (int) ((value >>> (exponent - 2)) & 3);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count: %d mean: %.0fns p50: %dns p99: %dns max: %dns",
+                getCount(), getMean(), getPercentile(50), getPercentile(99), getMax());
+    }
+}
@@ -0,0 +1,34 @@
+package org.gserve.reflectdb.metrics;
+/*
+ *  Copyright (C) 2026 Dustin K. Redmond
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 59
+ * Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+/**
+ * Receives an event after every ReflectDB operation that reached the database.
+ * Register listeners with {@code ReflectDBConfig.addListener}.
+ * <p>Listeners are called on the thread that ran the operation, after its connection
+ * has been released, so they should return quickly and must be thread-safe. An
+ * exception thrown by a listener is propagated to the caller of the operation.
+ *
+ * @since 10/18/2026 21:40
+ * @author Dustin K. Redmond
+ */
+@FunctionalInterface
+public interface ReflectDBListener {
+    void onOperation(ReflectDBEvent event);
+}
@@ -0,0 +1,156 @@
+package org.gserve.reflectdb.metrics;
+/*
+ *  Copyright (C) 2026 Dustin K. Redmond
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 59
+ * Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory {@link ReflectDBListener} keeping counters and latency histograms per
+ * operation and table. Enable it with {@code ReflectDBConfig.enableMetrics()} and read
+ * it from a monitoring job, every method is thread-safe.
+ *
+ * @since 10/18/2026 21:55
+ * @author Dustin K. Redmond
+ */
+public class ReflectDBMetrics implements ReflectDBListener {
+    private final Map<ReflectDBOperation, ConcurrentMap<String, Stats>> stats =
+            new EnumMap<>(ReflectDBOperation.class);
+
+    public ReflectDBMetrics() {
+        for (ReflectDBOperation operation : ReflectDBOperation.values()) {
+            this.stats.put(operation, new ConcurrentHashMap<>());
+        }
+    }
+
+    @Override
+    public void onOperation(ReflectDBEvent event) {
+        final String table = event.getTableName() == null ? "" : event.getTableName();
+        this.stats.get(event.getOperation())
+                .computeIfAbsent(table, t -> new Stats(event.getOperation(), event.getTableName()))
+                .record(event);
+    }
+
+    /**
+     * @param operation Operation type.
+     * @param tableName Table name, null for operations without a table.
+     * @return Statistics of the operation on the table, or null if it has not run.
+     */
+    public Stats getStats(ReflectDBOperation operation, String tableName) {
+        return this.stats.get(operation).get(tableName == null ? "" : tableName);
+    }
+
+    /**
+     * @return Statistics of every operation and table that has run.
+     */
+    public List<Stats> getStats() {
+        List<Stats> all = new ArrayList<>();
+        for (ConcurrentMap<String, Stats> byTable : this.stats.values()) {
+            all.addAll(byTable.values());
+        }
+        return all;
+    }
+
+    public void reset() {
+        for (ConcurrentMap<String, Stats> byTable : this.stats.values()) {
+            byTable.clear();
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Stats s : getStats()) {
+            sb.append(s).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Counters and histograms of one operation on one table.
+     */
+    public static final class Stats {
+        private final ReflectDBOperation operation;
+        private final String tableName;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAdder cacheHits = new LongAdder();
+        private final ReflectDBHistogram latency = new ReflectDBHistogram();
+        private final ReflectDBHistogram connection = new ReflectDBHistogram();
+        private final ReflectDBHistogram prepare = new ReflectDBHistogram();
+        private final ReflectDBHistogram execute = new ReflectDBHistogram();
+        private final ReflectDBHistogram mapping = new ReflectDBHistogram();
+
+        private Stats(ReflectDBOperation operation, String tableName) {
+            this.operation = operation;
+            this.tableName = tableName;
+        }
+
+        private void record(ReflectDBEvent event) {
+            this.count.increment();
+            if (event.isFailed()) {
+                this.failures.increment();
+            }
+            this.rows.add(event.getRows());
+            this.statements.add(event.getStatements());
+            if (event.isCacheHit()) {
+                this.cacheHits.increment();
+            }
+            this.latency.record(event.getTotalNanos());
+            this.connection.record(event.getConnectionNanos());
+            this.prepare.record(event.getPrepareNanos());
+            this.execute.record(event.getExecuteNanos());
+            this.mapping.record(event.getMappingNanos());
+        }
+
+        public ReflectDBOperation getOperation() { return this.operation; }
+        public String getTableName() { return this.tableName; }
+        public long getCount() { return this.count.sum(); }
+        public long getFailures() { return this.failures.sum(); }
+        public long getRows() { return this.rows.sum(); }
+        public long getStatements() { return this.statements.sum(); }
+
+        /**
+         * @return Operations served from the entity or query cache, included in {@link #getCount()}.
+         */
+        public long getCacheHits() { return this.cacheHits.sum(); }
+
+        /**
+         * @return Histogram of the total time of each operation.
+         */
+        public ReflectDBHistogram getLatency() { return this.latency; }
+        public ReflectDBHistogram getConnectionLatency() { return this.connection; }
+        public ReflectDBHistogram getPrepareLatency() { return this.prepare; }
+        public ReflectDBHistogram getExecuteLatency() { return this.execute; }
+        public ReflectDBHistogram getMappingLatency() { return this.mapping; }
+
+        @Override
+        public String toString() {
+            return String.format("%s %s count: %d failures: %d rows: %d latency [%s]", this.operation,
+                    this.tableName == null ? "-" : this.tableName, getCount(), getFailures(), getRows(), this.latency);
+        }
+    }
+}
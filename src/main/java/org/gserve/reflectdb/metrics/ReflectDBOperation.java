@@ -0,0 +1,52 @@
+package org.gserve.reflectdb.metrics;
+/*
+ *  Copyright (C) 2026 Dustin K. Redmond
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 59
+ * Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+/**
+ * Kind of operation reported in a {@link ReflectDBEvent}.
+ * @since 10/18/2026 21:40
+ * @author Dustin K. Redmond
+ */
+public enum ReflectDBOperation {
+    FIND_BY_ID,
+    /**
+     * {@code fetch}, {@code fetchSingle}, {@code findBy} and {@code ReflectDBSelect} queries.
+     */
+    FETCH,
+    /**
+     * {@code fetchAll}, including each key range read by {@code parallelFetchAll}.
+     */
+    FETCH_ALL,
+    FETCH_PAGE,
+    COUNT,
+    /**
+     * {@code iterate} and {@code stream}, reported when the iterator is closed.
+     */
+    ITERATE,
+    INSERT,
+    INSERT_ALL,
+    UPSERT,
+    UPSERT_ALL,
+    SAVE,
+    DELETE,
+    /**
+     * {@code createTablesIfNotExists}, one event per statement, and {@code dropTable}.
+     */
+    DDL
+}
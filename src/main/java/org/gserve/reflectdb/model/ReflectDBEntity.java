@@ -0,0 +1,247 @@
+package org.gserve.reflectdb.model;
+/*
+ *  Copyright (C) 2026 Dustin K. Redmond
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 59
+ * Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+import org.gserve.reflectdb.annotations.ReflectDBField;
+import org.gserve.reflectdb.annotations.ReflectDBIndex;
+import org.gserve.reflectdb.annotations.ReflectDBTable;
+import org.gserve.reflectdb.exception.ReflectDBException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Registry of model class metadata. The annotations of a model class are read
+ * exactly once, the first time the class is used, and the resulting
+ * {@code ReflectDBEntity} is shared by all threads.
+ * @since 10/18/2026 09:05
+ * @author Dustin K. Redmond
+ */
+public final class ReflectDBEntity<T> {
+    private static final ConcurrentMap<Class<?>, ReflectDBEntity<?>> REGISTRY = new ConcurrentHashMap<>();
+
+    private final Class<T> modelClass;
+    private final String tableName;
+    private final List<ReflectDBProperty> properties;
+    private final Map<String, ReflectDBProperty> propertiesByColumn;
+    private final ReflectDBProperty primaryKey;
+    private final int primaryKeyCount;
+    private final List<ReflectDBTableIndex> indexes;
+    private final ReflectDBGeneratedMapper<T> generated;
+    private volatile MethodHandle constructor;
+
+    private ReflectDBEntity(Class<T> modelClass) {
+        this.modelClass = modelClass;
+        this.generated = findGeneratedMapper(modelClass);
+
+        List<ReflectDBProperty> props = new ArrayList<>();
+        if (this.generated != null) {
+            this.tableName = this.generated.getTableName();
+            for (int i = 0; i < this.generated.getColumnNames().length; i++) {
+                props.add(new ReflectDBProperty(this.generated, i));
+            }
+        } else {
+            ReflectDBTable table = modelClass.getAnnotation(ReflectDBTable.class);
+            this.tableName = table == null ? "" : table.tableName();
+            for (Field field : modelClass.getDeclaredFields()) {
+                ReflectDBField dbField = field.getAnnotation(ReflectDBField.class);
+                if (dbField != null && !Modifier.isStatic(field.getModifiers())) {
+                    props.add(new ReflectDBProperty(field, dbField));
+                }
+            }
+        }
+
+        Map<String, ReflectDBProperty> byColumn = new HashMap<>();
+        ReflectDBProperty key = null;
+        int keyCount = 0;
+        for (ReflectDBProperty prop : props) {
+            byColumn.put(normalize(prop.getColumnName()), prop);
+            if (prop.isPrimaryKey()) {
+                key = prop;
+                keyCount++;
+            }
+        }
+        this.properties = Collections.unmodifiableList(props);
+        this.propertiesByColumn = byColumn;
+        this.primaryKey = keyCount == 1 ? key : null;
+        this.primaryKeyCount = keyCount;
+        this.indexes = Collections.unmodifiableList(readIndexes(modelClass, this.tableName, byColumn));
+    }
+
+    /**
+     * Loads the mapper generated for a model class by {@code reflectdb-processor}, if any.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> ReflectDBGeneratedMapper<T> findGeneratedMapper(Class<T> modelClass) {
+        final Class<?> mapperClass;
+        try {
+            mapperClass = Class.forName(modelClass.getName() + ReflectDBGeneratedMapper.SUFFIX, true,
+                    modelClass.getClassLoader());
+        } catch (ClassNotFoundException | LinkageError e) {
+            return null;
+        }
+        if (!ReflectDBGeneratedMapper.class.isAssignableFrom(mapperClass)) {
+            return null;
+        }
+        try {
+            ReflectDBGeneratedMapper<T> mapper =
+                    (ReflectDBGeneratedMapper<T>) mapperClass.getDeclaredConstructor().newInstance();
+            return mapper.getModelClass() == modelClass ? mapper : null;
+        } catch (ReflectiveOperationException e) {
+            throw new ReflectDBException(String.format("Unable to create generated mapper %s.",
+                    mapperClass.getName()), e);
+        }
+    }
+
+    private static List<ReflectDBTableIndex> readIndexes(Class<?> modelClass, String tableName,
+                                                         Map<String, ReflectDBProperty> byColumn) {
+        List<ReflectDBTableIndex> indexes = new ArrayList<>();
+        for (ReflectDBIndex index : modelClass.getAnnotationsByType(ReflectDBIndex.class)) {
+            if (index.columns().length == 0) {
+                throw new ReflectDBException(String.format("Index on model class: %s must name at least one column.",
+                        modelClass.getName()));
+            }
+            List<String> columns = new ArrayList<>();
+            StringBuilder name = new StringBuilder(index.unique() ? "UX_" : "IDX_").append(tableName);
+            for (String column : index.columns()) {
+                ReflectDBProperty prop = byColumn.get(normalize(column));
+                if (prop == null) {
+                    throw new ReflectDBException(String.format("Index on model class: %s names unknown column %s.",
+                            modelClass.getName(), column));
+                }
+                columns.add(prop.getColumnName());
+                name.append('_').append(prop.getColumnName());
+            }
+            indexes.add(new ReflectDBTableIndex(index.name().isEmpty() ? name.toString() : index.name(),
+                    Collections.unmodifiableList(columns), index.unique()));
+        }
+        return indexes;
+    }
+
+    /**
+     * Returns the cached metadata for a model class, building it on first use.
+     * @param modelClass Class annotated with {@code ReflectDBTable}
+     * @param <T> The ReflectDB type.
+     * @return Metadata shared by all callers for the class.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ReflectDBEntity<T> of(Class<T> modelClass) {
+        ReflectDBEntity<?> entity = REGISTRY.get(modelClass);
+        if (entity == null) {
+            entity = REGISTRY.computeIfAbsent(modelClass, ReflectDBEntity::new);
+        }
+        return (ReflectDBEntity<T>) entity;
+    }
+
+    public Class<T> getModelClass() { return this.modelClass; }
+    public String getTableName() { return this.tableName; }
+    public List<ReflectDBProperty> getProperties() { return this.properties; }
+    public int getPrimaryKeyCount() { return this.primaryKeyCount; }
+    public List<ReflectDBTableIndex> getIndexes() { return this.indexes; }
+
+    /**
+     * @return The mapper generated for the model class at compile time, or null if the
+     * class is mapped through reflection.
+     */
+    public ReflectDBGeneratedMapper<T> getGeneratedMapper() { return this.generated; }
+
+    /**
+     * @return The single primary key property, or null if the class does not
+     * declare exactly one primary key.
+     */
+    public ReflectDBProperty getPrimaryKey() { return this.primaryKey; }
+
+    /**
+     * Creates a new instance of the model class using its cached no-argument constructor.
+     * @return A new, empty model object.
+     * @throws ReflectiveOperationException If the class has no public no-argument
+     * constructor, or the constructor throws.
+     */
+    public T newInstance() throws ReflectiveOperationException {
+        if (this.generated != null) {
+            return this.generated.newInstance();
+        }
+        MethodHandle ctor = this.constructor;
+        if (ctor == null) {
+            Constructor<T> declared = this.modelClass.getConstructor();
+            declared.setAccessible(true);
+            ctor = MethodHandles.lookup().unreflectConstructor(declared).asType(CONSTRUCTOR_TYPE);
+            this.constructor = ctor;
+        }
+        try {
+            return this.modelClass.cast((Object) ctor.invokeExact());
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    /**
+     * Looks up a property by its database column name, ignoring case.
+     * @param columnName Name of the column as reported by the database.
+     * @return The mapped property or null if the column is not mapped.
+     */
+    public ReflectDBProperty getProperty(String columnName) {
+        return this.propertiesByColumn.get(normalize(columnName));
+    }
+
+    /**
+     * Returns the table name, failing if the model class does not declare one.
+     * @return Table name from {@code ReflectDBTable}
+     */
+    public String requireTableName() {
+        if (this.tableName.isEmpty()) {
+            throw new ReflectDBException("Cannot fetch objects for a class without a table name.");
+        }
+        return this.tableName;
+    }
+
+    /**
+     * Returns the primary key, failing if the model class does not declare exactly one.
+     * @return The primary key property.
+     */
+    public ReflectDBProperty requirePrimaryKey() {
+        if (this.primaryKey == null) {
+            throw new ReflectDBException(
+                    String.format("ReflectDB requires one primary key per table, found: %d keys for table: %s",
+                            this.primaryKeyCount, this.tableName));
+        }
+        return this.primaryKey;
+    }
+
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+
+    private static String normalize(String columnName) {
+        return columnName.toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,86 @@
+package org.gserve.reflectdb.model;
+/*
+ *  Copyright (C) 2026 Dustin K. Redmond
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 59
+ * Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Mapper generated at compile time by the {@code reflectdb-processor} annotation
+ * processor for a {@code ReflectDBTable} model class. {@link ReflectDBEntity} looks for
+ * a class named after the model class plus {@link #SUFFIX} (e.g.
+ * {@code com.acme.Person_ReflectDBMapper}) and, when it exists, takes the column
+ * metadata from it and creates, reads, writes and maps model objects through plain
+ * constructor, getter and setter calls instead of reflection. Model classes without
+ * a generated mapper keep using reflection.
+ * <p>Properties are indexed in the declaration order of the model's
+ * {@code ReflectDBField} fields, the same order as {@code ReflectDBEntity.getProperties()}.
+ *
+ * @param <T> The model class.
+ * @since 10/18/2026 19:50
+ * @author Dustin K. Redmond
+ */
+public interface ReflectDBGeneratedMapper<T> {
+    /** Appended to the binary name of a model class to name its generated mapper. */
+    String SUFFIX = "_ReflectDBMapper";
+
+    Class<T> getModelClass();
+    String getTableName();
+
+    /*
+     * Column metadata, one element per property.
+     */
+    String[] getFieldNames();
+    Class<?>[] getJavaTypes();
+    String[] getColumnNames();
+    String[] getColumnTypes();
+    boolean[] getNotNull();
+    boolean[] getPrimaryKeys();
+
+    /**
+     * @return A new, empty model object.
+     */
+    T newInstance();
+
+    /**
+     * Reads a property of a model object.
+     * @param obj Instance of the model class.
+     * @param property Index of the property.
+     * @return The (possibly boxed) value.
+     */
+    Object get(Object obj, int property);
+
+    /**
+     * Writes a property of a model object, primitives are unboxed.
+     * @param obj Instance of the model class.
+     * @param property Index of the property.
+     * @param value Value to assign.
+     */
+    void set(Object obj, int property, Object value);
+
+    /**
+     * Creates a model object from the current row. SQL {@code NULL} leaves a primitive
+     * field at its default.
+     * @param rs {@code ResultSet} positioned on a row.
+     * @param columns Column index of every property in {@code rs}, 0 for properties not selected.
+     * @return A populated model object.
+     * @throws SQLException If a column cannot be read.
+     */
+    T map(ResultSet rs, int[] columns) throws SQLException;
+}
@@ -0,0 +1,308 @@
+package org.gserve.reflectdb.model;
+/*
+ *  Copyright (C) 2026 Dustin K. Redmond
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 59
+ * Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+import org.gserve.reflectdb.annotations.ReflectDBField;
+import org.gserve.reflectdb.exception.ReflectDBException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Cached description of a single {@code ReflectDBField} annotated field. Instances
+ * are created once by {@link ReflectDBEntity} and hold an accessible {@code Field},
+ * pre-bound getter and setter {@code MethodHandle}s, and the column information
+ * needed by the query paths. Properties of a class with a
+ * {@link ReflectDBGeneratedMapper} read and write through the mapper instead.
+ * @since 10/18/2026 09:10
+ * @author Dustin K. Redmond
+ */
+public final class ReflectDBProperty {
+    private volatile Field field;
+    private final Class<?> declaringClass;
+    private final String fieldName;
+    private final Class<?> javaType;
+    private final String columnName;
+    private final String columnType;
+    private final boolean notNull;
+    private final boolean primaryKey;
+    private final boolean numeric;
+    private final boolean bool;
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+    private final MethodHandle primitiveSetter;
+    private final ReflectDBGeneratedMapper<?> generated;
+    private final int index;
+
+    ReflectDBProperty(Field field, ReflectDBField dbField) {
+        field.setAccessible(true);
+        this.field = field;
+        this.declaringClass = field.getDeclaringClass();
+        this.fieldName = field.getName();
+        this.javaType = field.getType();
+        this.generated = null;
+        this.index = -1;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            this.getter = lookup.unreflectGetter(field).asType(GETTER_TYPE);
+            this.setter = lookup.unreflectSetter(field).asType(SETTER_TYPE);
+            this.primitiveSetter = field.getType().isPrimitive()
+                    ? lookup.unreflectSetter(field).asType(MethodType.methodType(void.class, Object.class, field.getType()))
+                    : null;
+        } catch (IllegalAccessException e) {
+            throw new ReflectDBException(e);
+        }
+        this.columnName = dbField.fieldName();
+        this.columnType = dbField.fieldType();
+        this.notNull = dbField.notNull();
+        this.primaryKey = dbField.primaryKey();
+        this.numeric = isNumericType(dbField.fieldType());
+        this.bool = BOOLEAN.equalsIgnoreCase(dbField.fieldType());
+    }
+
+    /**
+     * Describes property {@code index} of a generated mapper, without reflection.
+     */
+    ReflectDBProperty(ReflectDBGeneratedMapper<?> generated, int index) {
+        this.generated = generated;
+        this.index = index;
+        this.declaringClass = generated.getModelClass();
+        this.fieldName = generated.getFieldNames()[index];
+        this.javaType = generated.getJavaTypes()[index];
+        this.getter = null;
+        this.setter = null;
+        this.primitiveSetter = null;
+        this.columnName = generated.getColumnNames()[index];
+        this.columnType = generated.getColumnTypes()[index];
+        this.notNull = generated.getNotNull()[index];
+        this.primaryKey = generated.getPrimaryKeys()[index];
+        this.numeric = isNumericType(this.columnType);
+        this.bool = BOOLEAN.equalsIgnoreCase(this.columnType);
+    }
+
+    /**
+     * @return The annotated field, looked up on first use for generated mappers.
+     */
+    public Field getField() {
+        Field field = this.field;
+        if (field == null) {
+            try {
+                field = this.declaringClass.getDeclaredField(this.fieldName);
+            } catch (NoSuchFieldException e) {
+                throw new ReflectDBException(e);
+            }
+            this.field = field;
+        }
+        return field;
+    }
+
+    public String getFieldName() { return this.fieldName; }
+    public Class<?> getJavaType() { return this.javaType; }
+    public String getColumnName() { return this.columnName; }
+    public String getColumnType() { return this.columnType; }
+    public boolean getNotNull() { return this.notNull; }
+    public boolean isPrimaryKey() { return this.primaryKey; }
+
+    /**
+     * @return True if the column's SQL type is one of the numeric types.
+     */
+    public boolean isNumeric() { return this.numeric; }
+
+    /**
+     * @return True if the column's SQL type is {@code BOOLEAN}.
+     */
+    public boolean isBoolean() { return this.bool; }
+
+    /**
+     * Reads the value of this property from a model object.
+     * @param obj Instance of the model class.
+     * @return The (possibly boxed) field value.
+     */
+    public Object get(Object obj) {
+        if (this.generated != null) {
+            return this.generated.get(obj, this.index);
+        }
+        try {
+            return (Object) this.getter.invokeExact(obj);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new ReflectDBException(e);
+        }
+    }
+
+    /**
+     * Writes a value to this property of a model object.
+     * @param obj Instance of the model class.
+     * @param value Value to assign, primitives are unboxed.
+     */
+    public void set(Object obj, Object value) {
+        if (this.generated != null) {
+            this.generated.set(obj, this.index, value);
+            return;
+        }
+        try {
+            this.setter.invokeExact(obj, value);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new ReflectDBException(e);
+        }
+    }
+
+    /*
+     * Typed setters for primitive fields. These avoid boxing on the row mapping
+     * path and may only be called when the field has exactly the given type.
+     * Generated mappers map rows themselves, so boxing here is off the hot path.
+     */
+    public void setInt(Object obj, int value) {
+        if (this.generated != null) {
+            this.generated.set(obj, this.index, value);
+            return;
+        }
+        try {
+            this.primitiveSetter.invokeExact(obj, value);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new ReflectDBException(e);
+        }
+    }
+
+    public void setLong(Object obj, long value) {
+        if (this.generated != null) {
+            this.generated.set(obj, this.index, value);
+            return;
+        }
+        try {
+            this.primitiveSetter.invokeExact(obj, value);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new ReflectDBException(e);
+        }
+    }
+
+    public void setDouble(Object obj, double value) {
+        if (this.generated != null) {
+            this.generated.set(obj, this.index, value);
+            return;
+        }
+        try {
+            this.primitiveSetter.invokeExact(obj, value);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new ReflectDBException(e);
+        }
+    }
+
+    public void setFloat(Object obj, float value) {
+        if (this.generated != null) {
+            this.generated.set(obj, this.index, value);
+            return;
+        }
+        try {
+            this.primitiveSetter.invokeExact(obj, value);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new ReflectDBException(e);
+        }
+    }
+
+    public void setShort(Object obj, short value) {
+        if (this.generated != null) {
+            this.generated.set(obj, this.index, value);
+            return;
+        }
+        try {
+            this.primitiveSetter.invokeExact(obj, value);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new ReflectDBException(e);
+        }
+    }
+
+    public void setByte(Object obj, byte value) {
+        if (this.generated != null) {
+            this.generated.set(obj, this.index, value);
+            return;
+        }
+        try {
+            this.primitiveSetter.invokeExact(obj, value);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new ReflectDBException(e);
+        }
+    }
+
+    public void setBoolean(Object obj, boolean value) {
+        if (this.generated != null) {
+            this.generated.set(obj, this.index, value);
+            return;
+        }
+        try {
+            this.primitiveSetter.invokeExact(obj, value);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new ReflectDBException(e);
+        }
+    }
+
+    /**
+     * Checks whether or not a given field type is a numeric
+     * SQL data type.
+     * @param fieldType SQL type declared in {@code ReflectDBField}
+     * @return True if the supplied datatype is a numeric type.
+     */
+    private static boolean isNumericType(String fieldType) {
+        for (String s : NUM_TYPE) {
+            if (fieldType.startsWith(s)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final List<String> NUM_TYPE = Arrays.asList(
+            "SMALLINT",
+            "INTEGER",
+            "BIGINT",
+            "NUMERIC",
+            "DECIMAL",
+            "FLOAT",
+            "REAL",
+            "DOUBLE PRECISION",
+            "DOUBLE",
+            "NUMBER",
+            "INT",
+            "TINYINT"
+    );
+    private static final String BOOLEAN = "BOOLEAN";
+}
@@ -19,9 +19,7 @@ package org.gserve.reflectdb.model;
  */
 
 import org.gserve.reflectdb.ReflectDB;
-import org.gserve.reflectdb.annotations.ReflectDBField;
 
-import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -33,33 +31,34 @@ import java.util.List;
 public class ReflectDBTable {
     private String tableName;
     private List<ReflectDBColumn> columns;
+    private List<ReflectDBTableIndex> indexes;
 
-    private ReflectDBTable(String tableName, List<ReflectDBColumn> columns) {
+    private ReflectDBTable(String tableName, List<ReflectDBColumn> columns, List<ReflectDBTableIndex> indexes) {
         this.tableName = tableName;
         this.columns = columns;
+        this.indexes = indexes;
     }
 
     public String getTableName() { return this.tableName; }
     public List<ReflectDBColumn> getColumns() { return this.columns; }
+    public List<ReflectDBTableIndex> getIndexes() { return this.indexes; }
 
     public static List<ReflectDBTable> findAll() {
         List<ReflectDBTable> tables = new ArrayList<>();
         ReflectDB.getInstance().getConfig().getModelClasses().forEach(clazz -> {
-            org.gserve.reflectdb.annotations.ReflectDBTable table = clazz.getAnnotation(org.gserve.reflectdb.annotations.ReflectDBTable.class);
-            tables.add(new ReflectDBTable(table.tableName(), getColumnsFromTableBean(clazz.getDeclaredFields())));
+            ReflectDBEntity<?> entity = ReflectDBEntity.of(clazz);
+            tables.add(new ReflectDBTable(entity.getTableName(), getColumnsFromEntity(entity), entity.getIndexes()));
         });
         return tables;
     }
 
-    private static List<ReflectDBColumn> getColumnsFromTableBean(Field[] fields) {
+    private static List<ReflectDBColumn> getColumnsFromEntity(ReflectDBEntity<?> entity) {
         List<ReflectDBColumn> columns = new ArrayList<>();
-        for (Field field : fields) {
-            for (ReflectDBField reflectDBField : field.getDeclaredAnnotationsByType(ReflectDBField.class)) {
-                columns.add(new ReflectDBColumn(reflectDBField.fieldName(),
-                        reflectDBField.fieldType(),
-                        reflectDBField.notNull(),
-                        reflectDBField.primaryKey()));
-            }
+        for (ReflectDBProperty prop : entity.getProperties()) {
+            columns.add(new ReflectDBColumn(prop.getColumnName(),
+                    prop.getColumnType(),
+                    prop.getNotNull(),
+                    prop.isPrimaryKey()));
         }
         return columns;
     }
@@ -0,0 +1,43 @@
+package org.gserve.reflectdb.model;
+/*
+ *  Copyright (C) 2026 Dustin K. Redmond
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 59
+ * Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+import java.util.List;
+
+/**
+ * Data structure used internally by ReflectDB to represent a secondary index
+ * declared with {@code ReflectDBIndex}.
+ * @since 10/18/2026 19:30
+ * @author Dustin K. Redmond
+ */
+public class ReflectDBTableIndex {
+    private final String indexName;
+    private final List<String> columnNames;
+    private final boolean unique;
+
+    ReflectDBTableIndex(String indexName, List<String> columnNames, boolean unique) {
+        this.indexName = indexName;
+        this.columnNames = columnNames;
+        this.unique = unique;
+    }
+
+    public String getIndexName() { return this.indexName; }
+    public List<String> getColumnNames() { return this.columnNames; }
+    public boolean isUnique() { return this.unique; }
+}
@@ -0,0 +1,184 @@
+package org.gserve.reflectdb.pool;
+/*
+ *  Copyright (C) 2026 Dustin K. Redmond
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 59
+ * Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A physical connection owned by {@link ReflectDBConnectionPool}, along with the
+ * bookkeeping needed to hand it out and take it back.
+ *
+ * @since 10/18/2026 11:05
+ * @author Dustin K. Redmond
+ */
+final class PooledConnection {
+    private final ReflectDBConnectionPool pool;
+    private final Connection physical;
+    private final boolean defaultAutoCommit;
+    private final boolean defaultReadOnly;
+    private final int defaultIsolation;
+    private final List<Statement> openStatements = new ArrayList<>();
+    private final StatementCache statementCache;
+    private boolean stateChanged = false;
+
+    volatile long lastUsed = System.currentTimeMillis();
+    volatile long borrowedAt;
+    volatile Exception borrowTrace;
+    volatile boolean leakReported;
+
+    PooledConnection(ReflectDBConnectionPool pool, Connection physical, int statementCacheSize) throws SQLException {
+        this.pool = pool;
+        this.physical = physical;
+        this.statementCache = statementCacheSize > 0 ? new StatementCache(pool, statementCacheSize) : null;
+        this.defaultAutoCommit = physical.getAutoCommit();
+        this.defaultReadOnly = physical.isReadOnly();
+        this.defaultIsolation = physical.getTransactionIsolation();
+    }
+
+    Connection getPhysical() { return this.physical; }
+
+    /**
+     * Wraps the physical connection in a proxy whose {@code close()} returns
+     * the connection to the pool. Each borrow gets its own proxy, so a proxy that
+     * has been closed can't be used to reach a connection borrowed by someone else.
+     */
+    Connection newProxy() {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new Handler());
+    }
+
+    /**
+     * Closes statements left open by the borrower and restores the connection
+     * defaults, rolling back any uncommitted work.
+     * @return False if the connection is broken and should be discarded.
+     */
+    boolean reset() {
+        if (this.statementCache != null) {
+            this.statementCache.releaseAll();
+        }
+        for (Statement stmt : this.openStatements) {
+            try {
+                stmt.close();
+            } catch (SQLException ignored) {
+                // The statement is being discarded either way
+            }
+        }
+        this.openStatements.clear();
+        try {
+            if (this.stateChanged) {
+                if (!this.physical.getAutoCommit()) {
+                    this.physical.rollback();
+                }
+                this.physical.setAutoCommit(this.defaultAutoCommit);
+                this.physical.setReadOnly(this.defaultReadOnly);
+                this.physical.setTransactionIsolation(this.defaultIsolation);
+                this.stateChanged = false;
+            }
+            return !this.physical.isClosed();
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    void closePhysical() throws SQLException {
+        if (this.statementCache != null) {
+            this.statementCache.closeAll();
+        }
+        this.physical.close();
+    }
+
+    private void trackStatement(Statement stmt) {
+        // Forget statements the borrower already closed, so long-lived borrows don't grow the list.
+        if (this.openStatements.size() >= 64) {
+            Iterator<Statement> it = this.openStatements.iterator();
+            while (it.hasNext()) {
+                try {
+                    if (it.next().isClosed()) {
+                        it.remove();
+                    }
+                } catch (SQLException e) {
+                    it.remove();
+                }
+            }
+        }
+        this.openStatements.add(stmt);
+    }
+
+    private final class Handler implements InvocationHandler {
+        private boolean closed = false;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            final String name = method.getName();
+            switch (name) {
+                case "close":
+                    if (!this.closed) {
+                        this.closed = true;
+                        pool.release(PooledConnection.this);
+                    }
+                    return null;
+                case "isClosed":
+                    return this.closed || physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled" + physical;
+                default:
+                    break;
+            }
+            if (this.closed) {
+                throw new SQLException("Connection has been returned to the pool.");
+            }
+            if (name.equals("setAutoCommit") || name.equals("setReadOnly")
+                    || name.equals("setTransactionIsolation")) {
+                stateChanged = true;
+            }
+            if (statementCache != null && name.equals("prepareStatement")
+                    && (args.length == 1 || (args.length == 2 && args[1] instanceof Integer))) {
+                final int autoGeneratedKeys = args.length == 2 ? (Integer) args[1] : Statement.NO_GENERATED_KEYS;
+                PreparedStatement cached = statementCache.prepare(physical, (Connection) proxy,
+                        (String) args[0], autoGeneratedKeys);
+                if (cached != null) {
+                    return cached;
+                }
+            }
+            try {
+                Object result = method.invoke(physical, args);
+                if (result instanceof Statement) {
+                    trackStatement((Statement) result);
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
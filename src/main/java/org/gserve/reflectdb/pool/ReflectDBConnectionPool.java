@@ -0,0 +1,314 @@
+package org.gserve.reflectdb.pool;
+/*
+ *  Copyright (C) 2026 Dustin K. Redmond
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 59
+ * Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTimeoutException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Small, dependency-free JDBC connection pool used when a {@code ReflectDBConfig}
+ * is configured with a URL and {@code setPoolEnabled(true)}.
+ * <p>Idle connections are kept in a lock-free deque and handed out most recently
+ * used first, while a {@code Semaphore} bounds the number of open connections.
+ * Connections handed out are proxies, calling {@code close()} returns the
+ * physical connection to the pool.
+ * <p>A background thread evicts connections that have been idle longer than the
+ * idle timeout (down to the minimum size) and reports connections that have been
+ * borrowed for longer than the leak detection threshold.
+ * <p>Each pooled connection may also keep an LRU cache of {@code PreparedStatement}s,
+ * so repeating the same SQL text on a connection skips the prepare round trip.
+ *
+ * @since 10/18/2026 11:05
+ * @author Dustin K. Redmond
+ */
+public class ReflectDBConnectionPool implements DataSource {
+    private static final Logger LOG = Logger.getLogger(ReflectDBConnectionPool.class.getName());
+    // Connections returned more recently than this are not re-validated on borrow.
+    private static final long VALIDATION_BYPASS_MILLIS = 500;
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long acquireTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final long leakDetectionThresholdMillis;
+    private final int validationTimeoutSeconds;
+    private final int statementCacheSize;
+    private final LongAdder statementCacheHits = new LongAdder();
+    private final LongAdder statementCacheMisses = new LongAdder();
+    private final LongAdder statementCacheEvictions = new LongAdder();
+
+    private final ConcurrentLinkedDeque<PooledConnection> idle = new ConcurrentLinkedDeque<>();
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private final Semaphore permits;
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed = false;
+
+    /**
+     * Creates a new pool and opens {@code minSize} connections.
+     * @param url JDBC connection string.
+     * @param username Database user, may be empty for databases such as SQLite.
+     * @param password Database password, may be empty for databases such as SQLite.
+     * @param minSize Number of connections kept open even when idle.
+     * @param maxSize Maximum number of open connections.
+     * @param acquireTimeoutMillis Time to wait for a free connection before failing.
+     * @param idleTimeoutMillis Time after which an idle connection above {@code minSize} is closed.
+     * @param leakDetectionThresholdMillis Time a connection may be borrowed before a leak is reported, 0 disables.
+     * @param validationTimeoutSeconds Timeout passed to {@code Connection.isValid} when borrowing.
+     * @param statementCacheSize Number of {@code PreparedStatement}s cached per connection, 0 disables.
+     * @throws SQLException If the initial connections cannot be opened.
+     */
+    public ReflectDBConnectionPool(String url, String username, String password, int minSize, int maxSize,
+                                   long acquireTimeoutMillis, long idleTimeoutMillis,
+                                   long leakDetectionThresholdMillis, int validationTimeoutSeconds,
+                                   int statementCacheSize) throws SQLException {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException(String.format(
+                    "Invalid pool size, min: %d max: %d", minSize, maxSize));
+        }
+        this.url = url;
+        this.username = username == null ? "" : username;
+        this.password = password == null ? "" : password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.leakDetectionThresholdMillis = leakDetectionThresholdMillis;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize);
+
+        for (int i = 0; i < minSize; i++) {
+            this.idle.offerFirst(openConnection());
+        }
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "ReflectDB-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1000, Math.min(30_000, idleTimeoutMillis / 2));
+        this.housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection from the pool, waiting up to the acquire timeout.
+     * @return A pooled {@code Connection}, close it to return it to the pool.
+     * @throws SQLException If the pool is closed, exhausted, or a connection cannot be opened.
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (this.closed) {
+            throw new SQLException("ReflectDB connection pool has been closed.");
+        }
+        try {
+            if (!this.permits.tryAcquire(this.acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLTimeoutException(String.format(
+                        "Timed out after %d ms waiting for a connection, pool size: %d, active: %d",
+                        this.acquireTimeoutMillis, this.totalConnections.get(), this.borrowed.size()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection.", e);
+        }
+        try {
+            PooledConnection pooled;
+            while ((pooled = this.idle.pollFirst()) != null) {
+                if (isUsable(pooled)) {
+                    break;
+                }
+                destroy(pooled);
+            }
+            if (pooled == null) {
+                pooled = openConnection();
+            }
+            pooled.borrowedAt = System.currentTimeMillis();
+            pooled.borrowTrace = this.leakDetectionThresholdMillis > 0
+                    ? new Exception("Connection borrowed here") : null;
+            pooled.leakReported = false;
+            this.borrowed.add(pooled);
+            return pooled.newProxy();
+        } catch (SQLException | RuntimeException e) {
+            this.permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Pooled connections always use the configured credentials.");
+    }
+
+    /**
+     * Called by a connection proxy when it is closed by the user.
+     */
+    void release(PooledConnection pooled) {
+        this.borrowed.remove(pooled);
+        try {
+            if (this.closed || !pooled.reset()) {
+                destroy(pooled);
+            } else {
+                pooled.lastUsed = System.currentTimeMillis();
+                this.idle.offerFirst(pooled);
+            }
+        } finally {
+            this.permits.release();
+        }
+    }
+
+    /**
+     * Closes all idle connections and stops handing out new connections. Borrowed
+     * connections are closed when they are returned.
+     */
+    public void close() {
+        this.closed = true;
+        this.housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = this.idle.pollFirst()) != null) {
+            destroy(pooled);
+        }
+    }
+
+    public int getTotalConnections() { return this.totalConnections.get(); }
+    public int getIdleConnections() { return this.idle.size(); }
+    public int getActiveConnections() { return this.borrowed.size(); }
+    public int getMinSize() { return this.minSize; }
+    public int getMaxSize() { return this.maxSize; }
+    public boolean isClosed() { return this.closed; }
+
+    public long getStatementCacheHits() { return this.statementCacheHits.sum(); }
+    public long getStatementCacheMisses() { return this.statementCacheMisses.sum(); }
+    public long getStatementCacheEvictions() { return this.statementCacheEvictions.sum(); }
+
+    void recordStatementCacheHit() { this.statementCacheHits.increment(); }
+    void recordStatementCacheMiss() { this.statementCacheMisses.increment(); }
+    void recordStatementCacheEviction() { this.statementCacheEvictions.increment(); }
+
+    private PooledConnection openConnection() throws SQLException {
+        Connection conn;
+        if (this.username.isEmpty() || this.password.isEmpty()) {
+            // SQLite doesn't require these, so only need URL
+            conn = DriverManager.getConnection(this.url);
+        } else {
+            conn = DriverManager.getConnection(this.url, this.username, this.password);
+        }
+        this.totalConnections.incrementAndGet();
+        return new PooledConnection(this, conn, this.statementCacheSize);
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        if (System.currentTimeMillis() - pooled.lastUsed < VALIDATION_BYPASS_MILLIS) {
+            return true;
+        }
+        try {
+            return pooled.getPhysical().isValid(this.validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void destroy(PooledConnection pooled) {
+        this.totalConnections.decrementAndGet();
+        try {
+            pooled.closePhysical();
+        } catch (SQLException e) {
+            LOG.log(Level.FINE, "Exception while closing pooled connection", e);
+        }
+    }
+
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+        if (this.idleTimeoutMillis > 0) {
+            for (PooledConnection pooled : this.idle) {
+                if (this.totalConnections.get() <= this.minSize) {
+                    break;
+                }
+                if (now - pooled.lastUsed > this.idleTimeoutMillis && this.idle.remove(pooled)) {
+                    destroy(pooled);
+                }
+            }
+        }
+        // Top back up to the minimum size, e.g. after connections failed validation.
+        while (!this.closed && this.totalConnections.get() < this.minSize && this.permits.tryAcquire()) {
+            try {
+                PooledConnection pooled = openConnection();
+                pooled.lastUsed = now;
+                this.idle.offerLast(pooled);
+            } catch (SQLException e) {
+                LOG.log(Level.WARNING, "Unable to open connection to maintain minimum pool size", e);
+                break;
+            } finally {
+                this.permits.release();
+            }
+        }
+        if (this.leakDetectionThresholdMillis > 0) {
+            for (PooledConnection pooled : this.borrowed) {
+                if (!pooled.leakReported && now - pooled.borrowedAt > this.leakDetectionThresholdMillis) {
+                    pooled.leakReported = true;
+                    LOG.log(Level.WARNING, String.format("Possible connection leak, connection borrowed for %d ms" +
+                            " without being closed.", now - pooled.borrowedAt), pooled.borrowTrace);
+                }
+            }
+        }
+    }
+
+    @Override
+    public PrintWriter getLogWriter() { return null; }
+
+    @Override
+    public void setLogWriter(PrintWriter out) { }
+
+    @Override
+    public void setLoginTimeout(int seconds) { }
+
+    @Override
+    public int getLoginTimeout() { return 0; }
+
+    @Override
+    public Logger getParentLogger() { return LOG; }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("Not a wrapper for " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) { return iface.isInstance(this); }
+}
@@ -0,0 +1,333 @@
+package org.gserve.reflectdb.pool;
+/*
+ *  Copyright (C) 2026 Dustin K. Redmond
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 59
+ * Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * LRU cache of {@code PreparedStatement}s belonging to one pooled connection.
+ * Like the connection itself, the cache is only ever used by the thread that
+ * currently holds the connection, so it needs no synchronization.
+ * <p>Statements handed out are proxies, calling {@code close()} clears the
+ * parameters, closes the open {@code ResultSet} and puts the statement back in
+ * the cache. Settings such as {@code setMaxRows} or {@code setFetchSize} are
+ * restored to the values the statement was prepared with, and a statement whose
+ * settings can't be restored, e.g. after {@code setQueryTimeout}, is closed
+ * and prepared again on its next use. Results are returned as proxies too, whose
+ * {@code getStatement()} is the statement proxy. A statement that is still checked
+ * out is never handed out twice.
+ *
+ * @since 10/18/2026 12:30
+ * @author Dustin K. Redmond
+ */
+final class StatementCache {
+    // Statement setters whose previous value can be read, and so restored on release. Not the
+    // query timeout, which some drivers (e.g. SQLite) report in other units than they take it in.
+    private static final Set<String> RESTORABLE = new HashSet<>(Arrays.asList("setMaxRows", "setLargeMaxRows",
+            "setFetchSize", "setFetchDirection", "setMaxFieldSize", "setPoolable"));
+
+    private final ReflectDBConnectionPool pool;
+    private final int maxSize;
+    private final LinkedHashMap<String, Entry> entries;
+
+    StatementCache(ReflectDBConnectionPool pool, int maxSize) {
+        this.pool = pool;
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Returns a cached statement for the SQL, preparing and caching it on a miss.
+     * @param physical The physical connection.
+     * @param connectionProxy The proxy returned to the user, for {@code getConnection()}.
+     * @param sql SQL text of the statement.
+     * @param autoGeneratedKeys {@code Statement.RETURN_GENERATED_KEYS} or {@code Statement.NO_GENERATED_KEYS}.
+     * @return A statement proxy, or null if the cached statement is already in use.
+     * @throws SQLException If the statement cannot be prepared.
+     */
+    PreparedStatement prepare(Connection physical, Connection connectionProxy, String sql,
+                              int autoGeneratedKeys) throws SQLException {
+        // Statements returning generated keys are cached apart from plain ones with the same SQL
+        final String key = autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS ? "KEYS:" + sql : sql;
+        Entry entry = this.entries.get(key);
+        if (entry != null && entry.evicted) {
+            // Could not be reset after its last use, prepare it again
+            this.entries.remove(key);
+            entry = null;
+        }
+        if (entry != null) {
+            if (entry.inUse) {
+                // e.g. the same query nested inside an open ResultSet loop
+                this.pool.recordStatementCacheMiss();
+                return null;
+            }
+            this.pool.recordStatementCacheHit();
+        } else {
+            this.pool.recordStatementCacheMiss();
+            entry = new Entry(physical.prepareStatement(sql, autoGeneratedKeys));
+            this.entries.put(key, entry);
+            evict();
+        }
+        entry.inUse = true;
+        return entry.newProxy(connectionProxy);
+    }
+
+    /**
+     * Returns every checked out statement to the cache, used when the connection goes back to the pool.
+     */
+    void releaseAll() {
+        for (Entry entry : new ArrayList<>(this.entries.values())) {
+            if (entry.handler != null) {
+                entry.handler.release();
+            }
+        }
+    }
+
+    void closeAll() {
+        for (Entry entry : this.entries.values()) {
+            entry.closePhysical();
+        }
+        this.entries.clear();
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, Entry>> it = this.entries.entrySet().iterator();
+        while (this.entries.size() > this.maxSize && it.hasNext()) {
+            Entry eldest = it.next().getValue();
+            it.remove();
+            this.pool.recordStatementCacheEviction();
+            if (eldest.inUse) {
+                // Closed for real when the current user is done with it.
+                eldest.evicted = true;
+            } else {
+                eldest.closePhysical();
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final PreparedStatement statement;
+        private final List<ResultSet> openResults = new ArrayList<>();
+        private boolean inUse = false;
+        private boolean evicted = false;
+        // Settings before a borrower first changed any, null until then
+        private Settings defaults;
+        private boolean modified = false;
+        private Handler handler;
+
+        private Entry(PreparedStatement statement) {
+            this.statement = statement;
+        }
+
+        private PreparedStatement newProxy(Connection connectionProxy) {
+            this.handler = new Handler(this, connectionProxy);
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, this.handler);
+        }
+
+        /**
+         * Called before a borrower changes a setting of the statement.
+         */
+        private void changing(String setter) {
+            if (!RESTORABLE.contains(setter)) {
+                this.evicted = true;
+                return;
+            }
+            try {
+                if (this.defaults == null) {
+                    this.defaults = new Settings(this.statement);
+                }
+                this.modified = true;
+            } catch (SQLException e) {
+                this.evicted = true;
+            }
+        }
+
+        private void closePhysical() {
+            try {
+                this.statement.close();
+            } catch (SQLException ignored) {
+                // The statement is being discarded either way
+            }
+        }
+    }
+
+    private static final class Handler implements InvocationHandler {
+        private final Entry entry;
+        private final Connection connectionProxy;
+        private boolean closed = false;
+
+        private Handler(Entry entry, Connection connectionProxy) {
+            this.entry = entry;
+            this.connectionProxy = connectionProxy;
+        }
+
+        private void release() {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+            this.entry.handler = null;
+            for (ResultSet rs : this.entry.openResults) {
+                try {
+                    rs.close();
+                } catch (SQLException ignored) {
+                    // Nothing more can be done with a broken ResultSet
+                }
+            }
+            this.entry.openResults.clear();
+            try {
+                this.entry.statement.clearParameters();
+                this.entry.statement.clearBatch();
+                if (this.entry.modified && !this.entry.evicted) {
+                    this.entry.defaults.restore(this.entry.statement);
+                    this.entry.modified = false;
+                }
+            } catch (SQLException e) {
+                this.entry.evicted = true;
+            }
+            this.entry.inUse = false;
+            if (this.entry.evicted) {
+                this.entry.closePhysical();
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    release();
+                    return null;
+                case "isClosed":
+                    return this.closed;
+                case "getConnection":
+                    return this.connectionProxy;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Cached" + this.entry.statement;
+                default:
+                    break;
+            }
+            if (this.closed) {
+                throw new SQLException("PreparedStatement has been closed.");
+            }
+            if (method.getName().startsWith("execute")) {
+                // Re-executing a statement closes the results of the previous execution.
+                this.entry.openResults.clear();
+            } else if (method.getDeclaringClass() == Statement.class
+                    && (method.getName().startsWith("set") || method.getName().equals("closeOnCompletion"))) {
+                this.entry.changing(method.getName());
+            }
+            try {
+                Object result = method.invoke(this.entry.statement, args);
+                if (result instanceof ResultSet) {
+                    this.entry.openResults.add((ResultSet) result);
+                    return ResultSetHandler.newProxy((ResultSet) result, (PreparedStatement) proxy);
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Wraps a {@code ResultSet} so that {@code getStatement()} returns the statement proxy
+     * rather than the cached physical statement, which must not be closed by its borrower.
+     */
+    private static final class ResultSetHandler implements InvocationHandler {
+        private final ResultSet results;
+        private final PreparedStatement statementProxy;
+
+        private ResultSetHandler(ResultSet results, PreparedStatement statementProxy) {
+            this.results = results;
+            this.statementProxy = statementProxy;
+        }
+
+        private static ResultSet newProxy(ResultSet results, PreparedStatement statementProxy) {
+            return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                    new Class<?>[]{ResultSet.class}, new ResultSetHandler(results, statementProxy));
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "getStatement":
+                    return this.statementProxy;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            try {
+                return method.invoke(this.results, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Settings of a statement that its borrowers may change.
+     */
+    private static final class Settings {
+        private final int maxRows;
+        private final int fetchSize;
+        private final int fetchDirection;
+        private final int maxFieldSize;
+        private final boolean poolable;
+
+        private Settings(Statement statement) throws SQLException {
+            this.maxRows = statement.getMaxRows();
+            this.fetchSize = statement.getFetchSize();
+            this.fetchDirection = statement.getFetchDirection();
+            this.maxFieldSize = statement.getMaxFieldSize();
+            this.poolable = statement.isPoolable();
+        }
+
+        private void restore(Statement statement) throws SQLException {
+            statement.setMaxRows(this.maxRows);
+            statement.setFetchSize(this.fetchSize);
+            statement.setFetchDirection(this.fetchDirection);
+            statement.setMaxFieldSize(this.maxFieldSize);
+            statement.setPoolable(this.poolable);
+        }
+    }
+}
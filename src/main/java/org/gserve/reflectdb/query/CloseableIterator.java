@@ -0,0 +1,36 @@
+package org.gserve.reflectdb.query;
+/*
+ *  Copyright (C) 2026 Dustin K. Redmond
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 59
+ * Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+import java.util.Iterator;
+
+/**
+ * An {@code Iterator} over query results that holds database resources until it
+ * is closed or exhausted. Use it in a try-with-resources block.
+ * @param <T> The ReflectDB type.
+ * @since 10/18/2026 14:40
+ * @author Dustin K. Redmond
+ */
+public interface CloseableIterator<T> extends Iterator<T>, AutoCloseable {
+    /**
+     * Releases the {@code ResultSet}, statement and connection. Calling this more than once has no effect.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,145 @@
+package org.gserve.reflectdb.query;
+/*
+ *  Copyright (C) 2026 Dustin K. Redmond
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 59
+ * Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+import org.gserve.reflectdb.model.ReflectDBEntity;
+import org.gserve.reflectdb.model.ReflectDBProperty;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Remembers the column values model objects had when they were loaded or last
+ * written, so {@code save} can update only the columns that changed since.
+ * <p>Snapshots are keyed by object identity through weak references, so tracking
+ * never keeps a model object alive, and model classes that override
+ * {@code equals}/{@code hashCode} are tracked correctly. A snapshot holds the
+ * same (immutable) references as the object's fields, only {@code byte[]} and
+ * {@code java.util.Date} values are copied.
+ *
+ * @since 10/18/2026 15:45
+ * @author Dustin K. Redmond
+ */
+final class DirtyTracker {
+    private static final ConcurrentMap<Key, Object[]> SNAPSHOTS = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<Object> COLLECTED = new ReferenceQueue<>();
+
+    private DirtyTracker() { }
+
+    /**
+     * Records the current column values of an object, replacing any earlier snapshot.
+     */
+    static void snapshot(ReflectDBEntity<?> entity, Object obj) {
+        expunge();
+        List<ReflectDBProperty> props = entity.getProperties();
+        Object[] values = new Object[props.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = copy(props.get(i).get(obj));
+        }
+        SNAPSHOTS.put(new Key(obj, COLLECTED), values);
+    }
+
+    /**
+     * Compares an object against its snapshot.
+     * @return Indexes (into {@code entity.getProperties()}) of changed non-key columns,
+     * or null if the object has no snapshot.
+     */
+    static BitSet changed(ReflectDBEntity<?> entity, Object obj) {
+        Object[] values = SNAPSHOTS.get(new Key(obj, null));
+        if (values == null) {
+            return null;
+        }
+        List<ReflectDBProperty> props = entity.getProperties();
+        BitSet changed = new BitSet(values.length);
+        for (int i = 0; i < values.length; i++) {
+            ReflectDBProperty prop = props.get(i);
+            if (!prop.isPrimaryKey() && !same(values[i], prop.get(obj))) {
+                changed.set(i);
+            }
+        }
+        return changed;
+    }
+
+    static void forget(Object obj) {
+        SNAPSHOTS.remove(new Key(obj, null));
+    }
+
+    static int size() {
+        expunge();
+        return SNAPSHOTS.size();
+    }
+
+    private static boolean same(Object snapshot, Object current) {
+        if (snapshot instanceof byte[] && current instanceof byte[]) {
+            return Arrays.equals((byte[]) snapshot, (byte[]) current);
+        }
+        return Objects.equals(snapshot, current);
+    }
+
+    static Object copy(Object value) {
+        if (value instanceof byte[]) {
+            return ((byte[]) value).clone();
+        }
+        if (value instanceof java.util.Date) {
+            return ((java.util.Date) value).clone();
+        }
+        return value;
+    }
+
+    private static void expunge() {
+        Reference<?> ref;
+        while ((ref = COLLECTED.poll()) != null) {
+            SNAPSHOTS.remove(ref);
+        }
+    }
+
+    /**
+     * Weak, identity-based map key.
+     */
+    private static final class Key extends WeakReference<Object> {
+        private final int hash;
+
+        private Key(Object referent, ReferenceQueue<Object> queue) {
+            super(referent, queue);
+            this.hash = System.identityHashCode(referent);
+        }
+
+        @Override
+        public int hashCode() { return this.hash; }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Object referent = get();
+            return referent != null && referent == ((Key) o).get();
+        }
+    }
+}
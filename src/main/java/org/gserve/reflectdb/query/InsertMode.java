@@ -0,0 +1,38 @@
+package org.gserve.reflectdb.query;
+/*
+ *  Copyright (C) 2026 Dustin K. Redmond
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 59
+ * Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+/**
+ * How bulk inserts are sent to the database.
+ * @since 10/18/2026 14:05
+ * @author Dustin K. Redmond
+ */
+public enum InsertMode {
+    /**
+     * One single-row INSERT per object, sent with {@code addBatch}/{@code executeBatch}.
+     */
+    BATCH,
+    /**
+     * Many objects packed into each {@code INSERT ... VALUES (...), (...)} statement.
+     * Usually faster on drivers that gain little from JDBC batching, such as SQLite.
+     * The number of rows per statement is limited by the database's bind parameter
+     * and packet size limits.
+     */
+    MULTI_ROW
+}
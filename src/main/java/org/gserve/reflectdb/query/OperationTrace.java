@@ -0,0 +1,289 @@
+package org.gserve.reflectdb.query;
+/*
+ *  Copyright (C) 2026 Dustin K. Redmond
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 59
+ * Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+import org.gserve.reflectdb.ReflectDB;
+import org.gserve.reflectdb.jfr.ReflectDBFlightRecorder;
+import org.gserve.reflectdb.metrics.ReflectDBEvent;
+import org.gserve.reflectdb.metrics.ReflectDBListener;
+import org.gserve.reflectdb.metrics.ReflectDBOperation;
+import org.gserve.reflectdb.model.ReflectDBEntity;
+
+import java.sql.Connection;
+import java.util.List;
+
+/**
+ * Times the phases of one operation and reports them to the registered
+ * {@code ReflectDBListener}s when closed, and to Java Flight Recorder when
+ * {@code ReflectDBConfig.setFlightRecorderEnabled} is on. Each phase method adds the time since the
+ * previous call to its phase, so an operation marks the end of each phase it goes through:
+ * <pre>{@code
+ * try (OperationTrace trace = OperationTrace.start(ReflectDBOperation.FETCH, entity, sql);
+ *      Connection conn = trace.connected(DB.getNativeConnection()); ...) {
+ *     ... trace.prepared(); ... trace.executed(); ... trace.mapped(rows); trace.succeeded();
+ * }
+ * }</pre>
+ * Without listeners or Flight Recorder events, {@link #start} returns a shared instance
+ * whose methods do nothing, so tracing costs a branch per call and no allocation or clock reads.
+ *
+ * @since 10/18/2026 22:00
+ * @author Dustin K. Redmond
+ */
+final class OperationTrace implements AutoCloseable {
+    private static final OperationTrace DISABLED = new OperationTrace(null, null, null, null, null, false);
+
+    private final List<ReflectDBListener> listeners;
+    private final boolean active;
+    private final boolean flightRecorder;
+    private final ReflectDBOperation operation;
+    private Class<?> modelClass;
+    private String tableName;
+    private String sql;
+    // Whether a bulk operation spans several model classes
+    private boolean mixed = false;
+    private final long start;
+    private long mark;
+    private long connectionNanos = 0;
+    private long prepareNanos = 0;
+    private long executeNanos = 0;
+    private long mappingNanos = 0;
+    private long rows = 0;
+    private int statements = 0;
+    private boolean succeeded = false;
+    private boolean cacheHit = false;
+    // Flight Recorder events in progress, null when not recorded. Only ever touched through
+    // ReflectDBFlightRecorder, so tracing doesn't load jdk.jfr while Flight Recorder is off.
+    private final Object queryEvent;
+    private Object mappingEvent;
+    private Object batchEvent;
+    private long mappingEventRows = 0;
+    private long mappingEventNanos = 0;
+
+    private OperationTrace(List<ReflectDBListener> listeners, ReflectDBOperation operation, Class<?> modelClass,
+                           String tableName, String sql, boolean flightRecorder) {
+        this.listeners = listeners;
+        this.active = listeners != null;
+        this.flightRecorder = flightRecorder;
+        this.operation = operation;
+        this.modelClass = modelClass;
+        this.tableName = tableName;
+        this.sql = sql;
+        this.queryEvent = flightRecorder ? ReflectDBFlightRecorder.beginQuery() : null;
+        this.start = this.active ? System.nanoTime() : 0;
+        this.mark = this.start;
+    }
+
+    static OperationTrace start(ReflectDBOperation operation, ReflectDBEntity<?> entity, String sql) {
+        return entity == null ? start(operation, null, null, sql)
+                : start(operation, entity.getModelClass(), entity.getTableName(), sql);
+    }
+
+    static OperationTrace start(ReflectDBOperation operation, Class<?> modelClass, String tableName, String sql) {
+        List<ReflectDBListener> listeners = DB.getConfig().getListeners();
+        final boolean flightRecorder = DB.getConfig().isFlightRecorderEnabled();
+        if (listeners.isEmpty() && !flightRecorder) {
+            return DISABLED;
+        }
+        return new OperationTrace(listeners, operation, modelClass, tableName, sql, flightRecorder);
+    }
+
+    /**
+     * Whether an operation maps rows, i.e. reports row mapping events.
+     */
+    private static boolean reads(ReflectDBOperation operation) {
+        switch (operation) {
+            case FIND_BY_ID:
+            case FETCH:
+            case FETCH_ALL:
+            case FETCH_PAGE:
+            case COUNT:
+            case ITERATE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Records a model class and statement of a bulk operation, started without them.
+     * Operations covering several classes are reported without class, table and SQL.
+     */
+    void describe(ReflectDBEntity<?> entity, String sql) {
+        if (!this.active) {
+            return;
+        }
+        if (this.modelClass == null) {
+            this.modelClass = entity.getModelClass();
+            this.tableName = entity.getTableName();
+            this.sql = sql;
+        } else if (this.modelClass != entity.getModelClass()) {
+            this.mixed = true;
+        }
+    }
+
+    /**
+     * Ends the connection phase.
+     * @return The connection, for use in try-with-resources.
+     */
+    Connection connected(Connection conn) {
+        if (this.active) {
+            this.connectionNanos += lap();
+        }
+        return conn;
+    }
+
+    void prepared() {
+        if (this.active) {
+            this.prepareNanos += lap();
+        }
+    }
+
+    void executed() {
+        if (this.active) {
+            this.executeNanos += lap();
+            this.statements++;
+            if (this.flightRecorder && this.mappingEvent == null && reads(this.operation)) {
+                this.mappingEvent = ReflectDBFlightRecorder.beginMapping();
+            }
+        }
+    }
+
+    /**
+     * Ends a mapping phase that read {@code rows} rows.
+     */
+    void mapped(long rows) {
+        if (this.active) {
+            final long elapsed = lap();
+            this.mappingNanos += elapsed;
+            this.rows += rows;
+            if (this.mappingEvent != null) {
+                this.mappingEventNanos += elapsed;
+                this.mappingEventRows += rows;
+                if (this.operation != ReflectDBOperation.ITERATE) {
+                    commitMapping();
+                } else if (this.mappingEventRows >= ReflectDBFlightRecorder.MAPPING_BATCH_ROWS) {
+                    commitMapping();
+                    this.mappingEvent = ReflectDBFlightRecorder.beginMapping();
+                }
+            }
+        }
+    }
+
+    /**
+     * Marks the start of a batch or multi-row statement being sent, ended by {@link #flushed}.
+     * Call after {@link #prepared()}.
+     */
+    void flushing() {
+        if (this.flightRecorder) {
+            this.batchEvent = ReflectDBFlightRecorder.beginBatch();
+        }
+    }
+
+    /**
+     * Records a batch or multi-row statement of {@code rows} rows that was sent.
+     */
+    void flushed(String tableName, String sql, long rows) {
+        if (this.batchEvent != null) {
+            ReflectDBFlightRecorder.commitBatch(this.batchEvent, tableName, sql, rows);
+            this.batchEvent = null;
+        }
+    }
+
+    /**
+     * Restarts the clock without adding the time since the last phase to any phase,
+     * e.g. to leave out the time an iterator's caller spends between rows.
+     */
+    void resume() {
+        if (this.active) {
+            this.mark = System.nanoTime();
+        }
+    }
+
+    /**
+     * Counts rows affected by a write.
+     */
+    void rows(long rows) {
+        if (this.active) {
+            this.rows += rows;
+        }
+    }
+
+    /**
+     * Ends an operation served from the entity or query cache, which restored {@code rows}
+     * objects without reaching the database.
+     */
+    void cached(long rows) {
+        if (this.active) {
+            this.mappingNanos += lap();
+            this.rows += rows;
+            this.cacheHit = true;
+            this.succeeded = true;
+        }
+    }
+
+    void succeeded() {
+        if (this.active) {
+            this.succeeded = true;
+        }
+    }
+
+    private void commitMapping() {
+        if (this.mappingEvent != null) {
+            ReflectDBFlightRecorder.commitMapping(this.mappingEvent, this.tableName, this.sql,
+                    this.mappingEventRows, this.mappingEventNanos);
+            this.mappingEvent = null;
+            this.mappingEventRows = 0;
+            this.mappingEventNanos = 0;
+        }
+    }
+
+    private long lap() {
+        final long now = System.nanoTime();
+        final long elapsed = now - this.mark;
+        this.mark = now;
+        return elapsed;
+    }
+
+    @Override
+    public void close() {
+        if (!this.active) {
+            return;
+        }
+        final long totalNanos = System.nanoTime() - this.start;
+        if (this.mappingEventRows > 0) {
+            commitMapping();
+        }
+        final boolean recorded = this.queryEvent != null && ReflectDBFlightRecorder.endQuery(this.queryEvent);
+        if (!recorded && this.listeners.isEmpty()) {
+            return;
+        }
+        ReflectDBEvent event = new ReflectDBEvent(this.operation, this.mixed ? null : this.modelClass,
+                this.mixed ? null : this.tableName, this.mixed ? null : this.sql, this.rows, this.statements,
+                this.connectionNanos, this.prepareNanos, this.executeNanos, this.mappingNanos,
+                totalNanos, !this.succeeded, this.cacheHit);
+        if (recorded) {
+            ReflectDBFlightRecorder.commitQuery(this.queryEvent, event);
+        }
+        for (ReflectDBListener listener : this.listeners) {
+            listener.onOperation(event);
+        }
+    }
+
+    private static final ReflectDB DB = ReflectDB.getInstance();
+}
@@ -18,15 +18,10 @@ package org.gserve.reflectdb.query;
  *
  */
 
-import org.gserve.reflectdb.annotations.ReflectDBField;
-
 import java.io.InputStream;
-import java.lang.reflect.Field;
 import java.math.BigDecimal;
 import java.net.URL;
 import java.sql.*;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * @since 12/24/2019 12:37
@@ -35,14 +30,6 @@ import java.util.Map;
 @SuppressWarnings("unused")
 class QueryMapping {
 
-    protected <T> Map<String, String> getFieldColumnMap(Class<T> cl) {
-        HashMap<String, String> map = new HashMap<>();
-        for (Field declaredField : cl.getDeclaredFields()) {
-            map.put(declaredField.getName(), declaredField.getAnnotation(ReflectDBField.class).fieldName());
-        }
-        return map;
-    }
-
     /**
      * Takes in an object, calls the appropriate {@code PreparedStatement} setter
      * based on the objects type.
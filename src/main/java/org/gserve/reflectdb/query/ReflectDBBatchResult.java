@@ -0,0 +1,102 @@
+package org.gserve.reflectdb.query;
+/*
+ *  Copyright (C) 2026 Dustin K. Redmond
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 59
+ * Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a bulk operation such as {@code ReflectDB.insertAll}, with one
+ * entry for every batch sent to the database.
+ * @since 10/18/2026 13:30
+ * @author Dustin K. Redmond
+ */
+public class ReflectDBBatchResult {
+    private final List<Batch> batches = new ArrayList<>();
+
+    void add(String tableName, String sql, int size, int[] updateCounts) {
+        this.batches.add(new Batch(tableName, sql, size, updateCounts));
+    }
+
+    public List<Batch> getBatches() { return Collections.unmodifiableList(this.batches); }
+
+    /**
+     * @return Total number of objects sent to the database.
+     */
+    public int getTotalObjects() {
+        int total = 0;
+        for (Batch batch : this.batches) {
+            total += batch.getSize();
+        }
+        return total;
+    }
+
+    /**
+     * @return Total rows affected across all batches.
+     * @see Batch#getRowsAffected()
+     */
+    public int getRowsAffected() {
+        int total = 0;
+        for (Batch batch : this.batches) {
+            total += batch.getRowsAffected();
+        }
+        return total;
+    }
+
+    /**
+     * One {@code executeBatch} (or multi-row statement) sent to the database.
+     */
+    public static class Batch {
+        private final String tableName;
+        private final String sql;
+        private final int size;
+        private final int[] updateCounts;
+
+        Batch(String tableName, String sql, int size, int[] updateCounts) {
+            this.tableName = tableName;
+            this.sql = sql;
+            this.size = size;
+            this.updateCounts = updateCounts;
+        }
+
+        public String getTableName() { return this.tableName; }
+        public String getSql() { return this.sql; }
+        public int getSize() { return this.size; }
+        public int[] getUpdateCounts() { return this.updateCounts.clone(); }
+
+        /**
+         * Sums the update counts of the batch. Drivers that report
+         * {@code Statement.SUCCESS_NO_INFO} are counted as one row per statement.
+         * @return Rows affected by the batch.
+         */
+        public int getRowsAffected() {
+            int rows = 0;
+            for (int count : this.updateCounts) {
+                if (count > 0) {
+                    rows += count;
+                } else if (count == Statement.SUCCESS_NO_INFO) {
+                    rows++;
+                }
+            }
+            return rows;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package org.gserve.reflectdb.query;
+/*
+ *  Copyright (C) 2026 Dustin K. Redmond
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 59
+ * Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+import org.gserve.reflectdb.model.ReflectDBEntity;
+import org.gserve.reflectdb.model.ReflectDBProperty;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache of the rows {@code ReflectDB.findById} has read for one model class, keyed
+ * by primary key. Enabled per class with {@code ReflectDBConfig.enableEntityCache}.
+ * <p>Entries are evicted least recently used first once the cache is full, and
+ * expire after a time to live. Lookups of ids that don't exist may be cached too.
+ * The cache stores column values rather than objects, so every hit returns a new
+ * object that the caller is free to modify.
+ * <p>{@code insert}, {@code insertAll}, {@code save} and {@code delete} invalidate the
+ * entries they touch, before and again after the write. A write inside a
+ * {@code ReflectDBSession} invalidates its entries once more when the session commits
+ * or rolls back, so rows read by other connections while it was open are not kept.
+ * Lookups inside a session bypass the cache, so the session sees its own writes.
+ * {@code dropTable} clears the cache. Changes made with native SQL are not seen until
+ * an entry expires or {@link #clear()} is called.
+ *
+ * @since 10/18/2026 16:20
+ * @author Dustin K. Redmond
+ */
+public class ReflectDBEntityCache {
+    /** Cached result of a lookup that found no row. */
+    static final Object[] MISS = new Object[0];
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final boolean cacheMisses;
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // Incremented by every invalidation, so a read that raced a write is not cached.
+    private long version = 0;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    /**
+     * @param maxSize Maximum number of cached ids.
+     * @param ttlMillis Time an entry stays valid after it is read from the database, 0 for no expiry.
+     * @param cacheMisses Whether lookups of ids that don't exist are cached as well.
+     */
+    public ReflectDBEntityCache(int maxSize, long ttlMillis, boolean cacheMisses) {
+        if (maxSize < 1 || ttlMillis < 0) {
+            throw new IllegalArgumentException(String.format(
+                    "Invalid entity cache settings, max size: %d ttl: %d", maxSize, ttlMillis));
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.cacheMisses = cacheMisses;
+    }
+
+    /**
+     * @return The cached column values, {@link #MISS} for a cached miss, or null if not cached.
+     */
+    synchronized Object[] get(long id) {
+        Entry entry = this.entries.get(id);
+        if (entry != null && this.ttlNanos > 0 && System.nanoTime() - entry.expiresAt > 0) {
+            this.entries.remove(id);
+            this.expirations.increment();
+            entry = null;
+        }
+        if (entry == null) {
+            this.misses.increment();
+            return null;
+        }
+        this.hits.increment();
+        return entry.values;
+    }
+
+    synchronized long version() {
+        return this.version;
+    }
+
+    /**
+     * Caches the values read for an id, unless the cache was invalidated since {@code version}.
+     * @param values Column values, or null if no row was found.
+     */
+    synchronized void put(long id, Object[] values, long version) {
+        if (version != this.version || (values == null && !this.cacheMisses)) {
+            return;
+        }
+        this.entries.put(id, new Entry(values == null ? MISS : values, System.nanoTime() + this.ttlNanos));
+        Iterator<Map.Entry<Long, Entry>> it = this.entries.entrySet().iterator();
+        while (this.entries.size() > this.maxSize && it.hasNext()) {
+            it.next();
+            it.remove();
+            this.evictions.increment();
+        }
+    }
+
+    synchronized void invalidate(long id) {
+        this.version++;
+        this.entries.remove(id);
+    }
+
+    /**
+     * Drops cached misses, used when rows are inserted with keys generated by the database.
+     */
+    synchronized void invalidateMisses() {
+        this.version++;
+        this.entries.values().removeIf(entry -> entry.values == MISS);
+    }
+
+    /**
+     * Removes every entry, e.g. after changing rows with native SQL.
+     */
+    public synchronized void clear() {
+        this.version++;
+        this.entries.clear();
+    }
+
+    public synchronized int getSize() { return this.entries.size(); }
+    public int getMaxSize() { return this.maxSize; }
+    public long getHits() { return this.hits.sum(); }
+    public long getMisses() { return this.misses.sum(); }
+    public long getEvictions() { return this.evictions.sum(); }
+    public long getExpirations() { return this.expirations.sum(); }
+
+    /**
+     * Copies the column values of an object, in the order of {@code entity.getProperties()}.
+     */
+    static Object[] capture(ReflectDBEntity<?> entity, Object obj) {
+        List<ReflectDBProperty> props = entity.getProperties();
+        Object[] values = new Object[props.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = DirtyTracker.copy(props.get(i).get(obj));
+        }
+        return values;
+    }
+
+    /**
+     * Creates a new object from values returned by {@link #capture(ReflectDBEntity, Object)}.
+     */
+    static <T> T restore(ReflectDBEntity<T> entity, Object[] values) throws ReflectiveOperationException {
+        T obj = entity.newInstance();
+        List<ReflectDBProperty> props = entity.getProperties();
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                props.get(i).set(obj, DirtyTracker.copy(values[i]));
+            }
+        }
+        return obj;
+    }
+
+    private static final class Entry {
+        private final Object[] values;
+        private final long expiresAt;
+
+        private Entry(Object[] values, long expiresAt) {
+            this.values = values;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -19,13 +19,23 @@ package org.gserve.reflectdb.query;
  */
 
 import org.gserve.reflectdb.ReflectDB;
-import org.gserve.reflectdb.annotations.ReflectDBField;
-import org.gserve.reflectdb.annotations.ReflectDBTable;
+import org.gserve.reflectdb.ReflectDBSession;
+import org.gserve.reflectdb.dialect.ReflectDBDialect;
 import org.gserve.reflectdb.exception.ReflectDBException;
+import org.gserve.reflectdb.metrics.ReflectDBOperation;
+import org.gserve.reflectdb.model.ReflectDBEntity;
+import org.gserve.reflectdb.model.ReflectDBProperty;
 
-import java.lang.reflect.Field;
+import java.math.BigDecimal;
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Class for handling generic SQL Queries.
@@ -33,31 +43,33 @@ import java.util.*;
  * @author Dustin K. Redmond
  */
 public class ReflectDBQuery {
+    private static final Object[] NO_PARAMETERS = new Object[0];
 
     public <T> T fetchSingle(String sql, Class<T> modelClass) throws SQLException {
-        final String query = sql + " LIMIT 1";
-        try (Connection conn = DB.getNativeConnection(); PreparedStatement ps = conn.prepareStatement(query)) {
+        final String query = DB.getConfig().getDialect().limit(sql, "1");
+        ReflectDBEntity<T> entity = ReflectDBEntity.of(modelClass);
+        try (OperationTrace trace = OperationTrace.start(ReflectDBOperation.FETCH, entity, query);
+             Connection conn = trace.connected(DB.getNativeConnection()); PreparedStatement ps = conn.prepareStatement(query)) {
+            trace.prepared();
             ResultSet rs = ps.executeQuery();
+            trace.executed();
             if (rs.getType() == rs.TYPE_FORWARD_ONLY && rs.isBeforeFirst()) {
                 // Must advance ResultSet if it's before first row.
                 if (rs.isClosed() || !rs.next()) {
+                    trace.succeeded();
                     return null;
                 }
             }
             if (rs.isClosed()) {
+                trace.succeeded();
                 return null;
             }
             if (rs.isBeforeFirst()) {
                 rs.next();
             }
-            T obj = modelClass.getConstructor().newInstance();
-            for (Map.Entry<String, String> entry : MAPPING.getFieldColumnMap(modelClass).entrySet()) {
-                String fieldName = entry.getKey();
-                String dbColumn = entry.getValue();
-                Field f = obj.getClass().getDeclaredField(fieldName);
-                f.setAccessible(true);
-                f.set(obj, rs.getObject(dbColumn));
-            }
+            T obj = track(entity, RowMapper.of(entity, rs).map(rs));
+            trace.mapped(1);
+            trace.succeeded();
             return obj;
         } catch (SQLException e) {
             throw e;
@@ -71,37 +83,64 @@ public class ReflectDBQuery {
 
 
     public <T> T findById(long id, Class<T> modelClass) throws SQLException {
-        String tableName = modelClass.getDeclaredAnnotation(ReflectDBTable.class).tableName();
-        String primaryKey = "";
-        for (Field f: modelClass.getDeclaredFields()) {
-            ReflectDBField rField = f.getAnnotation(ReflectDBField.class);
-            if (rField.primaryKey()) {
-                primaryKey = rField.fieldName();
-            }
-        }
-        if (primaryKey.isEmpty() || primaryKey.trim().isEmpty()) {
+        ReflectDBEntity<T> entity = ReflectDBEntity.of(modelClass);
+        if (entity.getPrimaryKeyCount() == 0) {
             throw new ReflectDBException("Table must specify a primary key.");
         }
-        final String sql = "SELECT * FROM " + tableName + " WHERE " + primaryKey + " = " + id;
-        try (Connection conn = DB.getNativeConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
-            ResultSet rs = ps.executeQuery();
-            if (rs.isClosed() || rs.isBeforeFirst()){
-                if (!rs.next()) {
+        entity.requirePrimaryKey();
+        final String sql = SqlTemplates.of(entity).findById;
+        // A session reads its own uncommitted writes, which the cache may not reflect yet
+        final ReflectDBEntityCache cache = DB.getCurrentSession() == null
+                ? DB.getConfig().getEntityCache(modelClass) : null;
+        long version = 0;
+        try (OperationTrace trace = OperationTrace.start(ReflectDBOperation.FIND_BY_ID, entity, sql)) {
+            if (cache != null) {
+                version = cache.version();
+                Object[] values = cache.get(id);
+                if (values == ReflectDBEntityCache.MISS) {
+                    trace.cached(0);
                     return null;
+                } else if (values != null) {
+                    try {
+                        T obj = track(entity, ReflectDBEntityCache.restore(entity, values));
+                        trace.cached(1);
+                        return obj;
+                    } catch (ReflectiveOperationException e) {
+                        throw new ReflectDBException(e.getMessage(), e);
+                    }
                 }
             }
-            T obj = modelClass.getConstructor().newInstance();
-            for (Map.Entry<String, String> entry : MAPPING.getFieldColumnMap(modelClass).entrySet()) {
-                Field f = obj.getClass().getDeclaredField(entry.getKey());
-                f.setAccessible(true);
-                f.set(obj, rs.getObject(entry.getValue()));
+            try (Connection conn = trace.connected(DB.getNativeConnection()); PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setLong(1, id);
+                trace.prepared();
+                ResultSet rs = ps.executeQuery();
+                trace.executed();
+                // Rows read inside an open transaction may never be committed, so they aren't cached
+                final boolean cacheable = cache != null && conn.getAutoCommit();
+                if (rs.isClosed() || rs.isBeforeFirst()){
+                    if (!rs.next()) {
+                        if (cacheable) {
+                            cache.put(id, null, version);
+                        }
+                        trace.succeeded();
+                        return null;
+                    }
+                }
+                T obj = RowMapper.of(entity, rs).map(rs);
+                trace.mapped(1);
+                if (cacheable) {
+                    cache.put(id, ReflectDBEntityCache.capture(entity, obj), version);
+                }
+                trace.succeeded();
+                return track(entity, obj);
             }
-            return obj;
         } catch (SQLException e) {
             if (!"Current position is before the first row".equals(e.getMessage())) {
                 throw e;
             }
             return null;
+        } catch (ReflectDBException e) {
+            throw e;
         } catch (NoSuchMethodException e) {
             throw new ReflectDBException(String.format("Model Class: %s must declare a no-argument constructor." +
                     " E.g. public MyClassName() { super(); }", modelClass.getName()));
@@ -111,21 +150,79 @@ public class ReflectDBQuery {
     }
 
     public <T> List<T> fetch(String sql, Class<T> modelClass) throws SQLException {
+        return fetch(sql, modelClass, NO_PARAMETERS);
+    }
+
+    /**
+     * Executes a parameterized query, binding {@code params} to its {@code ?} placeholders
+     * in order. Since the SQL text does not change with the values, the statement is
+     * reused by the driver and the pool's statement cache.
+     * @param sql SQL query with {@code ?} placeholders.
+     * @param modelClass Class of the objects to return.
+     * @param params Values of the placeholders.
+     * @param <T> Type of the objects being returned.
+     * @return One object per row.
+     * @throws SQLException If the query fails.
+     */
+    public <T> List<T> fetch(String sql, Class<T> modelClass, Object... params) throws SQLException {
+        return fetch(ReflectDBOperation.FETCH, sql, modelClass, params);
+    }
+
+    private <T> List<T> fetch(ReflectDBOperation operation, String sql, Class<T> modelClass,
+                              Object... params) throws SQLException {
         List<T> objList = new ArrayList<>();
-        try (Connection conn = DB.getNativeConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
-            ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                T obj = modelClass.getConstructor().newInstance();
-                for (Map.Entry<String, String> entry : MAPPING.getFieldColumnMap(modelClass).entrySet()) {
-                    Field f = obj.getClass().getDeclaredField(entry.getKey());
-                    f.setAccessible(true);
-                    f.set(obj, rs.getObject(entry.getValue()));
+        ReflectDBEntity<T> entity = ReflectDBEntity.of(modelClass);
+        // A session reads its own uncommitted writes, which the cache may not reflect yet
+        final ReflectDBQueryCache cache = DB.getCurrentSession() == null ? DB.getConfig().getQueryCache() : null;
+        ReflectDBQueryCache.Key key = null;
+        long version = 0;
+        try (OperationTrace trace = OperationTrace.start(operation, entity, sql)) {
+            if (cache != null) {
+                key = ReflectDBQueryCache.key(modelClass, sql, params);
+                version = cache.version();
+                List<Object[]> rows = cache.get(key);
+                if (rows != null) {
+                    try {
+                        for (Object[] values : rows) {
+                            objList.add(track(entity, ReflectDBEntityCache.restore(entity, values)));
+                        }
+                    } catch (ReflectiveOperationException e) {
+                        throw new ReflectDBException(e.getMessage(), e);
+                    }
+                    trace.cached(objList.size());
+                    return objList;
                 }
-                objList.add(obj);
             }
-            return objList;
+            try (Connection conn = trace.connected(DB.getNativeConnection()); PreparedStatement ps = conn.prepareStatement(sql)) {
+                bindParameters(ps, params);
+                trace.prepared();
+                ResultSet rs = ps.executeQuery();
+                trace.executed();
+                RowMapper<T> mapper = RowMapper.of(entity, rs);
+                final boolean track = isDirtyTracking();
+                while (rs.next()) {
+                    T obj = mapper.map(rs);
+                    if (track) {
+                        DirtyTracker.snapshot(entity, obj);
+                    }
+                    objList.add(obj);
+                }
+                trace.mapped(objList.size());
+                // Rows read inside an open transaction may never be committed, so they aren't cached
+                if (cache != null && conn.getAutoCommit()) {
+                    List<Object[]> rows = new ArrayList<>(objList.size());
+                    for (T obj : objList) {
+                        rows.add(ReflectDBEntityCache.capture(entity, obj));
+                    }
+                    cache.put(key, rows, version);
+                }
+                trace.succeeded();
+                return objList;
+            }
         } catch (SQLException e) {
             throw e;
+        } catch (ReflectDBException e) {
+            throw e;
         } catch (NoSuchMethodException e) {
             throw new ReflectDBException(String.format("Model class: %s must declare a no-argument constructor." +
                     "E.g. public MyClassName() { super(); }", modelClass.getName()));
@@ -134,6 +231,74 @@ public class ReflectDBQuery {
         }
     }
 
+    /**
+     * Executes a query and returns an iterator that maps one row at a time. The
+     * connection and {@code ResultSet} stay open until the iterator is exhausted or closed.
+     * @param sql SQL query
+     * @param modelClass Class of the objects to return.
+     * @param fetchSize Rows the driver should fetch per round trip, 0 for the driver default.
+     *                  MySQL and MariaDB stream rows one by one with {@code Integer.MIN_VALUE}.
+     * @param <T> Type of the objects being returned.
+     * @return An open iterator, close it when done.
+     * @throws SQLException If the query fails.
+     */
+    public <T> CloseableIterator<T> iterate(String sql, Class<T> modelClass, int fetchSize) throws SQLException {
+        ReflectDBEntity<T> entity = ReflectDBEntity.of(modelClass);
+        OperationTrace trace = OperationTrace.start(ReflectDBOperation.ITERATE, entity, sql);
+        Connection conn;
+        try {
+            conn = trace.connected(DB.getNativeConnection());
+        } catch (SQLException | RuntimeException e) {
+            trace.close();
+            throw e;
+        }
+        PreparedStatement ps = null;
+        try {
+            ps = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            if (fetchSize != 0) {
+                ps.setFetchSize(fetchSize);
+            }
+            trace.prepared();
+            ResultSet rs = ps.executeQuery();
+            trace.executed();
+            return new ResultSetIterator<>(conn, ps, rs, RowMapper.of(entity, rs), isDirtyTracking() ? entity : null,
+                    trace);
+        } catch (SQLException | RuntimeException e) {
+            try {
+                if (ps != null) {
+                    ps.close();
+                }
+                conn.close();
+            } finally {
+                trace.close();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Executes a query and returns a sequential {@code Stream} whose elements are
+     * mapped lazily, so memory use does not grow with the size of the result.
+     * The stream must be closed (e.g. try-with-resources) unless it is fully consumed.
+     * @param sql SQL query
+     * @param modelClass Class of the objects to return.
+     * @param fetchSize Rows the driver should fetch per round trip, 0 for the driver default.
+     * @param <T> Type of the objects being returned.
+     * @return A lazily mapped stream of objects.
+     * @throws SQLException If the query fails.
+     */
+    public <T> Stream<T> stream(String sql, Class<T> modelClass, int fetchSize) throws SQLException {
+        CloseableIterator<T> it = iterate(sql, modelClass, fetchSize);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(it,
+                Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(it::close);
+    }
+
+    public <T> Stream<T> streamAll(Class<T> modelClass, int fetchSize) throws SQLException {
+        ReflectDBEntity<T> entity = ReflectDBEntity.of(modelClass);
+        entity.requireTableName();
+        return stream(SqlTemplates.of(entity).selectAll, modelClass, fetchSize);
+    }
+
     /**
      * Insert and save a new object in the database.
      * @param obj Object to save in the database. (class must be annotated)
@@ -141,43 +306,521 @@ public class ReflectDBQuery {
      * @throws SQLException if the INSERT SQL causes an exception.
      */
     public boolean insert(Object obj) throws SQLException {
+        ReflectDBEntity<?> entity = ReflectDBEntity.of(obj.getClass());
+        SqlTemplates templates = SqlTemplates.of(entity);
+        // If user defines a primary key in their object, then let it persist
+        // otherwise don't default to default value of 0
+        final boolean withKey = hasPrimaryKeyValue(entity, obj);
+        final String sql = withKey ? templates.insert : templates.insertGeneratedKey;
+        invalidate(entity, obj);
+        if (withKey) {
+            try (OperationTrace trace = OperationTrace.start(ReflectDBOperation.INSERT, entity, sql);
+                 Connection conn = trace.connected(DB.getNativeConnection()); PreparedStatement ps = conn.prepareStatement(sql)) {
+                bind(ps, templates.insertProperties, obj);
+                trace.prepared();
+                final int count = ps.executeUpdate();
+                trace.executed();
+                trace.rows(count);
+                if (count > 0) {
+                    track(entity, obj);
+                }
+                written(entity, obj);
+                trace.succeeded();
+                return count > 0;
+            }
+        }
+        try (OperationTrace trace = OperationTrace.start(ReflectDBOperation.INSERT, entity, sql);
+             Connection conn = trace.connected(DB.getNativeConnection());
+             PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            bind(ps, templates.insertGeneratedKeyProperties, obj);
+            trace.prepared();
+            final int count = ps.executeUpdate();
+            trace.executed();
+            trace.rows(count);
+            if (count > 0) {
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    if (keys.next()) {
+                        setGeneratedKey(entity.getPrimaryKey(), obj, keys);
+                        track(entity, obj);
+                    }
+                }
+                trace.mapped(0);
+            }
+            written(entity, obj);
+            trace.succeeded();
+            return count > 0;
+        }
+    }
 
-        StringBuilder query = new StringBuilder("INSERT INTO ");
-        query.append(obj.getClass().getAnnotation(ReflectDBTable.class).tableName())
-                .append(" (");
-        StringJoiner columnNames = new StringJoiner(", ");
-        StringJoiner values = new StringJoiner(", ");
-        for (Map.Entry<String,String> entry: MAPPING.getFieldColumnMap(obj.getClass()).entrySet()) {
-            try {
-                Field f = obj.getClass().getDeclaredField(entry.getKey());
-                f.setAccessible(true);
-                // If user defines a primary key in their object, then let it persist
-                // otherwise don't default to default value of 0
-                if (!isPrimaryKey(f) || isPrimaryKey(f) && f.getDouble(obj) > 0) {
-                    columnNames.add(entry.getValue());
-                    if (isNumericType(f)) {
-                        values.add(f.get(obj).toString());
-                    } else if (BOOLEAN.equalsIgnoreCase(f.getAnnotation(ReflectDBField.class).fieldType())) {
-                        boolean insert = f.getBoolean(obj);
-                        values.add(String.valueOf(insert ? 1:0));
+    /**
+     * Inserts many objects using JDBC batching, inside a single transaction.
+     * @param objects Objects to insert, may be of different model classes.
+     * @param batchSize Maximum number of rows per {@code executeBatch}.
+     * @return Results of every batch sent to the database.
+     * @throws SQLException if any INSERT causes an exception.
+     * @see #insertAll(Collection, int, InsertMode)
+     */
+    public ReflectDBBatchResult insertAll(Collection<?> objects, int batchSize) throws SQLException {
+        return insertAll(objects, batchSize, InsertMode.BATCH);
+    }
+
+    /**
+     * Inserts many objects inside a single transaction.
+     * Objects are grouped by their INSERT statement (i.e. by table, and whether the
+     * primary key is supplied), and each group is sent in chunks of at most
+     * {@code batchSize} rows, either as a JDBC batch or as multi-row INSERT statements.
+     * If any chunk fails the whole insert is rolled back. When the connection is
+     * already in a transaction, the insert becomes part of it and is not committed here.
+     * @param objects Objects to insert, may be of different model classes.
+     * @param batchSize Maximum number of rows per batch or statement.
+     * @param mode How rows are sent to the database.
+     * @return Results of every batch sent to the database.
+     * @throws SQLException if any INSERT causes an exception.
+     */
+    public ReflectDBBatchResult insertAll(Collection<?> objects, int batchSize, InsertMode mode) throws SQLException {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1, was: " + batchSize);
+        }
+        ReflectDBBatchResult result = new ReflectDBBatchResult();
+        try (OperationTrace trace = OperationTrace.start(ReflectDBOperation.INSERT_ALL, null, null, null);
+             Connection conn = trace.connected(DB.getNativeConnection())) {
+            inTransaction(conn, () -> insertGroups(conn, objects, batchSize, mode, result, trace));
+            trace.succeeded();
+        }
+        writtenAll(objects);
+        return result;
+    }
+
+    @FunctionalInterface
+    private interface SqlWork {
+        void run() throws SQLException;
+    }
+
+    /**
+     * Runs work in a transaction on the connection, unless the connection is already
+     * in a caller's transaction (e.g. a ReflectDBSession), in which case the caller commits.
+     */
+    private static void inTransaction(Connection conn, SqlWork work) throws SQLException {
+        final boolean autoCommit = conn.getAutoCommit();
+        if (autoCommit) {
+            conn.setAutoCommit(false);
+        }
+        try {
+            work.run();
+            if (autoCommit) {
+                conn.commit();
+            }
+        } catch (SQLException | RuntimeException e) {
+            if (autoCommit) {
+                conn.rollback();
+            }
+            throw e;
+        } finally {
+            if (autoCommit) {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    private void insertGroups(Connection conn, Collection<?> objects, int batchSize, InsertMode mode,
+                              ReflectDBBatchResult result, OperationTrace trace) throws SQLException {
+        Map<String, List<Object>> groups = new LinkedHashMap<>();
+        Map<String, ReflectDBProperty[]> groupProperties = new HashMap<>();
+        Map<String, String> groupTables = new HashMap<>();
+        // Primary key to populate for groups inserted without one
+        Map<String, ReflectDBProperty> groupGeneratedKeys = new HashMap<>();
+        for (Object obj : objects) {
+            ReflectDBEntity<?> entity = ReflectDBEntity.of(obj.getClass());
+            SqlTemplates templates = SqlTemplates.of(entity);
+            final boolean withKey = hasPrimaryKeyValue(entity, obj);
+            final String sql = withKey ? templates.insert : templates.insertGeneratedKey;
+            invalidate(entity, obj);
+            trace.describe(entity, sql);
+            groups.computeIfAbsent(sql, k -> new ArrayList<>()).add(obj);
+            groupProperties.putIfAbsent(sql, withKey ? templates.insertProperties : templates.insertGeneratedKeyProperties);
+            groupTables.putIfAbsent(sql, entity.getTableName());
+            if (!withKey) {
+                groupGeneratedKeys.putIfAbsent(sql, entity.getPrimaryKey());
+            }
+        }
+        for (Map.Entry<String, List<Object>> group : groups.entrySet()) {
+            final String sql = group.getKey();
+            final ReflectDBProperty generatedKey = groupGeneratedKeys.get(sql);
+            if (generatedKey != null && !returnsBatchKeys() && !(derivesBatchKeys() && isIntegral(generatedKey))) {
+                // Keys that can be neither read nor derived per row, e.g. text keys on SQLite
+                insertEach(conn, sql, groupProperties.get(sql), group.getValue(),
+                        groupTables.get(sql), batchSize, generatedKey, result, trace);
+            } else if (mode == InsertMode.MULTI_ROW) {
+                insertMultiRow(conn, sql, groupProperties.get(sql), group.getValue(),
+                        groupTables.get(sql), batchSize, generatedKey, result, trace);
+            } else {
+                insertBatch(conn, sql, groupProperties.get(sql), group.getValue(),
+                        groupTables.get(sql), batchSize, generatedKey, result, trace);
+            }
+        }
+    }
+
+    /**
+     * Inserts an object, or updates every column of the existing row with the same
+     * primary key, in one statement: {@code INSERT ... ON CONFLICT DO UPDATE} on SQLite
+     * 3.24+ and {@code INSERT ... ON DUPLICATE KEY UPDATE} on MySQL and MariaDB.
+     * Objects without a primary key value are inserted, with a generated key.
+     * @param obj Object to insert or update.
+     * @return True if a row was inserted or changed.
+     * @throws SQLException If the statement fails.
+     */
+    public boolean upsert(Object obj) throws SQLException {
+        ReflectDBEntity<?> entity = ReflectDBEntity.of(obj.getClass());
+        entity.requirePrimaryKey();
+        if (!hasPrimaryKeyValue(entity, obj)) {
+            return insert(obj);
+        }
+        SqlTemplates templates = SqlTemplates.of(entity);
+        invalidate(entity, obj);
+        boolean changed;
+        final String upsert = templates.upsert();
+        try (OperationTrace trace = OperationTrace.start(ReflectDBOperation.UPSERT, entity,
+                upsert == null ? templates.update : upsert);
+             Connection conn = trace.connected(DB.getNativeConnection())) {
+            if (upsert == null) {
+                final boolean[] updated = new boolean[1];
+                inTransaction(conn, () -> updated[0] = updateThenInsert(conn, templates, obj, trace) > 0);
+                changed = updated[0];
+            } else {
+                try (PreparedStatement ps = conn.prepareStatement(upsert)) {
+                    bind(ps, templates.insertProperties, obj);
+                    trace.prepared();
+                    final int count = ps.executeUpdate();
+                    trace.executed();
+                    trace.rows(count);
+                    changed = count > 0;
+                }
+            }
+            trace.succeeded();
+        }
+        track(entity, obj);
+        written(entity, obj);
+        return changed;
+    }
+
+    /**
+     * Upserts many objects inside a single transaction, sending them in JDBC batches
+     * of at most {@code batchSize} rows per table, see {@link #upsert(Object)}.
+     * @param objects Objects to insert or update, may be of different model classes.
+     * @param batchSize Maximum number of rows per batch.
+     * @return Results of every batch sent to the database.
+     * @throws SQLException If any statement fails, in which case nothing is written.
+     */
+    public ReflectDBBatchResult upsertAll(Collection<?> objects, int batchSize) throws SQLException {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1, was: " + batchSize);
+        }
+        Map<ReflectDBEntity<?>, List<Object>> groups = new LinkedHashMap<>();
+        List<Object> withoutKey = new ArrayList<>();
+        for (Object obj : objects) {
+            ReflectDBEntity<?> entity = ReflectDBEntity.of(obj.getClass());
+            entity.requirePrimaryKey();
+            if (hasPrimaryKeyValue(entity, obj)) {
+                invalidate(entity, obj);
+                groups.computeIfAbsent(entity, e -> new ArrayList<>()).add(obj);
+            } else {
+                withoutKey.add(obj);
+            }
+        }
+        ReflectDBBatchResult result = new ReflectDBBatchResult();
+        try (OperationTrace trace = OperationTrace.start(ReflectDBOperation.UPSERT_ALL, null, null, null);
+             Connection conn = trace.connected(DB.getNativeConnection())) {
+            inTransaction(conn, () -> {
+                for (Map.Entry<ReflectDBEntity<?>, List<Object>> group : groups.entrySet()) {
+                    SqlTemplates templates = SqlTemplates.of(group.getKey());
+                    final String table = group.getKey().getTableName();
+                    final String upsert = templates.upsert();
+                    trace.describe(group.getKey(), upsert == null ? templates.update : upsert);
+                    if (upsert == null) {
+                        int[] counts = new int[group.getValue().size()];
+                        for (int i = 0; i < counts.length; i++) {
+                            counts[i] = updateThenInsert(conn, templates, group.getValue().get(i), trace);
+                        }
+                        result.add(table, templates.update, counts.length, counts);
                     } else {
-                        if (f.get(obj) != null) {
-                            values.add("\"" + f.get(obj).toString() + "\"");
-                        } else {
-                            values.add("''");
+                        insertBatch(conn, upsert, templates.insertProperties, group.getValue(),
+                                table, batchSize, null, result, trace);
+                    }
+                }
+                insertGroups(conn, withoutKey, batchSize, InsertMode.BATCH, result, trace);
+            });
+            trace.succeeded();
+        }
+        writtenAll(objects);
+        return result;
+    }
+
+    /**
+     * Portable upsert for databases without native syntax. Not atomic on its own,
+     * callers run it inside a transaction.
+     */
+    private int updateThenInsert(Connection conn, SqlTemplates templates, Object obj,
+                                 OperationTrace trace) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(templates.update)) {
+            bind(ps, templates.updateProperties, obj);
+            trace.prepared();
+            int updated = ps.executeUpdate();
+            trace.executed();
+            if (updated > 0) {
+                trace.rows(updated);
+                return updated;
+            }
+        }
+        try (PreparedStatement ps = conn.prepareStatement(templates.insert)) {
+            bind(ps, templates.insertProperties, obj);
+            trace.prepared();
+            final int inserted = ps.executeUpdate();
+            trace.executed();
+            trace.rows(inserted);
+            return inserted;
+        }
+    }
+
+    private void insertBatch(Connection conn, String sql, ReflectDBProperty[] props, List<Object> objects,
+                             String tableName, int batchSize, ReflectDBProperty generatedKey,
+                             ReflectDBBatchResult result, OperationTrace trace) throws SQLException {
+        try (PreparedStatement ps = prepareInsert(conn, sql, generatedKey)) {
+            int pending = 0;
+            int offset = 0;
+            for (Object obj : objects) {
+                bind(ps, props, obj);
+                ps.addBatch();
+                if (++pending == batchSize) {
+                    offset = executeBatch(ps, sql, tableName, generatedKey, objects, offset, pending, result, trace);
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                executeBatch(ps, sql, tableName, generatedKey, objects, offset, pending, result, trace);
+            }
+        }
+    }
+
+    /**
+     * Sends the {@code pending} rows added to a batch and copies their generated keys.
+     * @return The offset of the next object to receive a key.
+     */
+    private static int executeBatch(PreparedStatement ps, String sql, String tableName, ReflectDBProperty generatedKey,
+                                    List<Object> objects, int offset, int pending, ReflectDBBatchResult result,
+                                    OperationTrace trace) throws SQLException {
+        trace.prepared();
+        trace.flushing();
+        result.add(tableName, sql, pending, ps.executeBatch());
+        trace.executed();
+        trace.flushed(tableName, sql, pending);
+        trace.rows(pending);
+        final int next = assignGeneratedKeys(ps, generatedKey, objects, offset, pending);
+        if (generatedKey != null) {
+            trace.mapped(0);
+        }
+        return next;
+    }
+
+    /**
+     * Inserts objects one statement at a time inside the surrounding transaction, for
+     * drivers that only report the last generated key of a batch (i.e. SQLite).
+     */
+    private void insertEach(Connection conn, String sql, ReflectDBProperty[] props, List<Object> objects,
+                            String tableName, int batchSize, ReflectDBProperty generatedKey,
+                            ReflectDBBatchResult result, OperationTrace trace) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (int offset = 0; offset < objects.size(); offset += batchSize) {
+                int[] counts = new int[Math.min(batchSize, objects.size() - offset)];
+                for (int i = 0; i < counts.length; i++) {
+                    Object obj = objects.get(offset + i);
+                    bind(ps, props, obj);
+                    trace.prepared();
+                    counts[i] = ps.executeUpdate();
+                    trace.executed();
+                    trace.rows(counts[i]);
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        if (keys.next()) {
+                            setGeneratedKey(generatedKey, obj, keys);
                         }
                     }
+                    trace.mapped(0);
+                }
+                result.add(tableName, sql, counts.length, counts);
+            }
+        }
+    }
+
+    private static PreparedStatement prepareInsert(Connection conn, String sql,
+                                                   ReflectDBProperty generatedKey) throws SQLException {
+        return generatedKey == null ? conn.prepareStatement(sql)
+                : conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+    }
+
+    /**
+     * Copies the keys generated for the last {@code count} rows sent into their objects.
+     * @return The offset of the next object to receive a key.
+     */
+    private static int assignGeneratedKeys(PreparedStatement ps, ReflectDBProperty generatedKey, List<Object> objects,
+                                           int offset, int count) throws SQLException {
+        if (generatedKey == null) {
+            return offset + count;
+        }
+        if (!returnsBatchKeys()) {
+            // Only the last row's key is reported, the rows before it got the keys just below it
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                if (keys.next()) {
+                    final long last = keys.getLong(1);
+                    for (int i = 0; i < count; i++) {
+                        setGeneratedKey(generatedKey, objects.get(offset + i), last - count + 1 + i);
+                    }
+                }
+            }
+            return offset + count;
+        }
+        try (ResultSet keys = ps.getGeneratedKeys()) {
+            for (int i = offset; i < offset + count && keys.next(); i++) {
+                setGeneratedKey(generatedKey, objects.get(i), keys);
+            }
+        }
+        return offset + count;
+    }
+
+    /**
+     * Whether the driver reports a generated key for every row of a batch or multi-row
+     * INSERT. SQLite only reports the last one.
+     */
+    private static boolean returnsBatchKeys() {
+        return DB.getConfig().getDialect().returnsBatchGeneratedKeys();
+    }
+
+    private static boolean derivesBatchKeys() {
+        return DB.getConfig().getDialect().derivesBatchGeneratedKeys();
+    }
+
+    private static boolean isIntegral(ReflectDBProperty key) {
+        final Class<?> type = key.getJavaType();
+        return type == int.class || type == long.class || type == short.class
+                || type == Integer.class || type == Long.class || type == Short.class;
+    }
+
+    /**
+     * Sets a derived key, see {@link #isIntegral(ReflectDBProperty)} for the supported types.
+     */
+    private static void setGeneratedKey(ReflectDBProperty key, Object obj, long value) {
+        final Class<?> type = key.getJavaType();
+        if (type == int.class) {
+            key.setInt(obj, (int) value);
+        } else if (type == long.class) {
+            key.setLong(obj, value);
+        } else if (type == short.class) {
+            key.setShort(obj, (short) value);
+        } else if (type == Integer.class) {
+            key.set(obj, (int) value);
+        } else if (type == Long.class) {
+            key.set(obj, value);
+        } else {
+            key.set(obj, (short) value);
+        }
+    }
+
+    private static void setGeneratedKey(ReflectDBProperty key, Object obj, ResultSet keys) throws SQLException {
+        final Class<?> type = key.getJavaType();
+        if (type == int.class) {
+            key.setInt(obj, keys.getInt(1));
+        } else if (type == long.class) {
+            key.setLong(obj, keys.getLong(1));
+        } else if (type == short.class) {
+            key.setShort(obj, keys.getShort(1));
+        } else if (type == Integer.class) {
+            key.set(obj, keys.getInt(1));
+        } else if (type == Long.class) {
+            key.set(obj, keys.getLong(1));
+        } else if (type == Short.class) {
+            key.set(obj, keys.getShort(1));
+        } else if (type == BigDecimal.class) {
+            key.set(obj, keys.getBigDecimal(1));
+        } else if (type == String.class) {
+            key.set(obj, keys.getString(1));
+        } else {
+            key.set(obj, keys.getObject(1));
+        }
+    }
+
+    /**
+     * Sends objects as multi-row INSERT statements. Every full chunk shares one
+     * prepared statement. The remainder is sent in power-of-two sized chunks, so
+     * only a handful of distinct templates are ever prepared and cached per table.
+     */
+    private void insertMultiRow(Connection conn, String sql, ReflectDBProperty[] props, List<Object> objects,
+                                String tableName, int batchSize, ReflectDBProperty generatedKey,
+                                ReflectDBBatchResult result, OperationTrace trace) throws SQLException {
+        final int rowsPerStatement = rowsPerStatement(conn, props, objects, batchSize);
+        int offset = 0;
+        int chunkSize = rowsPerStatement;
+        while (offset < objects.size()) {
+            final String chunkSql = SqlTemplates.multiRowInsert(sql, props.length, chunkSize);
+            try (PreparedStatement ps = prepareInsert(conn, chunkSql, generatedKey)) {
+                while (objects.size() - offset >= chunkSize) {
+                    bindRows(ps, props, objects, offset, chunkSize);
+                    trace.prepared();
+                    trace.flushing();
+                    final int count = ps.executeUpdate();
+                    trace.executed();
+                    trace.flushed(tableName, chunkSql, chunkSize);
+                    trace.rows(count);
+                    result.add(tableName, chunkSql, chunkSize, new int[]{count});
+                    offset = assignGeneratedKeys(ps, generatedKey, objects, offset, chunkSize);
+                    if (generatedKey != null) {
+                        trace.mapped(0);
+                    }
+                }
+            }
+            if (offset < objects.size()) {
+                chunkSize = Integer.highestOneBit(objects.size() - offset);
+            }
+        }
+    }
+
+    /**
+     * Works out how many rows fit in one multi-row INSERT without exceeding the
+     * database's bind parameter limit or (for MySQL/MariaDB) {@code max_allowed_packet}.
+     */
+    private int rowsPerStatement(Connection conn, ReflectDBProperty[] props, List<Object> objects,
+                                 int batchSize) throws SQLException {
+        final ReflectDBDialect dialect = DB.getConfig().getDialect();
+        int rows = Math.min(batchSize, dialect.getMaxParameters() / Math.max(1, props.length));
+        if (dialect.getMaxStatementBytes() != Long.MAX_VALUE) {
+            long widestRow = 1;
+            for (Object obj : objects) {
+                long rowBytes = 0;
+                for (ReflectDBProperty prop : props) {
+                    rowBytes += estimateBytes(prop.get(obj));
                 }
-            } catch (NoSuchFieldException | IllegalAccessException e) {
-                throw new ReflectDBException(e);
+                widestRow = Math.max(widestRow, rowBytes);
             }
+            rows = (int) Math.min(rows, dialect.getMaxStatementBytes() / widestRow);
         }
-        query.append(columnNames.toString()).append(") VALUES (").append(values.toString()).append(");");
-        final String sql = query.toString();
+        return Math.max(1, rows);
+    }
 
-        try (Connection conn = DB.getNativeConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            return ps.executeUpdate() > 0;
+    private static long estimateBytes(Object value) {
+        if (value instanceof String) {
+            // Worst case of four bytes per character plus quotes and escaping
+            return ((String) value).length() * 4L + 4;
+        } else if (value instanceof byte[]) {
+            return ((byte[]) value).length * 2L + 4;
+        }
+        return 24;
+    }
+
+    private void bindRows(PreparedStatement ps, ReflectDBProperty[] props, List<Object> objects,
+                          int offset, int rows) throws SQLException {
+        int index = 1;
+        for (int row = offset; row < offset + rows; row++) {
+            Object obj = objects.get(row);
+            for (ReflectDBProperty prop : props) {
+                MAPPING.mapObjectToPreparedStatement(prop.get(obj), ps, index++);
+            }
         }
     }
 
@@ -188,136 +831,597 @@ public class ReflectDBQuery {
      * @throws Exception if Exception is thrown due to reflection or SQL
      */
     public boolean save(Object obj) throws Exception {
-        StringBuilder query = new StringBuilder("UPDATE ");
-        query.append(obj.getClass().getAnnotation(ReflectDBTable.class).tableName())
-                .append(" SET ");
-        StringJoiner values = new StringJoiner(", ");
-        for (Map.Entry<String,String> entry: MAPPING.getFieldColumnMap(obj.getClass()).entrySet()) {
-            Field f = obj.getClass().getDeclaredField(entry.getKey());
-            f.setAccessible(true);
-            if (isNumericType(f)) {
-                values.add(entry.getValue() + " = " + f.get(obj).toString());
-            } else {
-                values.add(entry.getValue() + " = \"" + f.get(obj).toString() + "\"");
-            }
-        }
-
-        query.append(values);
-        int numPrimaryKey = 0;
-        for (Field field : obj.getClass().getDeclaredFields()) {
-            if (field.getAnnotation(ReflectDBField.class).primaryKey()) {
-                numPrimaryKey++;
-                if (!isNumericType(field)) {
-                    throw new ReflectDBException(String.format("Field: %s declared as primary key," +
-                            " but field is not a numeric type. ReflectDB requires a numeric type.", field.getName()),
-                            new Exception());
-                } else {
-                    field.setAccessible(true);
-                    query.append(" WHERE ").append(field.getAnnotation(ReflectDBField.class).fieldName())
-                            .append(" = ").append(field.get(obj));
+        ReflectDBEntity<?> entity = ReflectDBEntity.of(obj.getClass());
+        ReflectDBProperty primaryKey = entity.requirePrimaryKey();
+        if (!primaryKey.isNumeric()) {
+            throw new ReflectDBException(String.format("Field: %s declared as primary key," +
+                    " but field is not a numeric type. ReflectDB requires a numeric type.", primaryKey.getFieldName()),
+                    new Exception());
+        }
+        SqlTemplates templates = SqlTemplates.of(entity);
+        String sql = templates.update;
+        ReflectDBProperty[] props = templates.updateProperties;
+        BitSet changed = isDirtyTracking() ? DirtyTracker.changed(entity, obj) : null;
+        if (changed != null) {
+            if (changed.isEmpty()) {
+                // Nothing changed since the object was loaded or last written, reported without statements
+                try (OperationTrace trace = OperationTrace.start(ReflectDBOperation.SAVE, entity, sql)) {
+                    trace.succeeded();
                 }
+                return true;
             }
+            SqlTemplates.PartialUpdate update = templates.partialUpdate(changed);
+            sql = update.sql;
+            props = update.properties;
         }
-        if (numPrimaryKey != 1) {
-            String tableName = obj.getClass().getAnnotation(ReflectDBTable.class).tableName();
-            throw new ReflectDBException(
-                    String.format("ReflectDB requires one primary key per table, found: %d keys for table: %s",
-                            numPrimaryKey, tableName));
-        } else {
-            try (Connection conn = DB.getNativeConnection(); PreparedStatement pstmt = conn.prepareStatement(query.toString())) {
-                return pstmt.executeUpdate() > 0;
+        invalidate(entity, obj);
+        try (OperationTrace trace = OperationTrace.start(ReflectDBOperation.SAVE, entity, sql);
+             Connection conn = trace.connected(DB.getNativeConnection()); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            bind(pstmt, props, obj);
+            trace.prepared();
+            final int count = pstmt.executeUpdate();
+            trace.executed();
+            trace.rows(count);
+            if (count > 0) {
+                track(entity, obj);
             }
+            written(entity, obj);
+            trace.succeeded();
+            return count > 0;
+        }
+    }
+
+    public boolean delete(Object obj) {
+        ReflectDBEntity<?> entity = ReflectDBEntity.of(obj.getClass());
+        ReflectDBProperty primaryKey = entity.getPrimaryKey();
+        if (primaryKey == null) {
+            throw new ReflectDBException("Attempted to call ReflectDB.delete on a class with" +
+                    "no clearly defined primary key.");
+        }
+        final String sql = SqlTemplates.of(entity).delete;
+        try (OperationTrace trace = OperationTrace.start(ReflectDBOperation.DELETE, entity, sql);
+             Connection conn = trace.connected(DB.getNativeConnection()); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            MAPPING.mapObjectToPreparedStatement(primaryKey.get(obj), pstmt, 1);
+            DirtyTracker.forget(obj);
+            invalidate(entity, obj);
+            trace.prepared();
+            final int count = pstmt.executeUpdate();
+            trace.executed();
+            trace.rows(count);
+            written(entity, obj);
+            trace.succeeded();
+            return count > 0;
+        } catch (Exception e) {
+            throw new ReflectDBException(String.format("%s.delete yielded SQL: %s, which raised an exception.",
+                    getClass().getName(), sql), e);
         }
     }
 
     /**
-     * Checks whether or not a given field type is a numeric
-     * SQL data type.
-     * @param f Database field, derived from {@code ReflectDBField}
-     * @return True if the supplied datatype is a numeric type.
+     * Removes an object about to be written from the {@code findById} cache of its class, and
+     * results that read its table from the query cache. Entries are dropped before the write,
+     * so the write's own connection never reads them, and again by {@link #written} once
+     * other connections can see it.
      */
-    private boolean isNumericType(Field f) {
-        boolean isNumeric = false;
-        ReflectDBField dbField = f.getAnnotation(ReflectDBField.class);
-        if (dbField != null) {
-            for (String s : NUM_TYPE) {
-                if (dbField.fieldType().startsWith(s)) {
-                    isNumeric = true;
-                    break;
+    private static void invalidate(ReflectDBEntity<?> entity, Object obj) {
+        ReflectDBQueryCache queryCache = DB.getConfig().getQueryCache();
+        if (queryCache != null) {
+            queryCache.invalidateTable(entity.getTableName());
+        }
+        invalidateEntity(entity, obj);
+    }
+
+    /**
+     * Called after a write succeeded. A read on another connection that overlapped the
+     * write may have cached the old row, with a version taken after {@link #invalidate}
+     * ran, so the entries are dropped again once the write is visible: right away, or when
+     * the session it ran in commits or rolls back. A rollback also drops the object's
+     * dirty-tracking snapshot, as the database no longer holds the values it recorded.
+     */
+    private static void written(ReflectDBEntity<?> entity, Object obj) {
+        ReflectDBSession session = DB.getCurrentSession();
+        if (session == null) {
+            invalidate(entity, obj);
+            return;
+        }
+        session.onCompletion(committed -> {
+            invalidate(entity, obj);
+            if (!committed) {
+                DirtyTracker.forget(obj);
+            }
+        });
+    }
+
+    /**
+     * {@link #written} for a bulk write, which is visible once its own transaction commits.
+     */
+    private static void writtenAll(Collection<?> objects) {
+        ReflectDBSession session = DB.getCurrentSession();
+        if (session == null) {
+            invalidateAll(objects);
+            return;
+        }
+        session.onCompletion(committed -> {
+            invalidateAll(objects);
+            if (!committed) {
+                objects.forEach(DirtyTracker::forget);
+            }
+        });
+    }
+
+    private static void invalidateAll(Collection<?> objects) {
+        ReflectDBQueryCache queryCache = DB.getConfig().getQueryCache();
+        ReflectDBEntity<?> previous = null;
+        for (Object obj : objects) {
+            ReflectDBEntity<?> entity = ReflectDBEntity.of(obj.getClass());
+            if (queryCache != null && entity != previous) {
+                queryCache.invalidateTable(entity.getTableName());
+            }
+            previous = entity;
+            invalidateEntity(entity, obj);
+        }
+    }
+
+    private static void invalidateEntity(ReflectDBEntity<?> entity, Object obj) {
+        ReflectDBEntityCache cache = DB.getConfig().getEntityCache(entity.getModelClass());
+        if (cache == null) {
+            return;
+        }
+        Object key = entity.getPrimaryKey() == null ? null : entity.getPrimaryKey().get(obj);
+        if (key instanceof Number && ((Number) key).longValue() > 0) {
+            cache.invalidate(((Number) key).longValue());
+        } else {
+            // The database generates the key, it may be one a cached miss was recorded for
+            cache.invalidateMisses();
+        }
+    }
+
+    private static boolean isDirtyTracking() {
+        return DB.getConfig().isDirtyTrackingEnabled();
+    }
+
+    /**
+     * Snapshots an object's column values for {@code save}, if dirty tracking is enabled.
+     */
+    private static <T> T track(ReflectDBEntity<?> entity, T obj) {
+        if (obj != null && isDirtyTracking()) {
+            DirtyTracker.snapshot(entity, obj);
+        }
+        return obj;
+    }
+
+    private void bindParameters(PreparedStatement ps, Object[] params) throws SQLException {
+        for (int i = 0; i < params.length; i++) {
+            MAPPING.mapObjectToPreparedStatement(params[i], ps, i + 1);
+        }
+    }
+
+    /**
+     * Binds the values of the given properties of an object as statement parameters, in order.
+     */
+    private void bind(PreparedStatement ps, ReflectDBProperty[] props, Object obj) throws SQLException {
+        for (int i = 0; i < props.length; i++) {
+            MAPPING.mapObjectToPreparedStatement(props[i].get(obj), ps, i + 1);
+        }
+    }
+
+    /**
+     * @return True if the object has a primary key value (above zero for numeric keys),
+     * which should be inserted rather than generated by the database.
+     */
+    private boolean hasPrimaryKeyValue(ReflectDBEntity<?> entity, Object obj) {
+        ReflectDBProperty primaryKey = entity.getPrimaryKey();
+        if (primaryKey == null) {
+            return true;
+        }
+        Object value = primaryKey.get(obj);
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue() > 0;
+        }
+        return value != null;
+    }
+
+    /**
+     * Executes a DDL statement, such as one of {@code ReflectDB.getTableCreateDDL()}.
+     * @param sql Statement to execute.
+     * @param tableName Table the statement changes, or null if unknown.
+     * @throws SQLException If the statement fails.
+     */
+    public void executeDdl(String sql, String tableName) throws SQLException {
+        try (OperationTrace trace = OperationTrace.start(ReflectDBOperation.DDL, null, tableName, sql);
+             Connection conn = trace.connected(DB.getNativeConnection()); PreparedStatement ps = conn.prepareStatement(sql)) {
+            trace.prepared();
+            ps.executeUpdate();
+            trace.executed();
+            trace.succeeded();
+        }
+    }
+
+    public <T> List<T> fetchAll(Class<T> modelClass) throws SQLException {
+        ReflectDBEntity<T> entity = ReflectDBEntity.of(modelClass);
+        entity.requireTableName();
+        return fetch(ReflectDBOperation.FETCH_ALL, SqlTemplates.of(entity).selectAll, modelClass, NO_PARAMETERS);
+    }
+
+    public <T> List<T> fetchAll(Class<T> modelClass, int limit) throws SQLException {
+        ReflectDBEntity<T> entity = ReflectDBEntity.of(modelClass);
+        entity.requireTableName();
+        return fetch(ReflectDBOperation.FETCH_ALL,
+                DB.getConfig().getDialect().limit(SqlTemplates.of(entity).selectAll, String.valueOf(limit)),
+                modelClass, NO_PARAMETERS);
+    }
+
+    /**
+     * Fetches every row of a table, selecting and mapping only the given columns. The
+     * narrowed SELECT and a mapper for exactly those columns are built once per model
+     * class and column list. Fields of other columns keep their default values, so
+     * enable dirty tracking before calling {@code save} on projected objects, otherwise
+     * those columns are overwritten. Projections bypass the entity and query caches.
+     * @param modelClass Class of the objects to return.
+     * @param columns Column names to select.
+     * @param <T> Type of the objects being returned.
+     * @return Partially populated objects, one per row.
+     * @throws SQLException If the query fails.
+     */
+    public <T> List<T> fetchAll(Class<T> modelClass, String... columns) throws SQLException {
+        ReflectDBEntity<T> entity = ReflectDBEntity.of(modelClass);
+        entity.requireTableName();
+        SqlTemplates.Projection projection = SqlTemplates.of(entity).projection(columns);
+        return fetch(ReflectDBOperation.FETCH_ALL, entity, projection, projection.select, NO_PARAMETERS);
+    }
+
+    /**
+     * Executes a query selecting exactly the columns of a projection, mapping them with
+     * the projection's mapper. Results are not cached.
+     */
+    <T> List<T> fetch(ReflectDBEntity<T> entity, SqlTemplates.Projection projection, String sql,
+                      Object[] params) throws SQLException {
+        return fetch(ReflectDBOperation.FETCH, entity, projection, sql, params);
+    }
+
+    private <T> List<T> fetch(ReflectDBOperation operation, ReflectDBEntity<T> entity,
+                              SqlTemplates.Projection projection, String sql, Object[] params) throws SQLException {
+        List<T> objList = new ArrayList<>();
+        try (OperationTrace trace = OperationTrace.start(operation, entity, sql);
+             Connection conn = trace.connected(DB.getNativeConnection()); PreparedStatement ps = conn.prepareStatement(sql)) {
+            bindParameters(ps, params);
+            trace.prepared();
+            try (ResultSet rs = ps.executeQuery()) {
+                trace.executed();
+                RowMapper<T> mapper = projection.mapper();
+                while (rs.next()) {
+                    objList.add(track(entity, mapper.map(rs)));
                 }
             }
+            trace.mapped(objList.size());
+            trace.succeeded();
+            return objList;
+        } catch (SQLException | RuntimeException e) {
+            throw e;
+        } catch (NoSuchMethodException e) {
+            throw new ReflectDBException(String.format("Model class: %s must declare a no-argument constructor." +
+                    "E.g. public MyClassName() { super(); }", entity.getModelClass().getName()));
+        } catch (Exception e) {
+            throw new ReflectDBException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Executes a parameterized query whose first column is a count.
+     */
+    long count(ReflectDBEntity<?> entity, String sql, Object[] params) throws SQLException {
+        try (OperationTrace trace = OperationTrace.start(ReflectDBOperation.COUNT, entity, sql);
+             Connection conn = trace.connected(DB.getNativeConnection()); PreparedStatement ps = conn.prepareStatement(sql)) {
+            bindParameters(ps, params);
+            trace.prepared();
+            try (ResultSet rs = ps.executeQuery()) {
+                trace.executed();
+                final long count = rs.next() ? rs.getLong(1) : 0;
+                trace.mapped(1);
+                trace.succeeded();
+                return count;
+            }
         }
-        return isNumeric;
     }
 
-    public boolean delete(Object obj) {
-        StringBuilder sb = new StringBuilder("DELETE FROM ");
-        sb.append(obj.getClass().getAnnotation(ReflectDBTable.class).tableName());
-        sb.append(" WHERE ");
-        int numPrimaryKey = 0;
-        for (Field field: obj.getClass().getDeclaredFields()) {
-            if (field.getAnnotation(ReflectDBField.class).primaryKey()) {
-                numPrimaryKey++;
-                field.setAccessible(true);
-                sb.append(field.getAnnotation(ReflectDBField.class).fieldName());
-                try {
-                    sb.append(" = ").append(field.get(obj));
-                } catch (IllegalAccessException e) {
-                    throw new ReflectDBException(e);
+    /**
+     * Fetches the objects whose column equals a value, see {@link ReflectDBSelect}.
+     * @param modelClass Class of the objects to return.
+     * @param column Column name.
+     * @param value Value to look up, null finds rows where the column is NULL.
+     * @param <T> Type of the objects being returned.
+     * @return Matching objects.
+     * @throws SQLException If the query fails.
+     */
+    public <T> List<T> findBy(Class<T> modelClass, String column, Object value) throws SQLException {
+        return select(modelClass).where(column).eq(value).fetch();
+    }
+
+    /**
+     * Starts a query on a model class, see {@link ReflectDBSelect}.
+     * @param modelClass Class of the objects to return.
+     * @param <T> Type of the objects being returned.
+     * @return A new select of every row and column.
+     */
+    public <T> ReflectDBSelect<T> select(Class<T> modelClass) {
+        return new ReflectDBSelect<>(this, ReflectDBEntity.of(modelClass));
+    }
+
+    /**
+     * Fetches an object by primary key, selecting and mapping only the given columns.
+     * @see #fetchAll(Class, String...)
+     * @param id Unique ID of the object (primary key)
+     * @param modelClass Type to fetch.
+     * @param columns Column names to select.
+     * @param <T> Type of the class being returned.
+     * @return A partially populated object, or null if not exists.
+     * @throws SQLException If the query fails.
+     */
+    public <T> T findById(long id, Class<T> modelClass, String... columns) throws SQLException {
+        ReflectDBEntity<T> entity = ReflectDBEntity.of(modelClass);
+        entity.requireTableName();
+        entity.requirePrimaryKey();
+        SqlTemplates.Projection projection = SqlTemplates.of(entity).projection(columns);
+        try (OperationTrace trace = OperationTrace.start(ReflectDBOperation.FIND_BY_ID, entity, projection.findById);
+             Connection conn = trace.connected(DB.getNativeConnection());
+             PreparedStatement ps = conn.prepareStatement(projection.findById)) {
+            ps.setLong(1, id);
+            trace.prepared();
+            try (ResultSet rs = ps.executeQuery()) {
+                trace.executed();
+                if (!rs.next()) {
+                    trace.succeeded();
+                    return null;
                 }
+                T obj = track(entity, projection.<T>mapper().map(rs));
+                trace.mapped(1);
+                trace.succeeded();
+                return obj;
             }
+        } catch (SQLException | RuntimeException e) {
+            throw e;
+        } catch (NoSuchMethodException e) {
+            throw new ReflectDBException(String.format("Model class: %s must declare a no-argument constructor." +
+                    "E.g. public MyClassName() { super(); }", modelClass.getName()));
+        } catch (Exception e) {
+            throw new ReflectDBException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Fetches one page of a table ordered by primary key, using keyset pagination:
+     * {@code WHERE pk > ? ORDER BY pk LIMIT ?}. Unlike {@code OFFSET}, the database
+     * seeks straight to the first row of the page, so every page costs about the same
+     * however deep it is, and the SQL text is constant so its statement is reused.
+     * @param modelClass ReflectDB table to page through.
+     * @param afterKey Primary key of the last object of the previous page, null for the first page.
+     * @param pageSize Maximum number of objects in the page.
+     * @param <T> Type of the objects being returned.
+     * @return Objects with a primary key greater than {@code afterKey}, in key order.
+     * @throws SQLException If the query fails.
+     */
+    public <T> List<T> fetchPage(Class<T> modelClass, Object afterKey, int pageSize) throws SQLException {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be positive, found: " + pageSize);
         }
-        if (numPrimaryKey == 1) {
-            try (Connection conn = DB.getNativeConnection(); PreparedStatement pstmt = conn.prepareStatement(sb.toString())) {
-                return pstmt.executeUpdate() > 0;
-            } catch (Exception e) {
-                throw new ReflectDBException(String.format("%s.delete yielded SQL: %s, which raised an exception.",
-                        getClass().getName(), sb.toString()), e);
+        ReflectDBEntity<T> entity = ReflectDBEntity.of(modelClass);
+        entity.requireTableName();
+        entity.requirePrimaryKey();
+        SqlTemplates templates = SqlTemplates.of(entity);
+        final String sql = afterKey == null ? templates.firstPage : templates.nextPage;
+        List<T> page = new ArrayList<>(Math.min(pageSize, 1024));
+        try (OperationTrace trace = OperationTrace.start(ReflectDBOperation.FETCH_PAGE, entity, sql);
+             Connection conn = trace.connected(DB.getNativeConnection()); PreparedStatement ps = conn.prepareStatement(sql)) {
+            int index = 1;
+            if (afterKey != null) {
+                ps.setObject(index++, afterKey);
             }
-        } else {
-            throw new ReflectDBException("Attempted to call ReflectDB.delete on a class with" +
-                    "no clearly defined primary key.");
+            ps.setInt(index, pageSize);
+            trace.prepared();
+            try (ResultSet rs = ps.executeQuery()) {
+                trace.executed();
+                RowMapper<T> mapper = RowMapper.of(entity, rs);
+                final boolean track = isDirtyTracking();
+                while (rs.next()) {
+                    T obj = mapper.map(rs);
+                    if (track) {
+                        DirtyTracker.snapshot(entity, obj);
+                    }
+                    page.add(obj);
+                }
+            }
+            trace.mapped(page.size());
+            trace.succeeded();
+        } catch (NoSuchMethodException e) {
+            throw new ReflectDBException(String.format("Model Class: %s must declare a no-argument constructor." +
+                    " E.g. public MyClassName() { super(); }", modelClass.getName()));
+        } catch (SQLException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ReflectDBException(e.getMessage(), e);
         }
+        return page;
     }
 
-    public <T> List<T> fetchAll(Class<T> modelClass) throws SQLException {
-        String tableName = modelClass.getAnnotation(ReflectDBTable.class).tableName();
-        if (tableName.isEmpty()) {
-            throw new ReflectDBException("Cannot fetch objects for a class without a table name.");
+    /**
+     * Pages through a whole table in primary key order, see {@link #fetchPage(Class, Object, int)}.
+     * Each page is fetched on demand with its own short-lived connection.
+     * @param modelClass ReflectDB table to page through.
+     * @param pageSize Maximum number of objects per page.
+     * @param <T> Type of the objects being returned.
+     * @return Iterable over the pages, the last page may be smaller than {@code pageSize}.
+     */
+    public <T> Iterable<List<T>> pages(Class<T> modelClass, int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be positive, found: " + pageSize);
         }
-        tableName = "SELECT * FROM " + tableName;
-        return fetch(tableName, modelClass);
+        ReflectDBProperty primaryKey = ReflectDBEntity.of(modelClass).requirePrimaryKey();
+        return () -> new Iterator<List<T>>() {
+            private List<T> next;
+            private Object lastKey;
+            private boolean done;
+
+            @Override
+            public boolean hasNext() {
+                if (this.next == null && !this.done) {
+                    try {
+                        this.next = fetchPage(modelClass, this.lastKey, pageSize);
+                    } catch (SQLException e) {
+                        throw new ReflectDBException(e.getMessage(), e);
+                    }
+                    if (this.next.size() < pageSize) {
+                        this.done = true;
+                    }
+                    if (this.next.isEmpty()) {
+                        this.next = null;
+                    } else {
+                        this.lastKey = primaryKey.get(this.next.get(this.next.size() - 1));
+                    }
+                }
+                return this.next != null;
+            }
+
+            @Override
+            public List<T> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                List<T> page = this.next;
+                this.next = null;
+                return page;
+            }
+        };
     }
 
-    public <T> List<T> fetchAll(Class<T> modelClass, int limit) throws SQLException {
-        String tableName = modelClass.getAnnotation(ReflectDBTable.class).tableName();
-        if (tableName.isEmpty()) {
-            throw new ReflectDBException("Cannot fetch objects for a class without a table name.");
+    /**
+     * Fetches a whole table using several connections at once. The primary key range is
+     * probed with {@code MIN}/{@code MAX} and split into {@code parallelism} equal ranges,
+     * and each range is fetched and mapped on its own connection on a shared thread pool.
+     * Ranges are split by key value, so tables with very uneven keys split unevenly.
+     * <p>With the built-in pool, parallelism is capped at the pool's maximum size. Inside a
+     * session the table is fetched sequentially on the session's connection, since other
+     * connections can't see the session's uncommitted changes.
+     * @param modelClass ReflectDB table to fetch, must declare one numeric primary key.
+     * @param parallelism Maximum number of ranges fetched at the same time.
+     * @param <T> Type of the objects being returned.
+     * @return Every object in the table, in primary key order.
+     * @throws SQLException If any range fails.
+     */
+    public <T> List<T> parallelFetchAll(Class<T> modelClass, int parallelism) throws SQLException {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive, found: " + parallelism);
+        }
+        ReflectDBEntity<T> entity = ReflectDBEntity.of(modelClass);
+        entity.requireTableName();
+        ReflectDBProperty primaryKey = entity.requirePrimaryKey();
+        if (!primaryKey.isNumeric()) {
+            throw new ReflectDBException(String.format("Field: %s declared as primary key," +
+                    " but field is not a numeric type. ReflectDB requires a numeric type.", primaryKey.getFieldName()));
+        }
+        SqlTemplates templates = SqlTemplates.of(entity);
+        long min;
+        long max;
+        try (Connection conn = DB.getNativeConnection(); PreparedStatement ps = conn.prepareStatement(templates.keyRange);
+             ResultSet rs = ps.executeQuery()) {
+            if (!rs.next()) {
+                return new ArrayList<>();
+            }
+            min = rs.getLong(1);
+            if (rs.wasNull()) {
+                // Empty table
+                return new ArrayList<>();
+            }
+            max = rs.getLong(2);
+        }
+        if (DB.getConfig().isPoolActive()) {
+            // More ranges than pooled connections would only wait on the pool
+            parallelism = Math.min(parallelism, DB.getConfig().getPoolMaxSize());
+        }
+        if (parallelism == 1 || max - min < parallelism || DB.getCurrentSession() != null) {
+            // Too few keys to split, a span that overflows a long, or a session's transaction
+            return fetchRange(entity, templates.rangeSelect, min, max);
+        }
+        final long step = (max - min) / parallelism + 1;
+        List<Future<List<T>>> ranges = new ArrayList<>(parallelism);
+        try {
+            for (long lo = min; lo <= max && lo >= min; lo += step) {
+                final long from = lo;
+                final long to = max - lo < step ? max : lo + step - 1;
+                ranges.add(rangeExecutor().submit(() -> fetchRange(entity, templates.rangeSelect, from, to)));
+            }
+            List<T> all = new ArrayList<>();
+            for (Future<List<T>> range : ranges) {
+                all.addAll(range.get());
+            }
+            return all;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while fetching " + entity.getTableName(), e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new ReflectDBException(e.getCause());
+        } finally {
+            // No-op for completed ranges, stops the rest after a failure
+            for (Future<List<T>> range : ranges) {
+                range.cancel(true);
+            }
         }
-        tableName = "SELECT * FROM " + tableName + " LIMIT " + limit;
-        return fetch(tableName, modelClass);
     }
 
-    private boolean isPrimaryKey(Field f) {
-        ReflectDBField dbField = f.getAnnotation(ReflectDBField.class);
-        return dbField != null && dbField.primaryKey();
+    /**
+     * Threads shared by every {@code parallelFetchAll}. Threads are created as ranges need
+     * them and end after a minute idle, each call bounds how many ranges it runs at once.
+     */
+    private static synchronized ExecutorService rangeExecutor() {
+        if (rangeExecutor == null) {
+            AtomicInteger count = new AtomicInteger();
+            rangeExecutor = Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "ReflectDB-range-" + count.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        return rangeExecutor;
+    }
+
+    private <T> List<T> fetchRange(ReflectDBEntity<T> entity, String sql, long from, long to) throws SQLException {
+        List<T> objList = new ArrayList<>();
+        try (OperationTrace trace = OperationTrace.start(ReflectDBOperation.FETCH_ALL, entity, sql);
+             Connection conn = trace.connected(DB.getNativeConnection()); PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setLong(1, from);
+            ps.setLong(2, to);
+            trace.prepared();
+            try (ResultSet rs = ps.executeQuery()) {
+                trace.executed();
+                RowMapper<T> mapper = RowMapper.of(entity, rs);
+                final boolean track = isDirtyTracking();
+                while (rs.next()) {
+                    T obj = mapper.map(rs);
+                    if (track) {
+                        DirtyTracker.snapshot(entity, obj);
+                    }
+                    objList.add(obj);
+                }
+            }
+            trace.mapped(objList.size());
+            trace.succeeded();
+        } catch (NoSuchMethodException e) {
+            throw new ReflectDBException(String.format("Model Class: %s must declare a no-argument constructor." +
+                    " E.g. public MyClassName() { super(); }", entity.getModelClass().getName()));
+        } catch (SQLException | RuntimeException e) {
+            throw e;
+        } catch (ReflectiveOperationException e) {
+            throw new ReflectDBException(e.getMessage(), e);
+        }
+        return objList;
     }
 
+    private static ExecutorService rangeExecutor = null;
     private static final ReflectDB DB = ReflectDB.getInstance();
     private static final QueryMapping MAPPING = new QueryMapping();
-    private static final List<String> NUM_TYPE = Arrays.asList(
-            "SMALLINT",
-            "INTEGER",
-            "BIGINT",
-            "NUMERIC",
-            "DECIMAL",
-            "FLOAT",
-            "REAL",
-            "DOUBLE PRECISION",
-            "DOUBLE",
-            "NUMBER",
-            "INT",
-            "TINYINT"
-    );
-    private static final String BOOLEAN = "BOOLEAN";
 }
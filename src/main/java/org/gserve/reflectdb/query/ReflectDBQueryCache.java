@@ -0,0 +1,311 @@
+package org.gserve.reflectdb.query;
+/*
+ *  Copyright (C) 2026 Dustin K. Redmond
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 59
+ * Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache of query results for {@code ReflectDB.fetch} and {@code fetchAll}, keyed by
+ * model class, SQL text and bound parameters. Enabled with
+ * {@code ReflectDBConfig.enableQueryCache}.
+ * <p>The cache is bounded by the estimated heap size of its results, evicting the least
+ * recently used results first. A result's size is estimated from its column values,
+ * e.g. two bytes per character of a string plus object headers, and the SQL and
+ * parameters of its key, so a budget holds more narrow rows than wide ones.
+ * Each result is linked to every identifier in its SQL,
+ * and whenever ReflectDB writes to a table ({@code insert}, {@code insertAll},
+ * {@code save}, {@code delete}, {@code dropTable}) the results that mention the table
+ * are dropped, before and again after the write. Writes inside a
+ * {@code ReflectDBSession} drop them once more when the session commits or rolls back,
+ * as other connections may have cached the old rows while it was open. Queries inside
+ * a session bypass the cache, so the session sees its own writes.
+ * Like {@link ReflectDBEntityCache}, results are stored as column values
+ * and every hit returns new objects. Changes made with native SQL are not seen until
+ * a result expires or {@link #clear()} is called.
+ *
+ * @since 10/18/2026 16:55
+ * @author Dustin K. Redmond
+ */
+public class ReflectDBQueryCache {
+    // Rough sizes for a 64-bit JVM with compressed references, headers and padding included
+    private static final int HEADER = 16;
+    private static final int REFERENCE = 4;
+    private static final int STRING = 24 + HEADER;
+    private static final int BOXED = 24;
+    private static final int ROW_LIST = 24 + HEADER;
+    private static final int ENTRY = 128;
+
+    private final long maxBytes;
+    private final long ttlNanos;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Set<Key>> byTable = new HashMap<>();
+    private long rows = 0;
+    private long bytes = 0;
+    // Incremented by every invalidation, so a read that raced a write is not cached.
+    private long version = 0;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * @param maxBytes Estimated heap size, in bytes, of all cached results.
+     * @param ttlMillis Time a result stays valid after it is read from the database, 0 for no expiry.
+     */
+    public ReflectDBQueryCache(long maxBytes, long ttlMillis) {
+        if (maxBytes < 1 || ttlMillis < 0) {
+            throw new IllegalArgumentException(String.format(
+                    "Invalid query cache settings, max bytes: %d ttl: %d", maxBytes, ttlMillis));
+        }
+        this.maxBytes = maxBytes;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+    }
+
+    static Key key(Class<?> modelClass, String sql, Object... params) {
+        return new Key(modelClass, sql, params);
+    }
+
+    /**
+     * @return The cached rows as column values, or null if not cached.
+     */
+    synchronized List<Object[]> get(Key key) {
+        Entry entry = this.entries.get(key);
+        if (entry != null && this.ttlNanos > 0 && System.nanoTime() - entry.expiresAt > 0) {
+            remove(key);
+            entry = null;
+        }
+        if (entry == null) {
+            this.misses.increment();
+            return null;
+        }
+        this.hits.increment();
+        return entry.rows;
+    }
+
+    synchronized long version() {
+        return this.version;
+    }
+
+    /**
+     * Caches a result, unless the cache was invalidated since {@code version} or the
+     * result alone would take more than a quarter of the cache.
+     */
+    synchronized void put(Key key, List<Object[]> result, long version) {
+        if (version != this.version) {
+            return;
+        }
+        long size = sizeOf(key, result);
+        if (size > this.maxBytes / 4) {
+            return;
+        }
+        remove(key);
+        Set<String> tables = identifiers(key.sql);
+        this.entries.put(key, new Entry(result, tables, size, System.nanoTime() + this.ttlNanos));
+        this.rows += result.size();
+        this.bytes += size;
+        for (String table : tables) {
+            this.byTable.computeIfAbsent(table, t -> new HashSet<>()).add(key);
+        }
+        Iterator<Map.Entry<Key, Entry>> it = this.entries.entrySet().iterator();
+        while (this.bytes > this.maxBytes && it.hasNext()) {
+            Map.Entry<Key, Entry> eldest = it.next();
+            it.remove();
+            unlink(eldest.getKey(), eldest.getValue());
+            this.evictions.increment();
+        }
+    }
+
+    /**
+     * Drops every cached result whose SQL mentions a table, e.g. after changing it with native SQL.
+     * @param tableName Name of the table.
+     */
+    public synchronized void invalidateTable(String tableName) {
+        this.version++;
+        Set<Key> keys = this.byTable.remove(tableName.toUpperCase(Locale.ROOT));
+        if (keys != null) {
+            for (Key key : keys) {
+                if (remove(key)) {
+                    this.invalidations.increment();
+                }
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        this.version++;
+        this.entries.clear();
+        this.byTable.clear();
+        this.rows = 0;
+        this.bytes = 0;
+    }
+
+    public synchronized int getSize() { return this.entries.size(); }
+    public synchronized long getRows() { return this.rows; }
+    /**
+     * @return Estimated heap size, in bytes, of the cached results.
+     */
+    public synchronized long getBytes() { return this.bytes; }
+    public long getMaxBytes() { return this.maxBytes; }
+    public long getHits() { return this.hits.sum(); }
+    public long getMisses() { return this.misses.sum(); }
+    public long getEvictions() { return this.evictions.sum(); }
+    public long getInvalidations() { return this.invalidations.sum(); }
+
+    private boolean remove(Key key) {
+        Entry entry = this.entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        unlink(key, entry);
+        return true;
+    }
+
+    /**
+     * Forgets an entry that has already been removed from {@code entries}.
+     */
+    private void unlink(Key key, Entry entry) {
+        this.rows -= entry.rows.size();
+        this.bytes -= entry.size;
+        for (String table : entry.tables) {
+            Set<Key> keys = this.byTable.get(table);
+            if (keys != null) {
+                keys.remove(key);
+                if (keys.isEmpty()) {
+                    this.byTable.remove(table);
+                }
+            }
+        }
+    }
+
+    /**
+     * Estimated heap size of a result and its key. Estimates are rough, they only need to
+     * keep the cache's memory use in proportion to its budget.
+     */
+    private static long sizeOf(Key key, List<Object[]> result) {
+        long size = ENTRY + sizeOf(key.sql) + HEADER + (long) REFERENCE * key.params.length;
+        for (Object param : key.params) {
+            size += sizeOf(param);
+        }
+        size += ROW_LIST + (long) REFERENCE * result.size();
+        for (Object[] row : result) {
+            size += HEADER + (long) REFERENCE * row.length;
+            for (Object value : row) {
+                size += sizeOf(value);
+            }
+        }
+        return size;
+    }
+
+    private static long sizeOf(Object value) {
+        if (value == null || value instanceof Boolean || value instanceof Enum) {
+            // Shared instances
+            return 0;
+        }
+        if (value instanceof String) {
+            return STRING + 2L * ((String) value).length();
+        }
+        if (value instanceof byte[]) {
+            return HEADER + ((byte[]) value).length;
+        }
+        if (value instanceof char[]) {
+            return HEADER + 2L * ((char[]) value).length;
+        }
+        if (value instanceof BigDecimal || value instanceof BigInteger) {
+            return BOXED + HEADER + STRING + value.toString().length();
+        }
+        return BOXED;
+    }
+
+    /**
+     * Every identifier in the SQL, upper case. A superset of the tables read by the
+     * query, since column names and keywords are included, which only means that
+     * a write to a table sharing a name with a column also drops the result.
+     */
+    private static Set<String> identifiers(String sql) {
+        Set<String> identifiers = new HashSet<>();
+        int start = -1;
+        for (int i = 0; i <= sql.length(); i++) {
+            boolean part = i < sql.length()
+                    && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '_' || sql.charAt(i) == '$');
+            if (part && start < 0) {
+                start = i;
+            } else if (!part && start >= 0) {
+                identifiers.add(sql.substring(start, i).toUpperCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return identifiers;
+    }
+
+    static final class Key {
+        private final Class<?> modelClass;
+        private final String sql;
+        private final Object[] params;
+        private final int hash;
+
+        private Key(Class<?> modelClass, String sql, Object[] params) {
+            this.modelClass = modelClass;
+            this.sql = sql;
+            this.params = params;
+            this.hash = 31 * (31 * modelClass.hashCode() + sql.hashCode()) + Arrays.hashCode(params);
+        }
+
+        @Override
+        public int hashCode() { return this.hash; }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return this.hash == other.hash && this.modelClass == other.modelClass
+                    && Objects.equals(this.sql, other.sql) && Arrays.equals(this.params, other.params);
+        }
+    }
+
+    private static final class Entry {
+        private final List<Object[]> rows;
+        private final Set<String> tables;
+        private final long size;
+        private final long expiresAt;
+
+        private Entry(List<Object[]> rows, Set<String> tables, long size, long expiresAt) {
+            this.rows = rows;
+            this.tables = tables;
+            this.size = size;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package org.gserve.reflectdb.query;
+/*
+ *  Copyright (C) 2026 Dustin K. Redmond
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 59
+ * Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+import org.gserve.reflectdb.exception.ReflectDBException;
+import org.gserve.reflectdb.model.ReflectDBEntity;
+import org.gserve.reflectdb.model.ReflectDBProperty;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Fluent SELECT on a model class, e.g.
+ * <pre>{@code
+ * List<Person> people = db.select(Person.class)
+ *         .where("LAST_NAME").eq(lastName)
+ *         .where("AGE").ge(18)
+ *         .orderBy("ID")
+ *         .limit(50)
+ *         .fetch();
+ * }</pre>
+ * Column names are checked against the model class when they are added, and values
+ * are never written into the SQL, only bound to {@code ?} placeholders. Queries of the
+ * same shape therefore render identical SQL whatever the values, and share one
+ * prepared statement in the driver and the pool's statement cache.
+ * <p>Conditions are combined with {@code AND}. A select is not thread-safe, but may be
+ * executed any number of times.
+ *
+ * @param <T> Type of the objects being returned.
+ * @since 10/18/2026 18:55
+ * @author Dustin K. Redmond
+ */
+public class ReflectDBSelect<T> {
+    private final ReflectDBQuery query;
+    private final ReflectDBEntity<T> entity;
+    private final StringBuilder where = new StringBuilder();
+    private final StringBuilder orderBy = new StringBuilder();
+    private final List<Object> parameters = new ArrayList<>();
+    private String[] columns = null;
+    private int limit = -1;
+
+    ReflectDBSelect(ReflectDBQuery query, ReflectDBEntity<T> entity) {
+        entity.requireTableName();
+        this.query = query;
+        this.entity = entity;
+    }
+
+    /**
+     * Selects and maps only the given columns, other fields keep their default values.
+     * @see ReflectDBQuery#fetchAll(Class, String...)
+     * @param columns Column names to select.
+     * @return This select.
+     */
+    public ReflectDBSelect<T> columns(String... columns) {
+        // Validates the columns now rather than on execution
+        SqlTemplates.of(this.entity).projection(columns);
+        this.columns = columns.clone();
+        return this;
+    }
+
+    /**
+     * Adds a condition on a column, completed by one of the {@link Condition} methods.
+     * @param column Column name.
+     * @return The condition to complete.
+     */
+    public Condition where(String column) {
+        return new Condition(property(column));
+    }
+
+    /**
+     * Same as {@link #where(String)}, for readability when adding further conditions.
+     */
+    public Condition and(String column) {
+        return where(column);
+    }
+
+    public ReflectDBSelect<T> orderBy(String column) {
+        return order(column, "");
+    }
+
+    public ReflectDBSelect<T> orderByDesc(String column) {
+        return order(column, " DESC");
+    }
+
+    /**
+     * Limits the number of rows returned. The limit is bound as a parameter too.
+     * @param rows Maximum number of rows.
+     * @return This select.
+     */
+    public ReflectDBSelect<T> limit(int rows) {
+        if (rows < 0) {
+            throw new IllegalArgumentException("Limit must not be negative, was: " + rows);
+        }
+        this.limit = rows;
+        return this;
+    }
+
+    /**
+     * @return Objects for every matching row.
+     * @throws SQLException If the query fails.
+     */
+    public List<T> fetch() throws SQLException {
+        return execute(this.limit);
+    }
+
+    /**
+     * @return The first matching row, or null if none match.
+     * @throws SQLException If the query fails.
+     */
+    public T fetchFirst() throws SQLException {
+        List<T> rows = execute(this.limit < 0 ? 1 : Math.min(this.limit, 1));
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    /**
+     * Counts the matching rows, ignoring the order and limit.
+     * @return Number of matching rows.
+     * @throws SQLException If the query fails.
+     */
+    public long count() throws SQLException {
+        String sql = "SELECT COUNT(*) FROM " + templates().dialect.identifier(this.entity.getTableName()) + this.where;
+        return this.query.count(this.entity, sql, this.parameters.toArray());
+    }
+
+    /**
+     * @return The SQL this select executes, with {@code ?} placeholders.
+     */
+    public String toSql() {
+        return render(this.limit);
+    }
+
+    /**
+     * @return Values bound to the placeholders of {@link #toSql()}, in order.
+     */
+    public List<Object> getParameters() {
+        List<Object> params = new ArrayList<>(this.parameters);
+        if (this.limit >= 0) {
+            params.add(this.limit);
+        }
+        return Collections.unmodifiableList(params);
+    }
+
+    @Override
+    public String toString() {
+        return toSql();
+    }
+
+    private List<T> execute(int limit) throws SQLException {
+        final String sql = render(limit);
+        Object[] params = this.parameters.toArray(new Object[this.parameters.size() + (limit < 0 ? 0 : 1)]);
+        if (limit >= 0) {
+            params[params.length - 1] = limit;
+        }
+        if (this.columns != null) {
+            return this.query.fetch(this.entity, templates().projection(this.columns), sql, params);
+        }
+        return this.query.fetch(sql, this.entity.getModelClass(), params);
+    }
+
+    private String render(int limit) {
+        SqlTemplates templates = templates();
+        String select = (this.columns == null ? templates.selectAll : templates.projection(this.columns).select)
+                + this.where + this.orderBy;
+        return limit < 0 ? select : templates.dialect.limit(select, "?");
+    }
+
+    private SqlTemplates templates() {
+        return SqlTemplates.of(this.entity);
+    }
+
+    private ReflectDBSelect<T> order(String column, String direction) {
+        this.orderBy.append(this.orderBy.length() == 0 ? " ORDER BY " : ", ")
+                .append(templates().dialect.identifier(property(column).getColumnName())).append(direction);
+        return this;
+    }
+
+    private ReflectDBProperty property(String column) {
+        ReflectDBProperty prop = column == null ? null : this.entity.getProperty(column);
+        if (prop == null) {
+            throw new ReflectDBException(String.format("Model class: %s has no column %s.",
+                    this.entity.getModelClass().getName(), column));
+        }
+        return prop;
+    }
+
+    /**
+     * A condition on one column of a {@link ReflectDBSelect}.
+     */
+    public final class Condition {
+        private final String column;
+
+        private Condition(ReflectDBProperty property) {
+            this.column = templates().dialect.identifier(property.getColumnName());
+        }
+
+        /** Column equals a value, or {@code IS NULL} for null. */
+        public ReflectDBSelect<T> eq(Object value) {
+            return value == null ? isNull() : compare(" = ?", value);
+        }
+
+        /** Column differs from a value, or {@code IS NOT NULL} for null. */
+        public ReflectDBSelect<T> ne(Object value) {
+            return value == null ? isNotNull() : compare(" <> ?", value);
+        }
+
+        public ReflectDBSelect<T> lt(Object value) { return compare(" < ?", value); }
+        public ReflectDBSelect<T> le(Object value) { return compare(" <= ?", value); }
+        public ReflectDBSelect<T> gt(Object value) { return compare(" > ?", value); }
+        public ReflectDBSelect<T> ge(Object value) { return compare(" >= ?", value); }
+        public ReflectDBSelect<T> like(String pattern) { return compare(" LIKE ?", pattern); }
+
+        public ReflectDBSelect<T> between(Object low, Object high) {
+            return condition(this.column + " BETWEEN ? AND ?", low, high);
+        }
+
+        public ReflectDBSelect<T> in(Object... values) {
+            return in(Arrays.asList(values));
+        }
+
+        /**
+         * Column equals one of the values. Lists of different sizes are different shapes,
+         * an empty list matches no rows.
+         */
+        public ReflectDBSelect<T> in(Collection<?> values) {
+            if (values.isEmpty()) {
+                return condition("1 = 0");
+            }
+            StringBuilder sb = new StringBuilder(this.column).append(" IN (");
+            for (int i = 0; i < values.size(); i++) {
+                sb.append(i == 0 ? "?" : ", ?");
+            }
+            return condition(sb.append(')').toString(), values.toArray());
+        }
+
+        public ReflectDBSelect<T> isNull() { return condition(this.column + " IS NULL"); }
+        public ReflectDBSelect<T> isNotNull() { return condition(this.column + " IS NOT NULL"); }
+
+        private ReflectDBSelect<T> compare(String operator, Object value) {
+            if (value == null) {
+                throw new IllegalArgumentException("Cannot compare " + this.column + " with null.");
+            }
+            return condition(this.column + operator, value);
+        }
+
+        private ReflectDBSelect<T> condition(String sql, Object... values) {
+            ReflectDBSelect<T> select = ReflectDBSelect.this;
+            select.where.append(select.where.length() == 0 ? " WHERE " : " AND ").append(sql);
+            select.parameters.addAll(Arrays.asList(values));
+            return select;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package org.gserve.reflectdb.query;
+/*
+ *  Copyright (C) 2026 Dustin K. Redmond
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 59
+ * Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+import org.gserve.reflectdb.exception.ReflectDBException;
+import org.gserve.reflectdb.model.ReflectDBEntity;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.NoSuchElementException;
+
+/**
+ * Lazily maps the rows of an open {@code ResultSet}. Resources are released as
+ * soon as the last row has been read, on failure, or when closed.
+ * @since 10/18/2026 14:40
+ * @author Dustin K. Redmond
+ */
+final class ResultSetIterator<T> implements CloseableIterator<T> {
+    private final Connection conn;
+    private final Statement stmt;
+    private final ResultSet rs;
+    private final RowMapper<T> mapper;
+    private final ReflectDBEntity<T> tracked;
+    private final OperationTrace trace;
+    private boolean advanced = false;
+    private boolean failed = false;
+    private boolean hasRow = false;
+    private boolean closed = false;
+
+    /**
+     * @param tracked Entity to snapshot mapped objects for dirty tracking, or null.
+     * @param trace Trace of the query, reported when the iterator is closed.
+     */
+    ResultSetIterator(Connection conn, Statement stmt, ResultSet rs, RowMapper<T> mapper, ReflectDBEntity<T> tracked,
+                      OperationTrace trace) {
+        this.conn = conn;
+        this.stmt = stmt;
+        this.rs = rs;
+        this.mapper = mapper;
+        this.tracked = tracked;
+        this.trace = trace;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (this.closed) {
+            return false;
+        }
+        if (!this.advanced) {
+            try {
+                this.trace.resume();
+                this.hasRow = this.rs.next();
+                this.trace.mapped(0);
+            } catch (SQLException e) {
+                this.failed = true;
+                close();
+                throw new ReflectDBException(e.getMessage(), e);
+            }
+            this.advanced = true;
+            if (!this.hasRow) {
+                close();
+            }
+        }
+        return this.hasRow;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        this.advanced = false;
+        try {
+            this.trace.resume();
+            T obj = this.mapper.map(this.rs);
+            if (this.tracked != null) {
+                DirtyTracker.snapshot(this.tracked, obj);
+            }
+            this.trace.mapped(1);
+            return obj;
+        } catch (SQLException e) {
+            this.failed = true;
+            close();
+            throw new ReflectDBException(e.getMessage(), e);
+        } catch (ReflectiveOperationException e) {
+            this.failed = true;
+            close();
+            throw new ReflectDBException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        if (!this.failed) {
+            this.trace.succeeded();
+        }
+        try {
+            this.rs.close();
+        } catch (SQLException ignored) {
+            // Closing the statement and connection releases it regardless
+        }
+        try {
+            this.stmt.close();
+        } catch (SQLException ignored) {
+            // Closing the connection releases it regardless
+        }
+        try {
+            this.conn.close();
+        } catch (SQLException e) {
+            throw new ReflectDBException(e.getMessage(), e);
+        } finally {
+            this.trace.close();
+        }
+    }
+}
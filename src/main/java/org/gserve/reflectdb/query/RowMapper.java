@@ -0,0 +1,272 @@
+package org.gserve.reflectdb.query;
+/*
+ *  Copyright (C) 2026 Dustin K. Redmond
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 59
+ * Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+import org.gserve.reflectdb.model.ReflectDBEntity;
+import org.gserve.reflectdb.model.ReflectDBGeneratedMapper;
+import org.gserve.reflectdb.model.ReflectDBProperty;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Maps rows of a {@code ResultSet} to model objects. A mapper is compiled once per
+ * model class and select signature (the column labels of the {@code ResultSet}),
+ * and then reused for every row and every later query with the same shape.
+ * <p>Column labels are resolved to column indexes when the mapper is compiled, and
+ * every column is read with the typed getter matching its Java field, so primitive
+ * fields are never boxed. SQL {@code NULL} leaves a primitive field at its default.
+ * Rows of a class with a {@code ReflectDBGeneratedMapper} are mapped by its generated
+ * code, which follows the same rules.
+ *
+ * @since 10/18/2026 10:20
+ * @author Dustin K. Redmond
+ */
+final class RowMapper<T> {
+    private static final ConcurrentMap<Class<?>, ConcurrentMap<String, RowMapper<?>>> MAPPERS = new ConcurrentHashMap<>();
+
+    private final ReflectDBEntity<T> entity;
+    private final ReflectDBProperty[] properties;
+    private final int[] columnIndexes;
+    private final int[] kinds;
+    private final ReflectDBGeneratedMapper<T> generated;
+    // Column index of every entity property for the generated mapper, 0 if not selected.
+    private final int[] generatedColumns;
+
+    private RowMapper(ReflectDBEntity<T> entity, List<ReflectDBProperty> properties, List<Integer> columnIndexes) {
+        this.entity = entity;
+        this.properties = properties.toArray(new ReflectDBProperty[0]);
+        this.columnIndexes = new int[this.properties.length];
+        this.kinds = new int[this.properties.length];
+        for (int i = 0; i < this.properties.length; i++) {
+            this.columnIndexes[i] = columnIndexes.get(i);
+            this.kinds[i] = kindOf(this.properties[i].getJavaType());
+        }
+        this.generated = entity.getGeneratedMapper();
+        if (this.generated != null) {
+            this.generatedColumns = new int[entity.getProperties().size()];
+            for (int i = 0; i < this.properties.length; i++) {
+                this.generatedColumns[entity.getProperties().indexOf(this.properties[i])] = this.columnIndexes[i];
+            }
+        } else {
+            this.generatedColumns = null;
+        }
+    }
+
+    /**
+     * Returns the mapper for the shape of a {@code ResultSet}, compiling it on first use.
+     * @param entity Metadata of the model class.
+     * @param rs {@code ResultSet} whose rows will be mapped.
+     * @param <T> The ReflectDB type.
+     * @return A cached mapper.
+     * @throws SQLException If the {@code ResultSetMetaData} cannot be read.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> RowMapper<T> of(ReflectDBEntity<T> entity, ResultSet rs) throws SQLException {
+        ResultSetMetaData meta = rs.getMetaData();
+        int count = meta.getColumnCount();
+        String[] labels = new String[count];
+        StringBuilder signature = new StringBuilder();
+        for (int i = 1; i <= count; i++) {
+            labels[i - 1] = meta.getColumnLabel(i);
+            signature.append(labels[i - 1]).append(',');
+        }
+        ConcurrentMap<String, RowMapper<?>> mappers =
+                MAPPERS.computeIfAbsent(entity.getModelClass(), c -> new ConcurrentHashMap<>());
+        return (RowMapper<T>) mappers.computeIfAbsent(signature.toString(), s -> compile(entity, labels));
+    }
+
+    /**
+     * Returns a mapper for a SELECT of exactly the given properties, in that order,
+     * without reading the {@code ResultSetMetaData}. Not cached here, projections keep
+     * their own mapper.
+     * @param entity Metadata of the model class.
+     * @param properties Properties selected, column {@code i + 1} holds property {@code i}.
+     * @param <T> The ReflectDB type.
+     * @return A new mapper.
+     */
+    static <T> RowMapper<T> of(ReflectDBEntity<T> entity, List<ReflectDBProperty> properties) {
+        List<Integer> columns = new ArrayList<>(properties.size());
+        for (int i = 1; i <= properties.size(); i++) {
+            columns.add(i);
+        }
+        return new RowMapper<>(entity, properties, columns);
+    }
+
+    private static <T> RowMapper<T> compile(ReflectDBEntity<T> entity, String[] labels) {
+        List<ReflectDBProperty> props = new ArrayList<>();
+        List<Integer> columns = new ArrayList<>();
+        Set<ReflectDBProperty> seen = new HashSet<>();
+        for (int i = 0; i < labels.length; i++) {
+            ReflectDBProperty prop = entity.getProperty(labels[i]);
+            // Only the first occurrence of a column is mapped, e.g. for joins.
+            if (prop != null && seen.add(prop)) {
+                props.add(prop);
+                columns.add(i + 1);
+            }
+        }
+        return new RowMapper<>(entity, props, columns);
+    }
+
+    /**
+     * Creates a model object from the current row.
+     * @param rs {@code ResultSet} positioned on a row.
+     * @return A populated model object.
+     * @throws SQLException If a column cannot be read.
+     * @throws ReflectiveOperationException If the model object cannot be created.
+     */
+    T map(ResultSet rs) throws SQLException, ReflectiveOperationException {
+        if (this.generated != null) {
+            return this.generated.map(rs, this.generatedColumns);
+        }
+        T obj = this.entity.newInstance();
+        for (int i = 0; i < this.properties.length; i++) {
+            ReflectDBProperty prop = this.properties[i];
+            int col = this.columnIndexes[i];
+            switch (this.kinds[i]) {
+                case INT: {
+                    int value = rs.getInt(col);
+                    if (!rs.wasNull()) prop.setInt(obj, value);
+                    break;
+                }
+                case LONG: {
+                    long value = rs.getLong(col);
+                    if (!rs.wasNull()) prop.setLong(obj, value);
+                    break;
+                }
+                case DOUBLE: {
+                    double value = rs.getDouble(col);
+                    if (!rs.wasNull()) prop.setDouble(obj, value);
+                    break;
+                }
+                case FLOAT: {
+                    float value = rs.getFloat(col);
+                    if (!rs.wasNull()) prop.setFloat(obj, value);
+                    break;
+                }
+                case SHORT: {
+                    short value = rs.getShort(col);
+                    if (!rs.wasNull()) prop.setShort(obj, value);
+                    break;
+                }
+                case BYTE: {
+                    byte value = rs.getByte(col);
+                    if (!rs.wasNull()) prop.setByte(obj, value);
+                    break;
+                }
+                case BOOLEAN: {
+                    boolean value = rs.getBoolean(col);
+                    if (!rs.wasNull()) prop.setBoolean(obj, value);
+                    break;
+                }
+                case BOXED_INT: {
+                    int value = rs.getInt(col);
+                    prop.set(obj, rs.wasNull() ? null : value);
+                    break;
+                }
+                case BOXED_LONG: {
+                    long value = rs.getLong(col);
+                    prop.set(obj, rs.wasNull() ? null : value);
+                    break;
+                }
+                case BOXED_DOUBLE: {
+                    double value = rs.getDouble(col);
+                    prop.set(obj, rs.wasNull() ? null : value);
+                    break;
+                }
+                case BOXED_BOOLEAN: {
+                    boolean value = rs.getBoolean(col);
+                    prop.set(obj, rs.wasNull() ? null : value);
+                    break;
+                }
+                case STRING:
+                    prop.set(obj, rs.getString(col));
+                    break;
+                case BIG_DECIMAL:
+                    prop.set(obj, rs.getBigDecimal(col));
+                    break;
+                case DATE:
+                    prop.set(obj, rs.getDate(col));
+                    break;
+                case TIME:
+                    prop.set(obj, rs.getTime(col));
+                    break;
+                case TIMESTAMP:
+                    prop.set(obj, rs.getTimestamp(col));
+                    break;
+                case BYTES:
+                    prop.set(obj, rs.getBytes(col));
+                    break;
+                default:
+                    prop.set(obj, rs.getObject(col));
+            }
+        }
+        return obj;
+    }
+
+    private static int kindOf(Class<?> type) {
+        if (type == int.class) return INT;
+        if (type == long.class) return LONG;
+        if (type == double.class) return DOUBLE;
+        if (type == float.class) return FLOAT;
+        if (type == short.class) return SHORT;
+        if (type == byte.class) return BYTE;
+        if (type == boolean.class) return BOOLEAN;
+        if (type == Integer.class) return BOXED_INT;
+        if (type == Long.class) return BOXED_LONG;
+        if (type == Double.class) return BOXED_DOUBLE;
+        if (type == Boolean.class) return BOXED_BOOLEAN;
+        if (type == String.class) return STRING;
+        if (type == BigDecimal.class) return BIG_DECIMAL;
+        if (type == java.sql.Date.class) return DATE;
+        if (type == Time.class) return TIME;
+        if (type == Timestamp.class) return TIMESTAMP;
+        if (type == byte[].class) return BYTES;
+        return OBJECT;
+    }
+
+    private static final int OBJECT = 0;
+    private static final int INT = 1;
+    private static final int LONG = 2;
+    private static final int DOUBLE = 3;
+    private static final int FLOAT = 4;
+    private static final int SHORT = 5;
+    private static final int BYTE = 6;
+    private static final int BOOLEAN = 7;
+    private static final int BOXED_INT = 8;
+    private static final int BOXED_LONG = 9;
+    private static final int BOXED_DOUBLE = 10;
+    private static final int BOXED_BOOLEAN = 11;
+    private static final int STRING = 12;
+    private static final int BIG_DECIMAL = 13;
+    private static final int DATE = 14;
+    private static final int TIME = 15;
+    private static final int TIMESTAMP = 16;
+    private static final int BYTES = 17;
+}
@@ -0,0 +1,294 @@
+package org.gserve.reflectdb.query;
+/*
+ *  Copyright (C) 2026 Dustin K. Redmond
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 59
+ * Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+import org.gserve.reflectdb.ReflectDB;
+import org.gserve.reflectdb.dialect.ReflectDBDialect;
+import org.gserve.reflectdb.exception.ReflectDBException;
+import org.gserve.reflectdb.model.ReflectDBEntity;
+import org.gserve.reflectdb.model.ReflectDBProperty;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Parameterized CRUD statements for a model class, rendered once per class.
+ * Because the SQL text never contains values, every call for a class produces
+ * the same statement, which lets drivers, servers and the pool's statement
+ * cache reuse it.
+ *
+ * @since 10/18/2026 12:50
+ * @author Dustin K. Redmond
+ */
+final class SqlTemplates {
+    private static final ReflectDB DB = ReflectDB.getInstance();
+    private static final ConcurrentMap<Class<?>, SqlTemplates> TEMPLATES = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, ConcurrentMap<Integer, String>> MULTI_ROW = new ConcurrentHashMap<>();
+    // Partial UPDATEs kept per class, beyond this many column combinations they are rendered on demand.
+    private static final int MAX_PARTIAL_UPDATES = 256;
+    // Projections kept per class, beyond this many column lists they are rendered on demand.
+    private static final int MAX_PROJECTIONS = 256;
+
+    private final ReflectDBEntity<?> entity;
+    private final ConcurrentMap<BitSet, PartialUpdate> partialUpdates = new ConcurrentHashMap<>();
+    private final ConcurrentMap<List<String>, Projection> projections = new ConcurrentHashMap<>();
+    final ReflectDBDialect dialect;
+    private volatile String upsert = null;
+    private volatile boolean upsertRendered = false;
+
+    /** SELECT of every row. */
+    final String selectAll;
+    /** INSERT of every column, used when the primary key has been set. */
+    final String insert;
+    final ReflectDBProperty[] insertProperties;
+    /** INSERT without the primary key, so the database generates it. */
+    final String insertGeneratedKey;
+    final ReflectDBProperty[] insertGeneratedKeyProperties;
+    /** UPDATE of every non-key column, the key is the last parameter. Null without a single key. */
+    final String update;
+    final ReflectDBProperty[] updateProperties;
+    /** DELETE by primary key. Null without a single key. */
+    final String delete;
+    /** SELECT by primary key. Null without a single key. */
+    final String findById;
+    /** First keyset page, the page size is the only parameter. Null without a single key. */
+    final String firstPage;
+    /** Keyset page after a key, parameters are the last key seen and the page size. Null without a single key. */
+    final String nextPage;
+    /** SELECT of the lowest and highest primary key. Null without a single key. */
+    final String keyRange;
+    /** SELECT of the rows with a key between two parameters, inclusive. Null without a single key. */
+    final String rangeSelect;
+
+    private SqlTemplates(ReflectDBEntity<?> entity, ReflectDBDialect dialect) {
+        this.entity = entity;
+        this.dialect = dialect;
+        String table = dialect.identifier(entity.getTableName());
+        ReflectDBProperty primaryKey = entity.getPrimaryKey();
+        List<ReflectDBProperty> all = entity.getProperties();
+        List<ReflectDBProperty> nonKey = new ArrayList<>();
+        for (ReflectDBProperty prop : all) {
+            if (!prop.isPrimaryKey()) {
+                nonKey.add(prop);
+            }
+        }
+
+        this.insertProperties = all.toArray(new ReflectDBProperty[0]);
+        this.insert = insertSql(dialect, table, this.insertProperties);
+        this.insertGeneratedKeyProperties = nonKey.toArray(new ReflectDBProperty[0]);
+        this.insertGeneratedKey = insertSql(dialect, table, this.insertGeneratedKeyProperties);
+        this.selectAll = "SELECT * FROM " + table;
+
+        if (primaryKey == null) {
+            this.update = null;
+            this.updateProperties = null;
+            this.delete = null;
+            this.findById = null;
+            this.firstPage = null;
+            this.nextPage = null;
+            this.keyRange = null;
+            this.rangeSelect = null;
+        } else {
+            String key = dialect.identifier(primaryKey.getColumnName());
+            String where = " WHERE " + key + " = ?";
+            StringJoiner set = new StringJoiner(", ");
+            List<ReflectDBProperty> updateProps = new ArrayList<>(nonKey);
+            for (ReflectDBProperty prop : nonKey) {
+                set.add(dialect.identifier(prop.getColumnName()) + " = ?");
+            }
+            updateProps.add(primaryKey);
+            this.update = "UPDATE " + table + " SET " + set + where;
+            this.updateProperties = updateProps.toArray(new ReflectDBProperty[0]);
+            this.delete = "DELETE FROM " + table + where;
+            this.findById = "SELECT * FROM " + table + where;
+            this.firstPage = dialect.limit("SELECT * FROM " + table + " ORDER BY " + key, "?");
+            this.nextPage = dialect.limit("SELECT * FROM " + table + " WHERE " + key + " > ? ORDER BY " + key, "?");
+            this.keyRange = "SELECT MIN(" + key + "), MAX(" + key + ") FROM " + table;
+            this.rangeSelect = "SELECT * FROM " + table + " WHERE " + key + " >= ? AND "
+                    + key + " <= ? ORDER BY " + key;
+        }
+    }
+
+    /**
+     * Returns the templates of a model class for the configured dialect, rendering them
+     * again if the dialect has changed since, e.g. after initializing another database.
+     */
+    static SqlTemplates of(ReflectDBEntity<?> entity) {
+        final ReflectDBDialect dialect = DB.getConfig().getDialect();
+        SqlTemplates templates = TEMPLATES.get(entity.getModelClass());
+        if (templates == null || templates.dialect != dialect) {
+            templates = new SqlTemplates(entity, dialect);
+            TEMPLATES.put(entity.getModelClass(), templates);
+        }
+        return templates;
+    }
+
+    /**
+     * Returns an UPDATE of only the given columns, used by {@code save} for objects
+     * whose snapshot shows which columns changed. The key is the last parameter.
+     * @param changed Indexes into {@code entity.getProperties()} of the non-key columns to update.
+     * @return The UPDATE and the properties to bind, in order.
+     */
+    PartialUpdate partialUpdate(BitSet changed) {
+        PartialUpdate update = this.partialUpdates.get(changed);
+        if (update == null) {
+            update = new PartialUpdate(this.entity, this.dialect, changed);
+            if (this.partialUpdates.size() < MAX_PARTIAL_UPDATES) {
+                this.partialUpdates.putIfAbsent((BitSet) changed.clone(), update);
+            }
+        }
+        return update;
+    }
+
+    /**
+     * Returns the SELECTs and mapper of a projection, used by {@code fetchAll} and
+     * {@code findById} when only some columns are wanted.
+     * @param columns Column names, in the order they are selected.
+     * @return The projection, cached per column list.
+     */
+    Projection projection(String... columns) {
+        List<String> key = Arrays.asList(columns);
+        Projection projection = this.projections.get(key);
+        if (projection == null) {
+            projection = new Projection(this.entity, this.dialect, columns);
+            if (this.projections.size() < MAX_PROJECTIONS) {
+                this.projections.putIfAbsent(Arrays.asList(columns.clone()), projection);
+            }
+        }
+        return projection;
+    }
+
+    /**
+     * Returns the INSERT of every column that updates the existing row on a primary key
+     * conflict, bound like {@code insert}.
+     * @return The upsert statement, or null if the dialect has no single statement upsert.
+     */
+    String upsert() {
+        String upsert = this.upsert;
+        if (upsert == null && !this.upsertRendered) {
+            ReflectDBProperty primaryKey = this.entity.requirePrimaryKey();
+            List<String> columns = new ArrayList<>();
+            for (ReflectDBProperty prop : this.insertProperties) {
+                if (!prop.isPrimaryKey()) {
+                    columns.add(this.dialect.identifier(prop.getColumnName()));
+                }
+            }
+            upsert = this.dialect.upsert(this.insert, this.dialect.identifier(primaryKey.getColumnName()), columns);
+            this.upsert = upsert;
+            this.upsertRendered = true;
+        }
+        return upsert;
+    }
+
+    /**
+     * Expands a single-row INSERT template into one inserting {@code rows} rows,
+     * e.g. {@code INSERT INTO T (A, B) VALUES (?, ?), (?, ?)}. Templates are cached
+     * so that every full chunk of a bulk insert uses identical SQL text.
+     * @param insert Single-row INSERT from {@code insert} or {@code insertGeneratedKey}.
+     * @param columns Number of parameters per row.
+     * @param rows Number of rows.
+     * @return The multi-row INSERT.
+     */
+    static String multiRowInsert(String insert, int columns, int rows) {
+        return MULTI_ROW.computeIfAbsent(insert, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(rows, r -> {
+                    StringJoiner row = new StringJoiner(", ", "(", ")");
+                    for (int i = 0; i < columns; i++) {
+                        row.add("?");
+                    }
+                    StringBuilder sb = new StringBuilder(insert);
+                    for (int i = 1; i < r; i++) {
+                        sb.append(", ").append(row);
+                    }
+                    return sb.toString();
+                });
+    }
+
+    private static String insertSql(ReflectDBDialect dialect, String table, ReflectDBProperty[] props) {
+        StringJoiner columns = new StringJoiner(", ");
+        StringJoiner values = new StringJoiner(", ");
+        for (ReflectDBProperty prop : props) {
+            columns.add(dialect.identifier(prop.getColumnName()));
+            values.add("?");
+        }
+        return "INSERT INTO " + table + " (" + columns + ") VALUES (" + values + ")";
+    }
+
+    static final class PartialUpdate {
+        final String sql;
+        final ReflectDBProperty[] properties;
+
+        private PartialUpdate(ReflectDBEntity<?> entity, ReflectDBDialect dialect, BitSet changed) {
+            List<ReflectDBProperty> all = entity.getProperties();
+            ReflectDBProperty primaryKey = entity.requirePrimaryKey();
+            StringJoiner set = new StringJoiner(", ");
+            List<ReflectDBProperty> props = new ArrayList<>();
+            for (int i = changed.nextSetBit(0); i >= 0; i = changed.nextSetBit(i + 1)) {
+                set.add(dialect.identifier(all.get(i).getColumnName()) + " = ?");
+                props.add(all.get(i));
+            }
+            props.add(primaryKey);
+            this.sql = "UPDATE " + dialect.identifier(entity.getTableName()) + " SET " + set
+                    + " WHERE " + dialect.identifier(primaryKey.getColumnName()) + " = ?";
+            this.properties = props.toArray(new ReflectDBProperty[0]);
+        }
+    }
+
+    static final class Projection {
+        /** SELECT of the projected columns of every row. */
+        final String select;
+        /** SELECT of the projected columns by primary key. Null without a single key. */
+        final String findById;
+        private final RowMapper<?> mapper;
+
+        private Projection(ReflectDBEntity<?> entity, ReflectDBDialect dialect, String[] columns) {
+            if (columns.length == 0) {
+                throw new ReflectDBException("A projection must select at least one column.");
+            }
+            List<ReflectDBProperty> props = new ArrayList<>(columns.length);
+            StringJoiner select = new StringJoiner(", ", "SELECT ", " FROM " + dialect.identifier(entity.getTableName()));
+            for (String column : columns) {
+                ReflectDBProperty prop = column == null ? null : entity.getProperty(column);
+                if (prop == null) {
+                    throw new ReflectDBException(String.format("Model class: %s has no column %s.",
+                            entity.getModelClass().getName(), column));
+                } else if (props.contains(prop)) {
+                    throw new ReflectDBException(String.format("Column %s is selected more than once.", column));
+                }
+                props.add(prop);
+                select.add(dialect.identifier(prop.getColumnName()));
+            }
+            this.select = select.toString();
+            ReflectDBProperty primaryKey = entity.getPrimaryKey();
+            this.findById = primaryKey == null ? null
+                    : this.select + " WHERE " + dialect.identifier(primaryKey.getColumnName()) + " = ?";
+            this.mapper = RowMapper.of(entity, props);
+        }
+
+        @SuppressWarnings("unchecked")
+        <T> RowMapper<T> mapper() {
+            return (RowMapper<T>) this.mapper;
+        }
+    }
+}
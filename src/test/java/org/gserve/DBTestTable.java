@@ -19,6 +19,7 @@ package org.gserve;
  */
 
 import org.gserve.reflectdb.annotations.ReflectDBField;
+import org.gserve.reflectdb.annotations.ReflectDBIndex;
 import org.gserve.reflectdb.annotations.ReflectDBTable;
 
 /**
@@ -27,6 +28,8 @@ import org.gserve.reflectdb.annotations.ReflectDBTable;
  * Author: Dustin K. Redmond
  */
 @ReflectDBTable(tableName = "TEST_TABLE")
+@ReflectDBIndex(columns = "name")
+@ReflectDBIndex(columns = {"name", "age"}, name = "TEST_TABLE_NAME_AGE")
 @SuppressWarnings({"unused","WeakerAccess"})
 public class DBTestTable {
 
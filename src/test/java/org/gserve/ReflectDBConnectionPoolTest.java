@@ -0,0 +1,163 @@
+package org.gserve;
+/*
+ *  Copyright (C) 2026 Dustin K. Redmond
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc., 59
+ * Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+import org.gserve.reflectdb.pool.ReflectDBConnectionPool;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Junit tests for the built-in connection pool using in-memory SQLite databases.
+ * @since 10/18/2026 11:40
+ * @author Dustin K. Redmond
+ */
+public class ReflectDBConnectionPoolTest {
+
+    private static ReflectDBConnectionPool newPool(int min, int max) throws SQLException {
+        return newPool(min, max, 16);
+    }
+
+    private static ReflectDBConnectionPool newPool(int min, int max, int statementCacheSize) throws SQLException {
+        return new ReflectDBConnectionPool("jdbc:sqlite::memory:", "", "",
+                min, max, 200, 60_000, 0, 1, statementCacheSize);
+    }
+
+    @Test
+    public void testReuse() throws SQLException {
+        ReflectDBConnectionPool pool = newPool(1, 2);
+        try {
+            assertEquals(1, pool.getTotalConnections());
+            Connection conn = pool.getConnection();
+            assertEquals(1, pool.getActiveConnections());
+            assertEquals(0, pool.getIdleConnections());
+            conn.close();
+            assertTrue(conn.isClosed());
+            assertThrows(SQLException.class, conn::createStatement);
+
+            try (Connection again = pool.getConnection()) {
+                assertFalse(again.isClosed());
+                assertEquals(1, pool.getTotalConnections());
+            }
+            assertEquals(1, pool.getIdleConnections());
+        } finally {
+            pool.close();
+        }
+    }
+
+    @Test
+    public void testAcquireTimeout() throws SQLException {
+        ReflectDBConnectionPool pool = newPool(0, 1);
+        try (Connection conn = pool.getConnection()) {
+            assertThrows(SQLTimeoutException.class, pool::getConnection);
+        } finally {
+            pool.close();
+        }
+    }
+
+    @Test
+    public void testResetOnReturn() throws SQLException {
+        ReflectDBConnectionPool pool = newPool(1, 1);
+        try {
+            try (Connection conn = pool.getConnection()) {
+                conn.setAutoCommit(false);
+            }
+            try (Connection conn = pool.getConnection()) {
+                assertTrue(conn.getAutoCommit());
+            }
+        } finally {
+            pool.close();
+        }
+    }
+
+    @Test
+    public void testStatementCache() throws SQLException {
+        ReflectDBConnectionPool pool = newPool(1, 1, 2);
+        try (Connection conn = pool.getConnection()) {
+            for (int i = 0; i < 3; i++) {
+                try (PreparedStatement ps = conn.prepareStatement("SELECT ?")) {
+                    ps.setInt(1, i);
+                    ResultSet rs = ps.executeQuery();
+                    assertTrue(rs.next());
+                    assertEquals(i, rs.getInt(1));
+                }
+            }
+            assertEquals(1, pool.getStatementCacheMisses());
+            assertEquals(2, pool.getStatementCacheHits());
+
+            // A statement still in use is not handed out a second time
+            try (PreparedStatement outer = conn.prepareStatement("SELECT ?");
+                 PreparedStatement inner = conn.prepareStatement("SELECT ?")) {
+                assertNotSame(outer, inner);
+            }
+            assertEquals(2, pool.getStatementCacheMisses());
+
+            conn.prepareStatement("SELECT 1").close();
+            conn.prepareStatement("SELECT 2").close();
+            assertEquals(1, pool.getStatementCacheEvictions());
+        } finally {
+            pool.close();
+        }
+    }
+
+    @Test
+    public void testStatementCacheReset() throws SQLException {
+        ReflectDBConnectionPool pool = newPool(1, 1);
+        final String sql = "SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3";
+        try (Connection conn = pool.getConnection()) {
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setMaxRows(1);
+                ps.setFetchSize(1);
+                ResultSet rs = ps.executeQuery();
+                assertSame(ps, rs.getStatement());
+                assertTrue(rs.next());
+                assertFalse(rs.next());
+            }
+            // The next borrower gets the statement as it was prepared
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                assertEquals(0, ps.getMaxRows());
+                ResultSet rs = ps.executeQuery();
+                int rows = 0;
+                while (rs.next()) {
+                    rows++;
+                }
+                assertEquals(3, rows);
+                // Closing the statement through its results only returns it to the cache
+                rs.getStatement().close();
+                assertTrue(ps.isClosed());
+            }
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                assertTrue(ps.executeQuery().next());
+                ps.setQueryTimeout(5);
+            }
+            assertEquals(2, pool.getStatementCacheHits());
+            // The query timeout isn't restored, so the statement is prepared again
+            conn.prepareStatement(sql).close();
+            assertEquals(2, pool.getStatementCacheHits());
+        } finally {
+            pool.close();
+        }
+    }
+}
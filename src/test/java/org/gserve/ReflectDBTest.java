@@ -20,18 +20,51 @@ package org.gserve;
 
 import org.gserve.reflectdb.ReflectDB;
 import org.gserve.reflectdb.ReflectDBConfig;
+import org.gserve.reflectdb.ReflectDBSession;
+import org.gserve.reflectdb.annotations.ReflectDBField;
+import org.gserve.reflectdb.annotations.ReflectDBIndex;
+import org.gserve.reflectdb.dialect.GenericDialect;
+import org.gserve.reflectdb.dialect.MySqlDialect;
+import org.gserve.reflectdb.dialect.ReflectDBDialect;
+import org.gserve.reflectdb.dialect.SQLiteDialect;
+import org.gserve.reflectdb.exception.ReflectDBException;
+import org.gserve.reflectdb.metrics.ReflectDBEvent;
+import org.gserve.reflectdb.metrics.ReflectDBHistogram;
+import org.gserve.reflectdb.metrics.ReflectDBListener;
+import org.gserve.reflectdb.metrics.ReflectDBMetrics;
+import org.gserve.reflectdb.metrics.ReflectDBOperation;
+import org.gserve.reflectdb.model.ReflectDBEntity;
+import org.gserve.reflectdb.query.CloseableIterator;
+import org.gserve.reflectdb.query.InsertMode;
+import org.gserve.reflectdb.query.ReflectDBBatchResult;
+import org.gserve.reflectdb.query.ReflectDBEntityCache;
+import org.gserve.reflectdb.query.ReflectDBQueryCache;
+import org.gserve.reflectdb.query.ReflectDBQuery;
+import org.gserve.reflectdb.query.ReflectDBSelect;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -198,6 +231,833 @@ public class ReflectDBTest {
         }
     }
 
+    @Test
+    public void testN() {
+        ReflectDBEntity<DBTestTable> entity = ReflectDBEntity.of(DBTestTable.class);
+        assertSame(entity, ReflectDBEntity.of(DBTestTable.class));
+        assertEquals("TEST_TABLE", entity.getTableName());
+        assertEquals("id", entity.getPrimaryKey().getColumnName());
+        assertTrue(entity.getProperty("AGE").isNumeric());
+        assertFalse(entity.getProperty("name").isNumeric());
+    }
+
+    @Test
+    public void testO() {
+        // NULL in a primitive column should leave the field at its default value
+        final String sql = "INSERT INTO TEST_TABLE (id, name, age) VALUES (300, 'NullAge', NULL)";
+        try (Connection conn = db.getNativeConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            db.createTablesIfNotExists();
+            ps.executeUpdate();
+            DBTestTable test = db.findById(300, DBTestTable.class);
+            assertEquals("NullAge", test.getName());
+            assertEquals(0, test.getAge());
+        } catch (SQLException e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    public void testP() {
+        List<DBTestTable> people = new ArrayList<>();
+        for (int i = 2000; i < 3000; i++) {
+            people.add(new DBTestTable(i, "Batch" + i, i % 90));
+        }
+        try {
+            db.createTablesIfNotExists();
+            ReflectDBBatchResult result = db.insertAll(people, 300);
+            assertEquals(4, result.getBatches().size());
+            assertEquals(1000, result.getTotalObjects());
+            assertEquals(1000, result.getRowsAffected());
+            assertEquals(1000, db.fetch("SELECT * FROM TEST_TABLE WHERE id >= 2000 AND id < 3000",
+                    DBTestTable.class).size());
+            assertEquals("Batch2500", db.findById(2500, DBTestTable.class).getName());
+        } catch (SQLException e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    public void testQ() {
+        List<DBTestTable> people = new ArrayList<>();
+        for (int i = 3000; i < 3700; i++) {
+            people.add(new DBTestTable(i, "Multi" + i, i % 90));
+        }
+        try {
+            db.createTablesIfNotExists();
+            // 3 columns per row, so at most 333 rows fit SQLite's 999 parameter limit before 3.32
+            int maxRows = 32766 / 3;
+            try (Connection conn = db.getNativeConnection()) {
+                if (conn.getMetaData().getDatabaseMajorVersion() == 3
+                        && conn.getMetaData().getDatabaseMinorVersion() < 32) {
+                    maxRows = 333;
+                }
+            }
+            ReflectDBBatchResult result = new ReflectDBQuery().insertAll(people, 1000, InsertMode.MULTI_ROW);
+            assertEquals(700, result.getRowsAffected());
+            for (ReflectDBBatchResult.Batch batch : result.getBatches()) {
+                assertTrue(batch.getSize() <= maxRows);
+            }
+            assertEquals(700, db.fetch("SELECT * FROM TEST_TABLE WHERE id >= 3000 AND id < 3700",
+                    DBTestTable.class).size());
+            assertEquals("Multi3699", db.findById(3699, DBTestTable.class).getName());
+        } catch (SQLException e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    public void testR() {
+        List<DBTestTable> people = new ArrayList<>();
+        for (int i = 4000; i < 4100; i++) {
+            people.add(new DBTestTable(i, "Stream" + i, i % 90));
+        }
+        final String sql = "SELECT * FROM TEST_TABLE WHERE id >= 4000 AND id < 4100 ORDER BY id";
+        try {
+            db.createTablesIfNotExists();
+            db.insertAll(people);
+            try (Stream<DBTestTable> stream = db.stream(sql, DBTestTable.class)) {
+                assertEquals(100, stream.filter(t -> t.getName().startsWith("Stream")).count());
+            }
+            try (CloseableIterator<DBTestTable> it = db.iterate(sql, DBTestTable.class)) {
+                assertEquals(4000, it.next().getId());
+                assertEquals(4001, it.next().getId());
+            }
+            try (Stream<DBTestTable> stream = db.streamAll(DBTestTable.class)) {
+                assertTrue(stream.anyMatch(t -> t.getId() == 4099));
+            }
+        } catch (SQLException e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    public void testS() {
+        List<DBTestTable> people = new ArrayList<>();
+        for (int i = 4100; i < 4350; i++) {
+            people.add(new DBTestTable(i, "Page" + i, i % 90));
+        }
+        try {
+            db.createTablesIfNotExists();
+            db.insertAll(people);
+            List<DBTestTable> page = db.fetchPage(DBTestTable.class, 4099, 100);
+            assertEquals(100, page.size());
+            assertEquals(4100, page.get(0).getId());
+            assertEquals(4199, page.get(99).getId());
+
+            int seen = 0;
+            int previous = Integer.MIN_VALUE;
+            for (List<DBTestTable> p : db.pages(DBTestTable.class, 64)) {
+                assertFalse(p.isEmpty());
+                assertTrue(p.size() <= 64);
+                for (DBTestTable t : p) {
+                    assertTrue(t.getId() > previous);
+                    previous = t.getId();
+                    if (t.getId() >= 4100 && t.getId() < 4350) {
+                        seen++;
+                    }
+                }
+            }
+            assertEquals(250, seen);
+        } catch (SQLException e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    public void testT() throws SQLException {
+        db.createTablesIfNotExists();
+        try (ReflectDBSession session = db.openSession(Connection.TRANSACTION_SERIALIZABLE)) {
+            session.insert(new DBTestTable(4400, "RolledBack", 1));
+            assertNotNull(session.findById(4400, DBTestTable.class));
+            session.rollback();
+            assertNull(session.findById(4400, DBTestTable.class));
+
+            session.insert(new DBTestTable(4401, "Kept", 1));
+            Savepoint savepoint = session.setSavepoint();
+            session.insert(new DBTestTable(4402, "Undone", 1));
+            session.rollback(savepoint);
+            session.commit();
+        }
+        assertNull(db.findById(4400, DBTestTable.class));
+        assertNotNull(db.findById(4401, DBTestTable.class));
+        assertNull(db.findById(4402, DBTestTable.class));
+
+        int inserted = db.inTransaction(tx -> {
+            tx.insert(new DBTestTable(4403, "Committed", 1));
+            // ReflectDB calls inside the work join the transaction
+            db.insert(new DBTestTable(4404, "Committed", 1));
+            return tx.fetch("SELECT * FROM TEST_TABLE WHERE id IN (4403, 4404)", DBTestTable.class).size();
+        });
+        assertEquals(2, inserted);
+        assertNotNull(db.findById(4404, DBTestTable.class));
+
+        assertThrows(IllegalStateException.class, () -> db.inTransaction(tx -> {
+            tx.insert(new DBTestTable(4405, "Failed", 1));
+            throw new IllegalStateException("Abort");
+        }));
+        assertNull(db.findById(4405, DBTestTable.class));
+    }
+
+    @Test
+    public void testU() throws SQLException {
+        db.createTablesIfNotExists();
+        db.insert(new DBTestTable(4500, "Tracked", 20));
+        db.getConfig().setDirtyTrackingEnabled(true);
+        try (Connection conn = db.getNativeConnection()) {
+            DBTestTable tracked = db.findById(4500, DBTestTable.class);
+            // Changed behind ReflectDB's back, a partial UPDATE of name must not overwrite it
+            conn.prepareStatement("UPDATE TEST_TABLE SET age = 21 WHERE id = 4500").executeUpdate();
+            tracked.setName("Renamed");
+            assertTrue(db.save(tracked));
+            DBTestTable reloaded = db.findById(4500, DBTestTable.class);
+            assertEquals("Renamed", reloaded.getName());
+            assertEquals(21, reloaded.getAge());
+
+            // Unchanged objects skip the database, so saving a deleted row still reports success
+            conn.prepareStatement("DELETE FROM TEST_TABLE WHERE id = 4500").executeUpdate();
+            assertTrue(db.save(reloaded));
+            reloaded.setAge(22);
+            assertFalse(db.save(reloaded));
+        } finally {
+            db.getConfig().setDirtyTrackingEnabled(false);
+        }
+    }
+
+    @Test
+    public void testV() throws SQLException {
+        db.createTablesIfNotExists();
+        ReflectDBEntityCache cache = db.getConfig().enableEntityCache(DBTestTable.class, 2, 0, true);
+        try (Connection conn = db.getNativeConnection()) {
+            db.insert(new DBTestTable(4600, "Cached", 30));
+            DBTestTable first = db.findById(4600, DBTestTable.class);
+            DBTestTable second = db.findById(4600, DBTestTable.class);
+            assertEquals(1, cache.getHits());
+            assertNotSame(first, second);
+            assertEquals("Cached", second.getName());
+
+            // Native SQL isn't seen while the entry is cached
+            conn.prepareStatement("UPDATE TEST_TABLE SET name = 'Native' WHERE id = 4600").executeUpdate();
+            assertEquals("Cached", db.findById(4600, DBTestTable.class).getName());
+            // Writes through ReflectDB invalidate it
+            second.setName("Saved");
+            db.save(second);
+            assertEquals("Saved", db.findById(4600, DBTestTable.class).getName());
+
+            // Misses are cached until an insert of the id
+            assertNull(db.findById(4601, DBTestTable.class));
+            assertNull(db.findById(4601, DBTestTable.class));
+            db.insert(new DBTestTable(4601, "Inserted", 31));
+            assertNotNull(db.findById(4601, DBTestTable.class));
+
+            db.findById(4602, DBTestTable.class);
+            assertEquals(2, cache.getSize());
+            assertTrue(cache.getEvictions() > 0);
+
+            db.delete(db.findById(4601, DBTestTable.class));
+            assertNull(db.findById(4601, DBTestTable.class));
+        } finally {
+            db.getConfig().disableEntityCache(DBTestTable.class);
+        }
+    }
+
+    @Test
+    public void testW() throws SQLException {
+        db.createTablesIfNotExists();
+        db.insert(new DBTestTable(4700, "Dashboard", 40));
+        final String sql = "SELECT * FROM TEST_TABLE WHERE id BETWEEN 4700 AND 4799";
+        ReflectDBQueryCache cache = db.getConfig().enableQueryCache(1 << 20, 0);
+        try (Connection conn = db.getNativeConnection()) {
+            assertEquals(1, db.fetch(sql, DBTestTable.class).size());
+            List<DBTestTable> cached = db.fetch(sql, DBTestTable.class);
+            assertEquals(1, cache.getHits());
+            assertEquals("Dashboard", cached.get(0).getName());
+            cached.get(0).setName("Modified");
+            assertEquals("Dashboard", db.fetch(sql, DBTestTable.class).get(0).getName());
+
+            // Native SQL isn't seen, writes through ReflectDB to the table invalidate the result
+            conn.prepareStatement("INSERT INTO TEST_TABLE (id, name, age) VALUES (4701, 'Native', 1)").executeUpdate();
+            assertEquals(1, db.fetch(sql, DBTestTable.class).size());
+            db.insert(new DBTestTable(4702, "Inserted", 41));
+            assertEquals(3, db.fetch(sql, DBTestTable.class).size());
+            assertEquals(1, cache.getInvalidations());
+            assertEquals(3, cache.getRows());
+
+            // The budget is in estimated bytes, so wide rows take more of it than narrow ones
+            long narrow = cache.getBytes();
+            cache = db.getConfig().enableQueryCache(narrow * 4, 0);
+            db.fetch(sql, DBTestTable.class);
+            assertEquals(narrow, cache.getBytes());
+            assertTrue(db.save(new DBTestTable(4702, "x".repeat(5000), 41)));
+            assertEquals(3, db.fetch(sql, DBTestTable.class).size());
+            assertEquals(0, cache.getSize());
+            assertEquals(0, cache.getBytes());
+        } finally {
+            db.getConfig().disableQueryCache();
+        }
+    }
+
+    @Test
+    public void testX() throws SQLException {
+        db.createTablesIfNotExists();
+        List<DBTestTable> people = new ArrayList<>();
+        for (int i = 4800; i < 4850; i++) {
+            people.add(new DBTestTable(i, "Async" + i, i % 90));
+        }
+        assertEquals(50, db.insertAllAsync(people).join().getTotalObjects());
+
+        List<CompletableFuture<DBTestTable>> lookups = new ArrayList<>();
+        for (int i = 4800; i < 4850; i++) {
+            lookups.add(db.findByIdAsync(i, DBTestTable.class));
+        }
+        for (int i = 0; i < lookups.size(); i++) {
+            assertEquals(4800 + i, lookups.get(i).join().getId());
+        }
+        assertEquals(50, db.fetchAsync("SELECT * FROM TEST_TABLE WHERE id BETWEEN 4800 AND 4849",
+                DBTestTable.class).join().size());
+
+        CompletionException e = assertThrows(CompletionException.class,
+                () -> db.fetchAsync("SELECT * FROM NO_SUCH_TABLE", DBTestTable.class).join());
+        assertTrue(e.getCause() instanceof SQLException);
+
+        ReflectDBConfig config = new ReflectDBConfig("jdbc:sqlite:ASYNC_DATABASE.db", "ASYNC_DB", "", "", 3306);
+        assertEquals(Runtime.getRuntime().availableProcessors(), config.getAsyncMaxConcurrency());
+        config.setPoolEnabled(true);
+        config.setPoolMaxSize(4);
+        assertEquals(4, config.getAsyncMaxConcurrency());
+        config.setAsyncMaxConcurrency(2);
+        assertEquals(2, config.getAsyncMaxConcurrency());
+    }
+
+    @Test
+    public void testY() throws SQLException {
+        db.createTablesIfNotExists();
+        List<DBTestTable> people = new ArrayList<>();
+        for (int i = 4900; i < 5200; i++) {
+            people.add(new DBTestTable(i, "Parallel" + i, i % 90));
+        }
+        db.insertAll(people);
+        List<DBTestTable> parallel = db.parallelFetchAll(DBTestTable.class, 4);
+        assertEquals(db.fetchAll(DBTestTable.class).size(), parallel.size());
+        for (int i = 1; i < parallel.size(); i++) {
+            assertTrue(parallel.get(i - 1).getId() < parallel.get(i).getId());
+        }
+        assertTrue(parallel.stream().anyMatch(t -> "Parallel5199".equals(t.getName())));
+
+        // Inside a transaction the uncommitted rows are seen, on the transaction's connection
+        db.inTransaction(tx -> {
+            tx.insert(new DBTestTable(7600, "Uncommitted", 1));
+            List<DBTestTable> all = db.parallelFetchAll(DBTestTable.class, 4);
+            assertEquals(7600, all.get(all.size() - 1).getId());
+            assertEquals(parallel.size() + 1, all.size());
+            assertTrue(tx.delete(all.get(all.size() - 1)));
+            return null;
+        });
+    }
+
+    @Test
+    public void testZ() throws SQLException {
+        db.createTablesIfNotExists();
+        List<DBTestTable> generated = new ArrayList<>();
+        try {
+            DBTestTable single = new DBTestTable(0, "Generated", 50);
+            assertTrue(db.insert(single));
+            assertTrue(single.getId() > 0);
+            generated.add(single);
+            assertEquals("Generated", db.findById(single.getId(), DBTestTable.class).getName());
+
+            List<DBTestTable> people = new ArrayList<>();
+            for (int i = 0; i < 25; i++) {
+                people.add(new DBTestTable(0, "GeneratedBatch" + i, i));
+            }
+            generated.addAll(people);
+            List<ReflectDBEvent> events = new ArrayList<>();
+            ReflectDBListener listener = events::add;
+            db.getConfig().addListener(listener);
+            try {
+                new ReflectDBQuery().insertAll(people, 10, InsertMode.BATCH);
+            } finally {
+                db.getConfig().removeListener(listener);
+            }
+            // The requested mode is kept, one executeBatch per 10 rows with keys derived on SQLite
+            assertEquals(3, events.get(0).getStatements());
+            for (DBTestTable person : people) {
+                assertTrue(person.getId() > single.getId());
+                assertEquals(person.getName(), db.findById(person.getId(), DBTestTable.class).getName());
+            }
+
+            List<DBTestTable> multiRow = new ArrayList<>();
+            for (int i = 0; i < 25; i++) {
+                multiRow.add(new DBTestTable(0, "GeneratedMultiRow" + i, i));
+            }
+            generated.addAll(multiRow);
+            ReflectDBBatchResult statements = new ReflectDBQuery().insertAll(multiRow, 10, InsertMode.MULTI_ROW);
+            assertTrue(statements.getBatches().stream().allMatch(b -> b.getUpdateCounts().length == 1));
+            assertEquals(25, statements.getTotalObjects());
+            for (DBTestTable person : multiRow) {
+                assertTrue(person.getId() > people.get(people.size() - 1).getId());
+                assertEquals(person.getName(), db.findById(person.getId(), DBTestTable.class).getName());
+            }
+        } finally {
+            for (DBTestTable person : generated) {
+                if (person.getId() > 0) {
+                    db.delete(person);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testZA() throws SQLException {
+        db.createTablesIfNotExists();
+        assertTrue(db.upsert(new DBTestTable(6000, "Upserted", 60)));
+        assertTrue(db.upsert(new DBTestTable(6000, "Updated", 61)));
+        DBTestTable upserted = db.findById(6000, DBTestTable.class);
+        assertEquals("Updated", upserted.getName());
+        assertEquals(61, upserted.getAge());
+
+        List<DBTestTable> people = new ArrayList<>();
+        for (int i = 6000; i < 6100; i++) {
+            people.add(new DBTestTable(i, "Merged" + i, i % 90));
+        }
+        ReflectDBBatchResult result = db.upsertAll(people);
+        assertEquals(100, result.getTotalObjects());
+        List<DBTestTable> merged = db.fetch("SELECT * FROM TEST_TABLE WHERE id >= 6000 AND id < 6100",
+                DBTestTable.class);
+        assertEquals(100, merged.size());
+        assertTrue(merged.stream().allMatch(t -> t.getName().equals("Merged" + t.getId())));
+    }
+
+    @Test
+    public void testZB() throws SQLException {
+        ReflectDBDialect dialect = db.getConfig().getDialect();
+        if (db.getConfig().isSqlite()) {
+            assertTrue(dialect instanceof SQLiteDialect);
+            assertFalse(dialect.returnsBatchGeneratedKeys());
+            assertTrue(db.getTableCreateDDL().contains(" PRIMARY KEY "));
+            assertFalse(db.getTableCreateDDL().contains("AUTO_INCREMENT"));
+        }
+        // Resolved once, every call sees the same dialect
+        assertSame(dialect, db.getConfig().getDialect());
+        assertEquals("TEST_TABLE", dialect.identifier("TEST_TABLE"));
+        assertEquals("\"ORDER\"", dialect.identifier("ORDER"));
+        assertEquals("\"FIRST NAME\"", dialect.identifier("FIRST NAME"));
+        assertEquals("SELECT * FROM TEST_TABLE LIMIT 5", dialect.limit("SELECT * FROM TEST_TABLE", "5"));
+
+        MySqlDialect mysql = new MySqlDialect(false, 1000);
+        assertEquals("`ORDER`", mysql.identifier("ORDER"));
+        assertEquals(Integer.MIN_VALUE, mysql.getStreamingFetchSize(0));
+        assertEquals(100, mysql.getStreamingFetchSize(100));
+        assertEquals(900, mysql.getMaxStatementBytes());
+        assertEquals("INSERT INTO T (ID, A) VALUES (?, ?) ON DUPLICATE KEY UPDATE A = VALUES(A)",
+                mysql.upsert("INSERT INTO T (ID, A) VALUES (?, ?)", "ID", Collections.singletonList("A")));
+        assertTrue(ReflectDBDialect.fromUrl("jdbc:mariadb://localhost/db") instanceof MySqlDialect);
+        assertNull(new GenericDialect("H2").upsert("INSERT INTO T (ID) VALUES (?)", "ID",
+                Collections.emptyList()));
+
+        // An overriding dialect is used for the generated SQL
+        db.createTablesIfNotExists();
+        db.getConfig().setDialect(new GenericDialect("Test"));
+        try {
+            assertTrue(db.getTableCreateDDL().contains("AUTO_INCREMENT"));
+            assertTrue(db.upsert(new DBTestTable(7000, "Generic", 70)));
+            assertTrue(db.upsert(new DBTestTable(7000, "Generic upsert", 71)));
+            assertEquals("Generic upsert", db.findById(7000, DBTestTable.class).getName());
+        } finally {
+            db.getConfig().setDialect(dialect);
+        }
+        assertNotNull(db.fetchSingle("SELECT * FROM TEST_TABLE WHERE id = 7000", DBTestTable.class));
+    }
+
+    @Test
+    public void testZC() throws SQLException {
+        db.createTablesIfNotExists();
+        db.insert(new DBTestTable(7100, "Projected", 71));
+        List<DBTestTable> all = db.fetchAll(DBTestTable.class, "id", "NAME");
+        assertEquals(db.fetchAll(DBTestTable.class).size(), all.size());
+        DBTestTable projected = all.stream().filter(t -> t.getId() == 7100).findFirst().orElse(null);
+        assertNotNull(projected);
+        assertEquals("Projected", projected.getName());
+        // Columns outside the projection are not read
+        assertEquals(0, projected.getAge());
+
+        DBTestTable byId = db.findById(7100, DBTestTable.class, "age");
+        assertEquals(71, byId.getAge());
+        assertNull(byId.getName());
+        assertNull(db.findById(7199, DBTestTable.class, "age"));
+
+        assertThrows(ReflectDBException.class, () -> db.fetchAll(DBTestTable.class, "id", "missing"));
+        assertThrows(ReflectDBException.class, () -> db.fetchAll(DBTestTable.class, "id", "ID"));
+        assertThrows(ReflectDBException.class, () -> db.fetchAll(DBTestTable.class, new String[0]));
+    }
+
+    @Test
+    public void testZD() throws SQLException {
+        db.createTablesIfNotExists();
+        List<DBTestTable> people = new ArrayList<>();
+        for (int i = 7200; i < 7220; i++) {
+            people.add(new DBTestTable(i, i % 2 == 0 ? "Even" : "Odd", i - 7200));
+        }
+        db.insertAll(people);
+
+        ReflectDBSelect<DBTestTable> evens = db.select(DBTestTable.class)
+                .where("name").eq("Even")
+                .and("id").between(7200, 7219)
+                .orderByDesc("ID")
+                .limit(3);
+        assertEquals("SELECT * FROM TEST_TABLE WHERE name = ? AND id BETWEEN ? AND ? ORDER BY id DESC LIMIT ?",
+                evens.toSql());
+        assertEquals(Arrays.asList("Even", 7200, 7219, 3), evens.getParameters());
+        List<DBTestTable> found = evens.fetch();
+        assertEquals(Arrays.asList(7218, 7216, 7214),
+                found.stream().map(DBTestTable::getId).collect(Collectors.toList()));
+
+        // The same shape renders the same SQL whatever the values
+        ReflectDBSelect<DBTestTable> odds = db.select(DBTestTable.class)
+                .where("name").eq("Odd").and("id").between(7200, 7219).orderByDesc("id").limit(3);
+        assertEquals(evens.toSql(), odds.toSql());
+        assertEquals(7219, odds.fetchFirst().getId());
+
+        assertEquals(10, db.select(DBTestTable.class).where("name").eq("Odd")
+                .and("id").ge(7200).and("id").lt(7220).count());
+        assertEquals(2, db.select(DBTestTable.class).where("id").in(7201, 7203, 7300).and("age").isNotNull()
+                .fetch().size());
+        DBTestTable projected = db.select(DBTestTable.class).columns("id").where("id").eq(7205).fetchFirst();
+        assertEquals(7205, projected.getId());
+        assertNull(projected.getName());
+        assertTrue(db.select(DBTestTable.class).where("id").in(Collections.emptyList()).fetch().isEmpty());
+        assertEquals(1, db.fetch("SELECT * FROM TEST_TABLE WHERE id = ?", DBTestTable.class, 7210).size());
+
+        // Values are bound, never spliced into the SQL
+        assertEquals(0, db.select(DBTestTable.class).where("name").eq("x' OR '1'='1").count());
+        assertThrows(ReflectDBException.class, () -> db.select(DBTestTable.class).where("name; DROP TABLE"));
+        assertThrows(ReflectDBException.class, () -> db.select(DBTestTable.class).orderBy("missing"));
+    }
+
+    @Test
+    public void testZE() throws SQLException {
+        String ddl = db.getTableCreateDDL();
+        assertTrue(ddl.contains("CREATE INDEX IF NOT EXISTS IDX_TEST_TABLE_name ON TEST_TABLE (name);"));
+        assertTrue(ddl.contains("CREATE INDEX IF NOT EXISTS TEST_TABLE_NAME_AGE ON TEST_TABLE (name, age);"));
+        db.createTablesIfNotExists();
+        // Creating the indexes again is a no-op
+        db.createTablesIfNotExists();
+        try (Connection conn = db.getNativeConnection();
+             ResultSet rs = conn.getMetaData().getIndexInfo(null, null, "TEST_TABLE", false, false)) {
+            List<String> names = new ArrayList<>();
+            while (rs.next()) {
+                names.add(rs.getString("INDEX_NAME"));
+            }
+            assertTrue(names.contains("IDX_TEST_TABLE_name"));
+            assertTrue(names.contains("TEST_TABLE_NAME_AGE"));
+        }
+
+        db.insert(new DBTestTable(7300, "Indexed", 73));
+        db.insert(new DBTestTable(7301, "Indexed", 74));
+        List<DBTestTable> found = db.findBy(DBTestTable.class, "NAME", "Indexed");
+        assertEquals(2, found.size());
+        assertTrue(found.stream().allMatch(t -> "Indexed".equals(t.getName())));
+        assertTrue(db.findBy(DBTestTable.class, "name", "Missing").isEmpty());
+        assertThrows(ReflectDBException.class, () -> db.findBy(DBTestTable.class, "nickname", "x"));
+        assertThrows(ReflectDBException.class, () -> ReflectDBEntity.of(BadIndexTable.class));
+    }
+
+    @org.gserve.reflectdb.annotations.ReflectDBTable(tableName = "BAD_INDEX_TABLE")
+    @ReflectDBIndex(columns = "missing")
+    public static class BadIndexTable {
+        @ReflectDBField(fieldName = "id", fieldType = "INTEGER", primaryKey = true)
+        private int id;
+    }
+
+    @Test
+    public void testZF() throws SQLException {
+        List<ReflectDBEvent> events = Collections.synchronizedList(new ArrayList<>());
+        ReflectDBListener listener = events::add;
+        ReflectDBMetrics metrics = db.getConfig().enableMetrics();
+        assertSame(metrics, db.getConfig().enableMetrics());
+        db.getConfig().addListener(listener);
+        try {
+            DBTestTable obj = new DBTestTable(7400, "Measured", 74);
+            assertTrue(db.insert(obj));
+            assertNotNull(db.findById(7400, DBTestTable.class));
+            obj.setAge(75);
+            assertTrue(db.save(obj));
+            db.insertAll(Arrays.asList(new DBTestTable(7401, "Measured", 1), new DBTestTable(7402, "Measured", 2)));
+            assertEquals(3, db.select(DBTestTable.class).where("name").eq("Measured").count());
+            List<DBTestTable> all = db.fetchAll(DBTestTable.class);
+            try (Stream<DBTestTable> stream = db.stream("SELECT * FROM TEST_TABLE WHERE name = 'Measured'", DBTestTable.class)) {
+                assertEquals(3, stream.count());
+            }
+            assertThrows(SQLException.class, () -> db.fetch("SELECT * FROM NO_SUCH_TABLE", DBTestTable.class));
+            for (int id = 7400; id <= 7402; id++) {
+                assertTrue(db.delete(db.findById(id, DBTestTable.class)));
+            }
+
+            ReflectDBEvent insert = events.get(0);
+            assertEquals(ReflectDBOperation.INSERT, insert.getOperation());
+            assertEquals(DBTestTable.class, insert.getModelClass());
+            assertEquals("TEST_TABLE", insert.getTableName());
+            assertTrue(insert.getSql().startsWith("INSERT INTO TEST_TABLE"));
+            assertEquals(1, insert.getRows());
+            assertEquals(1, insert.getStatements());
+            assertFalse(insert.isFailed());
+            assertTrue(insert.getTotalNanos() >= insert.getConnectionNanos() + insert.getPrepareNanos()
+                    + insert.getExecuteNanos() + insert.getMappingNanos());
+
+            ReflectDBEvent findById = events.get(1);
+            assertEquals(ReflectDBOperation.FIND_BY_ID, findById.getOperation());
+            assertEquals(1, findById.getRows());
+            assertTrue(findById.getSql().contains("?"));
+            assertEquals(ReflectDBOperation.SAVE, events.get(2).getOperation());
+            assertEquals(ReflectDBOperation.INSERT_ALL, events.get(3).getOperation());
+            assertEquals(2, events.get(3).getRows());
+            assertEquals("TEST_TABLE", events.get(3).getTableName());
+            assertEquals(ReflectDBOperation.COUNT, events.get(4).getOperation());
+            ReflectDBEvent fetchAll = events.get(5);
+            assertEquals(ReflectDBOperation.FETCH_ALL, fetchAll.getOperation());
+            assertEquals(all.size(), fetchAll.getRows());
+            ReflectDBEvent iterate = events.get(6);
+            assertEquals(ReflectDBOperation.ITERATE, iterate.getOperation());
+            assertEquals(3, iterate.getRows());
+            assertFalse(iterate.isFailed());
+            ReflectDBEvent failed = events.get(7);
+            assertEquals(ReflectDBOperation.FETCH, failed.getOperation());
+            assertTrue(failed.isFailed());
+
+            ReflectDBMetrics.Stats deletes = metrics.getStats(ReflectDBOperation.DELETE, "TEST_TABLE");
+            assertEquals(3, deletes.getCount());
+            assertEquals(3, deletes.getRows());
+            assertEquals(0, deletes.getFailures());
+            assertEquals(3, deletes.getLatency().getCount());
+            assertTrue(deletes.getLatency().getPercentile(50) <= deletes.getLatency().getMax());
+            assertEquals(4, metrics.getStats(ReflectDBOperation.FIND_BY_ID, "TEST_TABLE").getCount());
+            assertEquals(1, metrics.getStats(ReflectDBOperation.FETCH, "TEST_TABLE").getFailures());
+            assertEquals(events.size(), metrics.getStats().stream().mapToLong(ReflectDBMetrics.Stats::getCount).sum());
+
+            // Cache hits and saves skipped by dirty tracking are reported without statements
+            events.clear();
+            db.getConfig().enableEntityCache(DBTestTable.class, 100, 0, false);
+            db.getConfig().enableQueryCache(1 << 20, 0);
+            db.getConfig().setDirtyTrackingEnabled(true);
+            final String sql = "SELECT * FROM TEST_TABLE WHERE id = 7403";
+            DBTestTable cached = new DBTestTable(7403, "Cached", 1);
+            assertTrue(db.insert(cached));
+            for (int i = 0; i < 2; i++) {
+                assertNotNull(db.findById(7403, DBTestTable.class));
+                assertEquals(1, db.fetch(sql, DBTestTable.class).size());
+            }
+            assertTrue(db.save(cached));
+            assertTrue(db.delete(cached));
+            assertEquals(7, events.size());
+            assertFalse(events.get(1).isCacheHit());
+            for (int i : new int[] {3, 4}) {
+                ReflectDBEvent hit = events.get(i);
+                assertTrue(hit.isCacheHit());
+                assertEquals(1, hit.getRows());
+                assertEquals(0, hit.getStatements());
+                assertFalse(hit.isFailed());
+            }
+            assertEquals(ReflectDBOperation.FIND_BY_ID, events.get(3).getOperation());
+            assertEquals(ReflectDBOperation.FETCH, events.get(4).getOperation());
+            ReflectDBEvent skipped = events.get(5);
+            assertEquals(ReflectDBOperation.SAVE, skipped.getOperation());
+            assertEquals(0, skipped.getStatements());
+            assertFalse(skipped.isCacheHit());
+            ReflectDBMetrics.Stats findByIds = metrics.getStats(ReflectDBOperation.FIND_BY_ID, "TEST_TABLE");
+            assertEquals(6, findByIds.getCount());
+            assertEquals(1, findByIds.getCacheHits());
+        } finally {
+            db.getConfig().removeListener(listener);
+            db.getConfig().disableMetrics();
+            db.getConfig().disableEntityCache(DBTestTable.class);
+            db.getConfig().disableQueryCache();
+            db.getConfig().setDirtyTrackingEnabled(false);
+        }
+        assertTrue(db.getConfig().getListeners().isEmpty());
+        assertNull(db.getConfig().getMetrics());
+        int before = events.size();
+        db.fetchAll(DBTestTable.class);
+        assertEquals(before, events.size());
+
+        ReflectDBHistogram histogram = new ReflectDBHistogram();
+        for (long nanos = 1; nanos <= 1000; nanos++) {
+            histogram.record(nanos * 1000);
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1_000_000, histogram.getMax());
+        long p50 = histogram.getPercentile(50);
+        assertTrue(p50 >= 500_000 && p50 <= 625_000, String.valueOf(p50));
+        long p99 = histogram.getPercentile(99);
+        assertTrue(p99 >= 990_000 && p99 <= 1_000_000, String.valueOf(p99));
+        assertEquals(0, new ReflectDBHistogram().getPercentile(99));
+    }
+
+    @Test
+    public void testZG() throws SQLException, IOException {
+        Path file = Files.createTempFile("reflectdb", ".jfr");
+        List<RecordedEvent> events;
+        db.getConfig().setFlightRecorderEnabled(true);
+        try (Recording recording = new Recording()) {
+            recording.enable("org.gserve.reflectdb.Query");
+            recording.enable("org.gserve.reflectdb.RowMapping");
+            recording.enable("org.gserve.reflectdb.BatchFlush");
+            recording.enable("org.gserve.reflectdb.ConnectionAcquisition");
+            recording.start();
+            db.insertAll(Arrays.asList(new DBTestTable(7500, "Recorded", 1), new DBTestTable(7501, "Recorded", 2),
+                    new DBTestTable(7502, "Recorded", 3)));
+            assertNotNull(db.findById(7500, DBTestTable.class));
+            try (Stream<DBTestTable> stream = db.stream("SELECT * FROM TEST_TABLE WHERE name = 'Recorded'", DBTestTable.class)) {
+                assertEquals(3, stream.count());
+            }
+            for (int id = 7500; id <= 7502; id++) {
+                assertTrue(db.delete(db.findById(id, DBTestTable.class)));
+            }
+            recording.stop();
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file);
+        } finally {
+            db.getConfig().setFlightRecorderEnabled(false);
+            Files.deleteIfExists(file);
+        }
+
+        List<RecordedEvent> queries = events.stream()
+                .filter(e -> e.getEventType().getName().equals("org.gserve.reflectdb.Query"))
+                .collect(Collectors.toList());
+        assertEquals(9, queries.size());
+        RecordedEvent findById = queries.stream()
+                .filter(e -> "FIND_BY_ID".equals(e.getString("operation"))).findFirst().orElseThrow(AssertionError::new);
+        assertEquals("TEST_TABLE", findById.getString("tableName"));
+        assertTrue(findById.getString("sql").contains("?"));
+        assertEquals(1, findById.getLong("rows"));
+        assertEquals(DBTestTable.class.getName(), findById.getClass("modelClass").getName());
+        assertFalse(findById.getBoolean("failed"));
+
+        RecordedEvent flush = events.stream()
+                .filter(e -> e.getEventType().getName().equals("org.gserve.reflectdb.BatchFlush"))
+                .findFirst().orElseThrow(AssertionError::new);
+        assertEquals("TEST_TABLE", flush.getString("tableName"));
+        assertEquals(3, flush.getLong("rows"));
+
+        List<RecordedEvent> mappings = events.stream()
+                .filter(e -> e.getEventType().getName().equals("org.gserve.reflectdb.RowMapping"))
+                .collect(Collectors.toList());
+        // 4 findById and the stream
+        assertEquals(5, mappings.size());
+        assertTrue(mappings.stream().anyMatch(e -> e.getLong("rows") == 3
+                && e.getString("sql").contains("'Recorded'")));
+        assertTrue(events.stream().filter(e -> e.getEventType().getName().equals("org.gserve.reflectdb.ConnectionAcquisition"))
+                .count() >= queries.size());
+
+        // Disabled in the config, nothing is emitted even while recording
+        try (Recording recording = new Recording()) {
+            recording.enable("org.gserve.reflectdb.Query");
+            recording.enable("org.gserve.reflectdb.ConnectionAcquisition");
+            recording.start();
+            db.fetchAll(DBTestTable.class);
+            recording.stop();
+            recording.dump(file);
+            assertTrue(RecordingFile.readAllEvents(file).stream()
+                    .noneMatch(e -> e.getEventType().getName().startsWith("org.gserve.reflectdb.")));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testZH() throws SQLException {
+        db.createTablesIfNotExists();
+        ReflectDBEntityCache cache = db.getConfig().enableEntityCache(DBTestTable.class, 100, 0, false);
+        ReflectDBQueryCache queryCache = db.getConfig().enableQueryCache(1 << 20, 0);
+        final String sql = "SELECT * FROM TEST_TABLE WHERE id = 7700";
+        DBTestTable row = new DBTestTable(7700, "Committed", 1);
+        try {
+            assertTrue(db.insert(row));
+            db.inTransaction(tx -> {
+                row.setName("Pending");
+                assertTrue(tx.save(row));
+                // Other connections read, and cache, the committed row while the write is open
+                assertEquals("Committed", db.findByIdAsync(7700, DBTestTable.class).join().getName());
+                assertEquals("Committed", db.fetchAsync(sql, DBTestTable.class).join().get(0).getName());
+                assertEquals(1, cache.getSize());
+                assertEquals(1, queryCache.getSize());
+                return null;
+            });
+            // The commit dropped them
+            assertEquals("Pending", db.findById(7700, DBTestTable.class).getName());
+            assertEquals("Pending", db.fetch(sql, DBTestTable.class).get(0).getName());
+
+            try (ReflectDBSession session = db.openSession()) {
+                row.setName("RolledBack");
+                assertTrue(session.save(row));
+                session.rollback();
+            }
+            assertEquals("Pending", db.findById(7700, DBTestTable.class).getName());
+            assertEquals("Pending", db.fetch(sql, DBTestTable.class).get(0).getName());
+        } finally {
+            db.getConfig().disableEntityCache(DBTestTable.class);
+            db.getConfig().disableQueryCache();
+            db.delete(row);
+        }
+    }
+
+    @Test
+    public void testZI() throws SQLException {
+        db.createTablesIfNotExists();
+        db.getConfig().setDirtyTrackingEnabled(true);
+        try {
+            DBTestTable row = new DBTestTable(7701, "Tracked", 30);
+            assertTrue(db.insert(row));
+            try (ReflectDBSession session = db.openSession()) {
+                row.setAge(31);
+                assertTrue(session.save(row));
+                // Closed without commit, the UPDATE is rolled back
+            }
+            // The snapshot was dropped with the rollback, so the change is written again
+            assertTrue(db.save(row));
+            assertEquals(31, db.findById(7701, DBTestTable.class).getAge());
+
+            db.inTransaction(tx -> {
+                row.setAge(32);
+                assertTrue(tx.save(row));
+                return null;
+            });
+            // Committed, the snapshot stays and an unchanged object skips the database
+            assertTrue(db.save(row));
+            assertEquals(32, db.findById(7701, DBTestTable.class).getAge());
+            assertTrue(db.delete(row));
+        } finally {
+            db.getConfig().setDirtyTrackingEnabled(false);
+        }
+    }
+
+    @Test
+    public void testZJ() throws SQLException {
+        db.createTablesIfNotExists();
+        ReflectDBEntityCache cache = db.getConfig().enableEntityCache(DBTestTable.class, 100, 0, true);
+        ReflectDBQueryCache queryCache = db.getConfig().enableQueryCache(1 << 20, 0);
+        final String sql = "SELECT * FROM TEST_TABLE WHERE id = 7702";
+        DBTestTable row = new DBTestTable(7702, "Inserted", 1);
+        try {
+            db.inTransaction(tx -> {
+                assertTrue(tx.insert(row));
+                // Another connection doesn't see the insert yet, and caches the missing id
+                assertNull(db.findByIdAsync(7702, DBTestTable.class).join());
+                assertTrue(db.fetchAsync(sql, DBTestTable.class).join().isEmpty());
+                assertEquals(1, cache.getSize());
+                assertEquals(1, queryCache.getSize());
+                // The session still reads its own write
+                assertEquals("Inserted", tx.findById(7702, DBTestTable.class).getName());
+                assertEquals(1, tx.fetch(sql, DBTestTable.class).size());
+                return null;
+            });
+            assertEquals("Inserted", db.findById(7702, DBTestTable.class).getName());
+            assertEquals(1, db.fetch(sql, DBTestTable.class).size());
+        } finally {
+            db.getConfig().disableEntityCache(DBTestTable.class);
+            db.getConfig().disableQueryCache();
+            db.delete(row);
+        }
+    }
+
     @AfterAll
     static void tearDown() {
         // You should test with both SQLite as well as MySQL/MariaDB